@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.datastructure;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A minimum priority queue of int indices in the range [0, capacity), ordered by their double keys.
+ * Every index may be present at most once, and its position in the heap is tracked,
+ * so that the key of an enqueued index can be decreased in O(log N) instead of enqueueing a duplicate.
+ * A d-ary heap is shallower than a binary one, which makes sift-up (decrease-key) cheaper,
+ * and keeps the children of a node next to each other in memory.
+ * Nothing is boxed, and an instance can be cleared and reused for another run in O(size) time.
+ */
+public class IndexedDaryHeap {
+    private final int arity;
+    private final int[] heap;      // heap position -> index
+    private final int[] positions; // index -> heap position, -1 when the index isn't enqueued
+    private final double[] keys;   // index -> key
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) throw new IllegalArgumentException("A heap must have at least two children per node. Bad arity was " + arity);
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int index) {
+        return positions[index] != -1;
+    }
+
+    public double keyOf(int index) {
+        if (!contains(index)) throw new NoSuchElementException("Index " + index + " isn't in the heap");
+        return keys[index];
+    }
+
+    public void insert(int index, double key) {
+        if (contains(index)) throw new IllegalArgumentException("Index " + index + " is already in the heap");
+        keys[index] = key;
+        heap[size] = index;
+        positions[index] = size;
+        siftUp(size++);
+    }
+
+    public void decreaseKey(int index, double key) {
+        if (key > keyOf(index)) throw new IllegalArgumentException("The new key " + key + " is greater than the current one " + keys[index]);
+        keys[index] = key;
+        siftUp(positions[index]);
+    }
+
+    /**
+     * Enqueues the index, or lowers its key if the index is already enqueued with a greater one
+     *
+     * @return true if the heap has changed
+     */
+    public boolean insertOrDecrease(int index, double key) {
+        if (!contains(index)) {
+            insert(index, key);
+            return true;
+        }
+        if (key >= keys[index]) return false;
+        decreaseKey(index, key);
+        return true;
+    }
+
+    public int peekMin() {
+        if (size == 0) throw new NoSuchElementException("The heap is empty");
+        return heap[0];
+    }
+
+    public double peekMinKey() {
+        return keys[peekMin()];
+    }
+
+    public int pollMin() {
+        int min = peekMin();
+        int last = heap[--size];
+        positions[min] = -1;
+        if (size > 0) {
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) positions[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        double key = keys[index];
+        while (position > 0) {
+            int parent = (position - 1) / arity;
+            int parentIndex = heap[parent];
+            if (keys[parentIndex] <= key) break;
+            heap[position] = parentIndex;
+            positions[parentIndex] = position;
+            position = parent;
+        }
+        heap[position] = index;
+        positions[index] = position;
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        double key = keys[index];
+        while (true) {
+            int firstChild = position * arity + 1;
+            if (firstChild >= size) break;
+            int lastChild = Math.min(firstChild + arity, size);
+            int best = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++)
+                if (keys[heap[child]] < keys[heap[best]]) best = child;
+            if (keys[heap[best]] >= key) break;
+            heap[position] = heap[best];
+            positions[heap[position]] = position;
+            position = best;
+        }
+        heap[position] = index;
+        positions[index] = position;
+    }
+}
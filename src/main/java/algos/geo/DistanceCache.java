@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.geo;
+
+import algos.graph.objects.GeoNode;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Distances between every two points of a fixed set, each calculated once. The distance is symmetric,
+ * so only the pairs below the diagonal are kept, packed row by row into a single array: the pair (i, j) with i > j is at i * (i - 1) / 2 + j.
+ * A distance is calculated when it's asked for the first time, or all of them at once in parallel by {@link #fill(ForkJoinPool)}.
+ * <p>
+ * The cache takes n * (n - 1) / 2 doubles, so it's meant for sets of a few thousand points, like the cities of a map.
+ * Concurrent calls are safe: two threads may calculate the same distance twice, but they write the same value.
+ * The distances are read and written in opaque mode, as a plain double may be torn into two halves under JLS §17.7,
+ * so a thread sees either NaN or a whole distance.
+ */
+public final class DistanceCache {
+    private static final int MAX_SIZE = 65_536;
+    private static final VarHandle DISTANCES = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private final double[] latitudes, longitudes;
+    private final GeoDistances.Formula formula;
+    private final double[] distances;
+
+    public static DistanceCache of(List<? extends GeoNode> nodes, GeoDistances.Formula formula) {
+        return new DistanceCache(nodes.stream().mapToDouble(GeoNode::getLatitude).toArray(),
+                nodes.stream().mapToDouble(GeoNode::getLongitude).toArray(), formula);
+    }
+
+    /**
+     * @param latitudes  latitudes of the points in degrees
+     * @param longitudes longitudes of the points in degrees
+     * @param formula    the formula to calculate a distance by
+     */
+    public DistanceCache(double[] latitudes, double[] longitudes, GeoDistances.Formula formula) {
+        if (latitudes.length != longitudes.length)
+            throw new IllegalArgumentException("There must be a longitude per latitude");
+        if (latitudes.length > MAX_SIZE)
+            throw new IllegalArgumentException("The cache holds " + MAX_SIZE + " points at most. Bad amount was " + latitudes.length);
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        this.formula = formula;
+        int n = latitudes.length;
+        this.distances = new double[(int) ((long) n * (n - 1) / 2)];
+        Arrays.fill(distances, Double.NaN);
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    /**
+     * @return distance between the i-th and the j-th points in meters
+     */
+    public double get(int i, int j) {
+        if (i < 0 || i >= latitudes.length || j < 0 || j >= latitudes.length)
+            throw new IllegalArgumentException("No such point. Bad pair was " + i + ", " + j);
+        if (i == j) return .0d;
+        if (i < j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        int position = position(i, j);
+        double distance = (double) DISTANCES.getOpaque(distances, position);
+        if (Double.isNaN(distance)) {
+            distance = formula.distance(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+            DISTANCES.setOpaque(distances, position, distance);
+        }
+        return distance;
+    }
+
+    public DistanceCache fill() {
+        return fill(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * The method calculates all the distances not calculated yet, a row per task
+     *
+     * @return this cache
+     */
+    public DistanceCache fill(ForkJoinPool pool) {
+        pool.submit(() -> IntStream.range(1, latitudes.length).parallel().forEach(i -> {
+            for (int j = 0, position = position(i, 0); j < i; j++, position++)
+                if (Double.isNaN((double) DISTANCES.getOpaque(distances, position)))
+                    DISTANCES.setOpaque(distances, position, formula.distance(latitudes[i], longitudes[i], latitudes[j], longitudes[j]));
+        })).join();
+        return this;
+    }
+
+    private static int position(int i, int j) {
+        return (int) ((long) i * (i - 1) / 2) + j;
+    }
+}
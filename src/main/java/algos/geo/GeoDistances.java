@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.geo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Distances between many pairs of points at once, in meters, and cheaper formulas than {@link Vincenty} for where an estimate is enough.
+ * Coordinates come as separate arrays of latitudes and longitudes in degrees rather than as an array of point objects,
+ * so a batch goes over plain arrays of doubles, and the batch is cut into chunks which run in parallel on a fork/join pool.
+ * <p>
+ * The haversine formula takes the Earth for a sphere of the mean radius, and it differs from the ellipsoidal distance of Vincenty
+ * by {@link #HAVERSINE_ERROR} at most. The equirectangular formula also takes the sphere for a plane around the middle latitude of the two points,
+ * which adds an error of the order of the squared distance, so it's only good for points close to each other and far enough from the poles:
+ * it adds less than 0.01% to the error of the haversine formula up to 100 kilometers below the 70th parallels.
+ */
+public final class GeoDistances {
+    public static final double EARTH_RADIUS = 6_371_008.8d;
+    /**
+     * Relative error of the haversine formula against Vincenty, a haversine distance multiplied by 1 - HAVERSINE_ERROR never exceeds the geodesic one.
+     * The exception are nearly antipodal points, where {@link Vincenty#getDistance} doesn't converge and returns 0 rather than a distance.
+     */
+    public static final double HAVERSINE_ERROR = 0.006d;
+    private static final int CHUNK = 4096;
+
+    public enum Formula {
+        VINCENTY {
+            @Override
+            public double distance(double lat1, double lon1, double lat2, double lon2) {
+                return Vincenty.getDistance(lat1, lon1, lat2, lon2);
+            }
+        },
+        HAVERSINE {
+            @Override
+            public double distance(double lat1, double lon1, double lat2, double lon2) {
+                return haversine(lat1, lon1, lat2, lon2);
+            }
+        },
+        EQUIRECTANGULAR {
+            @Override
+            public double distance(double lat1, double lon1, double lat2, double lon2) {
+                return equirectangular(lat1, lon1, lat2, lon2);
+            }
+        };
+
+        public abstract double distance(double lat1, double lon1, double lat2, double lon2);
+    }
+
+    private GeoDistances() {
+    }
+
+    /**
+     * The method takes the angle by atan2 rather than by asin, which the JVM runs much slower
+     *
+     * @return great circle distance between two points over a sphere of the mean radius of the Earth, in meters
+     */
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1), phi2 = Math.toRadians(lat2);
+        double sinPhi = Math.sin((phi2 - phi1) * .5d), sinLambda = Math.sin(Math.toRadians(lon2 - lon1) * .5d);
+        double h = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2 * EARTH_RADIUS * Math.atan2(Math.sqrt(h), Math.sqrt(Math.max(.0d, 1 - h)));
+    }
+
+    /**
+     * @return distance between two points over the plane which touches the sphere of the mean radius of the Earth at their middle latitude, in meters
+     */
+    public static double equirectangular(double lat1, double lon1, double lat2, double lon2) {
+        double lambda = lon2 - lon1;
+        if (lambda > 180) lambda -= 360;
+        else if (lambda < -180) lambda += 360;
+        double x = Math.toRadians(lambda) * Math.cos(Math.toRadians((lat1 + lat2) * .5d)), y = Math.toRadians(lat2 - lat1);
+        return EARTH_RADIUS * Math.sqrt(x * x + y * y);
+    }
+
+    public static double[] distances(double[] lat1, double[] lon1, double[] lat2, double[] lon2, Formula formula) {
+        double[] distances = new double[lat1.length];
+        distances(lat1, lon1, lat2, lon2, formula, distances, ForkJoinPool.commonPool());
+        return distances;
+    }
+
+    /**
+     * The method calculates the distances between pairs of points: the i-th distance is the distance between (lat1[i], lon1[i]) and (lat2[i], lon2[i])
+     *
+     * @param formula   the formula to calculate a distance by
+     * @param distances array to write the distances into, of the same length as the coordinates
+     * @param pool      the pool to run the chunks on
+     */
+    public static void distances(double[] lat1, double[] lon1, double[] lat2, double[] lon2, Formula formula, double[] distances, ForkJoinPool pool) {
+        int n = lat1.length;
+        if (lon1.length != n || lat2.length != n || lon2.length != n || distances.length != n)
+            throw new IllegalArgumentException("All the arrays must be of the same length");
+        if (n <= CHUNK) {
+            for (int i = 0; i < n; i++) distances[i] = formula.distance(lat1[i], lon1[i], lat2[i], lon2[i]);
+            return;
+        }
+        pool.submit(() -> IntStream.range(0, (n + CHUNK - 1) / CHUNK).parallel().forEach(chunk -> {
+            for (int i = chunk * CHUNK, end = Math.min(n, i + CHUNK); i < end; i++)
+                distances[i] = formula.distance(lat1[i], lon1[i], lat2[i], lon2[i]);
+        })).join();
+    }
+}
@@ -6,6 +6,7 @@ package algos.graph;
 import algos.graph.exception.GraphInstantiationException;
 import algos.graph.objects.Arc;
 import algos.graph.objects.DirectedGraph;
+import algos.graph.objects.IntDoubleConsumer;
 
 import java.util.*;
 
@@ -22,10 +23,13 @@ import java.util.*;
 public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedGraph<N, A> {
     private boolean[][] adjacencyMatrix;
     private N[] nodes;
+    private IdentityHashMap<N, Integer> indices;
     private HashSet<String> arcs;
+    private volatile long modificationCount;
 
     public AdjacencyMatrixDirectedGraph(N[] nodes) {
         this.nodes = nodes;
+        reindex();
     }
     public AdjacencyMatrixDirectedGraph(N[] nodes, boolean[][] adjacency) throws GraphInstantiationException {
         reinit(nodes, adjacency);
@@ -33,6 +37,7 @@ public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedG
 
     public void setAdjacencyMatrix(boolean[][] adjacencyMatrix) {
         this.adjacencyMatrix = adjacencyMatrix;
+        modified();
     }
 
     public boolean[][] getAdjacencyMatrix() {
@@ -65,6 +70,15 @@ public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedG
         return this.arcs.size();
     }
 
+    /**
+     * Nodes are looked up by reference, as they always were, so the index is an identity hash map.
+     * A node which occurs twice keeps its first index.
+     */
+    private void reindex() {
+        this.indices = new IdentityHashMap<>(this.nodes.length * 4 / 3 + 1);
+        for (int i = 0; i < this.nodes.length; i++) this.indices.putIfAbsent(this.nodes[i], i);
+    }
+
     public int addNode(N vertex, boolean[][] adjacency) throws GraphInstantiationException {
         N[] updatedNodes = (N[]) new Object[this.nodes.length + 1];
         updatedNodes[updatedNodes.length-1] = vertex;
@@ -74,13 +88,22 @@ public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedG
         return oldLength;
     }
 
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    protected void modified() {
+        modificationCount++;
+    }
+
     public N nodeAt(int index) {
         return this.nodes[index];
     }
 
     public int indexOf(N node) {
-        for (int i = 0; i < nodes.length; i++) if (nodes[i] == node) return i;
-        return -1;
+        Integer index = this.indices.get(node);
+        return Objects.isNull(index) ? -1 : index;
     }
 
     @Override
@@ -102,6 +125,7 @@ public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedG
     @Override
     public void connectNodes(int one, int two) {
         getAdjacencyMatrix()[one][two] = true;
+        modified();
     }
 
     @Override
@@ -112,6 +136,7 @@ public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedG
     @Override
     public void disconnectNodes(int one, int two) {
         getAdjacencyMatrix()[one][two] = false;
+        modified();
     }
 
     @Override
@@ -129,6 +154,12 @@ public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedG
         return arcsOf(indexOf(node));
     }
 
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        boolean[] row = getAdjacencyMatrix()[index];
+        for (int i = 0; i < row.length; i++) if (row[i]) consumer.accept(i, 1.0d);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -139,6 +170,7 @@ public class AdjacencyMatrixDirectedGraph<N, A extends Arc> implements DirectedG
 
     private void reinit(N[] nodes, boolean[][] adjacency) throws GraphInstantiationException {
         this.nodes = nodes;
+        reindex();
         setAdjacencyMatrix(adjacency);
 
 //        this.graph = new boolean[nodes.length][nodes.length];
@@ -20,18 +20,32 @@ import java.util.*;
 public class AdjacencyMatrixGraph<N, A extends Rib> implements Graph<N, A> {
     private boolean[][] adjacencyMatrix;
     private N[] nodes;
+    private IdentityHashMap<N, Integer> indices;
     private HashSet<String> ribs;
+    private volatile long modificationCount;
 
     public AdjacencyMatrixGraph(N[] nodes) {
         this.nodes = nodes;
+        reindex();
     }
     public AdjacencyMatrixGraph(N[] nodes, boolean[][] adjacency) throws GraphInstantiationException {
         this.nodes = nodes;
         this.adjacencyMatrix = adjacency;
+        reindex();
+    }
+
+    /**
+     * Nodes are looked up by reference, as they always were, so the index is an identity hash map.
+     * A node which occurs twice keeps its first index.
+     */
+    private void reindex() {
+        this.indices = new IdentityHashMap<>(this.nodes.length * 4 / 3 + 1);
+        for (int i = 0; i < this.nodes.length; i++) this.indices.putIfAbsent(this.nodes[i], i);
     }
 
     public void setAdjacencyMatrix(boolean[][] adjacencyMatrix) {
         this.adjacencyMatrix = adjacencyMatrix;
+        modified();
     }
 
     public boolean[][] getAdjacencyMatrix() {
@@ -66,18 +80,28 @@ public class AdjacencyMatrixGraph<N, A extends Rib> implements Graph<N, A> {
         int oldLength = this.nodes.length;
         System.arraycopy(this.nodes, 0, updatedNodes, 0, oldLength);
         this.nodes = updatedNodes;
+        this.indices.putIfAbsent(vertex, oldLength);
         this.adjacencyMatrix = adjacency;
+        modified();
         return oldLength;
     }
 
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    protected void modified() {
+        modificationCount++;
+    }
+
     public N nodeAt(int index) {
         return this.nodes[index];
     }
 
-    //TODO maybe it would be cheaper to have a hashtable for an O(1) search?
     public int indexOf(N node) {
-        for (int i = 0; i < this.nodes.length; i++) if (nodes[i] == node) return i;
-        return -1;
+        Integer index = this.indices.get(node);
+        return Objects.isNull(index) ? -1 : index;
     }
 
     @Override
@@ -118,6 +142,7 @@ public class AdjacencyMatrixGraph<N, A extends Rib> implements Graph<N, A> {
     public void connectNodes(int one, int two) {
         getAdjacencyMatrix()[one][two] = true;
         getAdjacencyMatrix()[two][one] = true;
+        modified();
     }
 
     @Override
@@ -129,6 +154,13 @@ public class AdjacencyMatrixGraph<N, A extends Rib> implements Graph<N, A> {
     public void disconnectNodes(int one, int two) {
         getAdjacencyMatrix()[one][two] = false;
         getAdjacencyMatrix()[two][one] = false;
+        modified();
+    }
+
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        boolean[] row = getAdjacencyMatrix()[index];
+        for (int i = 0; i < row.length; i++) if (row[i]) consumer.accept(i, 1.0d);
     }
 
     @Override
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.datastructure.IndexedDaryHeap;
+import algos.graph.objects.Graph;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedGraph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Point-to-point shortest path search, which runs Dijkstra algorithm forth from the source and back from the target simultaneously.
+ * The backward search walks a reverse view of the graph: the graph itself if it's undirected,
+ * or its transposed compressed sparse row copy, prepared once in the constructor, if it's directed.
+ * Every step expands the side whose heap has a smaller minimum. The search stops as soon as the two minimums
+ * sum up to no less than the best source-to-target distance met so far, since no shorter path can be found after that.
+ * Both searches usually settle a ball of roughly half the radius, which is far fewer nodes than a single search from the source settles.
+ * The working arrays are reused from query to query, so an instance isn't thread safe.
+ *
+ * @param <N> generic node type
+ * @param <E> generic rib (arc) type
+ */
+public class BidirectionalDijkstra<N, E extends Rib> {
+    private final WeightedGraph<N, E> graph;
+    private final Graph<N, ?> reverse;
+    private final double[] forwardDistances, backwardDistances;
+    private final int[] predecessors, successors;
+    private final boolean[] forwardSettled, backwardSettled;
+    private final IndexedDaryHeap forwardHeap, backwardHeap;
+    private final int[] touched;
+    private int touchedCount;
+    private double best;
+    private int meeting;
+
+    public BidirectionalDijkstra(WeightedGraph<N, E> graph) {
+        this.graph = graph;
+        if (graph instanceof CompressedSparseRowGraph<N, ?> csr) this.reverse = csr.reversed();
+        else if (GraphUtil.isDirected(graph)) this.reverse = CompressedSparseRowGraph.from(graph).reversed();
+        else this.reverse = graph;
+        int nodeCount = graph.getNodeCount();
+        this.forwardDistances = new double[nodeCount];
+        this.backwardDistances = new double[nodeCount];
+        this.predecessors = new int[nodeCount];
+        this.successors = new int[nodeCount];
+        this.forwardSettled = new boolean[nodeCount];
+        this.backwardSettled = new boolean[nodeCount];
+        this.forwardHeap = new IndexedDaryHeap(nodeCount);
+        this.backwardHeap = new IndexedDaryHeap(nodeCount);
+        this.touched = new int[nodeCount];
+        Arrays.fill(forwardDistances, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardDistances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, -1);
+        Arrays.fill(successors, -1);
+    }
+
+    public GraphUtil.DijkstraResult<E> query(N source, N target) {
+        return query(graph.indexOf(source), graph.indexOf(target));
+    }
+
+    /**
+     * The method returns the shortest path in the same shape {@link GraphUtil#dijkstra(Object, WeightedGraph)} does,
+     * so that {@link GraphUtil#pathMapToPathList(int, int, java.util.Map)} restores it.
+     * The path map holds the path nodes only. Distances of the path nodes are exact,
+     * other nodes keep their forward search labels, and the nodes the forward search never reached have an infinite distance.
+     *
+     * @param source index of the source node
+     * @param target index of the target node
+     * @return the shortest path from the source to the target, the path map is empty if there is no such path
+     */
+    public GraphUtil.DijkstraResult<E> query(int source, int target) {
+        int nodeCount = graph.getNodeCount();
+        if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount)
+            throw new IllegalArgumentException("Both source and target must be indices of nodes of the graph. Bad indices were " + source + " and " + target);
+        reset();
+        best = source == target ? .0d : Double.POSITIVE_INFINITY;
+        meeting = source;
+        touch(source);
+        if (target != source) touch(target);
+        forwardDistances[source] = .0d;
+        backwardDistances[target] = .0d;
+        forwardHeap.insert(source, .0d);
+        backwardHeap.insert(target, .0d);
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            if (forwardHeap.peekMinKey() + backwardHeap.peekMinKey() >= best) break;
+            if (forwardHeap.peekMinKey() <= backwardHeap.peekMinKey()) expandForward();
+            else expandBackward();
+        }
+
+        double[] distances = forwardDistances.clone();
+        HashMap<Integer, E> pathMap = new HashMap<>();
+        if (best < Double.POSITIVE_INFINITY && source != target) {
+            for (int node = meeting; node != source; node = predecessors[node])
+                pathMap.put(node, GraphUtil.ribBetween(graph, predecessors[node], node));
+            for (int node = meeting; node != target; node = successors[node]) {
+                E rib = GraphUtil.ribBetween(graph, node, successors[node]);
+                pathMap.put(successors[node], rib);
+                distances[successors[node]] = best - backwardDistances[successors[node]];
+            }
+        }
+        return new GraphUtil.DijkstraResult<>(distances, pathMap);
+    }
+
+    private void expandForward() {
+        int node = forwardHeap.pollMin();
+        forwardSettled[node] = true;
+        double nodeDistance = forwardDistances[node];
+        graph.forEachNeighbor(node, (to, weight) -> {
+            double pathWeight = nodeDistance + weight;
+            if (!forwardSettled[to] && pathWeight < forwardDistances[to]) {
+                touch(to);
+                forwardDistances[to] = pathWeight;
+                predecessors[to] = node;
+                forwardHeap.insertOrDecrease(to, pathWeight);
+            }
+            if (forwardDistances[to] + backwardDistances[to] < best) {
+                best = forwardDistances[to] + backwardDistances[to];
+                meeting = to;
+            }
+        });
+    }
+
+    private void expandBackward() {
+        int node = backwardHeap.pollMin();
+        backwardSettled[node] = true;
+        double nodeDistance = backwardDistances[node];
+        reverse.forEachNeighbor(node, (from, weight) -> {
+            double pathWeight = nodeDistance + weight;
+            if (!backwardSettled[from] && pathWeight < backwardDistances[from]) {
+                touch(from);
+                backwardDistances[from] = pathWeight;
+                successors[from] = node;
+                backwardHeap.insertOrDecrease(from, pathWeight);
+            }
+            if (forwardDistances[from] + backwardDistances[from] < best) {
+                best = forwardDistances[from] + backwardDistances[from];
+                meeting = from;
+            }
+        });
+    }
+
+    private void touch(int node) {
+        if (forwardDistances[node] == Double.POSITIVE_INFINITY && backwardDistances[node] == Double.POSITIVE_INFINITY
+                && predecessors[node] == -1 && successors[node] == -1) touched[touchedCount++] = node;
+    }
+
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int node = touched[i];
+            forwardDistances[node] = Double.POSITIVE_INFINITY;
+            backwardDistances[node] = Double.POSITIVE_INFINITY;
+            predecessors[node] = -1;
+            successors[node] = -1;
+            forwardSettled[node] = false;
+            backwardSettled[node] = false;
+        }
+        touchedCount = 0;
+        forwardHeap.clear();
+        backwardHeap.clear();
+    }
+}
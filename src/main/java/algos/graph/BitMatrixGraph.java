@@ -0,0 +1,307 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.*;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Implementation of an adjacency matrix based graph which packs the matrix into bits of long words, 64 cells a word,
+ * instead of a byte per cell as a boolean[][] matrix has it, so it takes 8 times less memory.
+ * Row i of the matrix occupies words i * w (inclusive) to (i + 1) * w (exclusive) of a single array, where w is the amount of words per row,
+ * and bit j of the row tells if there is a rib from node i to node j.
+ * <p>
+ * Whole words are processed at once: successors are iterated by {@link Long#numberOfTrailingZeros(long)} over non-zero words,
+ * skipping 64 absent ribs at a time, and breadth first search expands its whole frontier by OR-ing the rows of the frontier nodes,
+ * which makes it much faster than a rib by rib search on a dense graph.
+ * An undirected graph keeps its matrix symmetric, so every rib has two bits.
+ * <p>
+ * Both the rows and the words of a row are kept with spare room, which doubles whenever it runs out as the one of an {@link ArrayList} does,
+ * so adding nodes one by one lays the matrix out anew O(log V) times in total.
+ *
+ * @param <N> generic node type
+ * @param <A> generic rib type, {@link Arc} for a directed graph
+ */
+public class BitMatrixGraph<N, A extends Rib> implements Graph<N, A> {
+    private N[] nodes;
+    private int nodeCount;
+    private final HashMap<N, Integer> indices;
+    private final boolean directed;
+    private int wordsPerRow;
+    private long[] words;
+    private int ribCount;
+    private volatile long modificationCount;
+
+    public BitMatrixGraph(N[] nodes, boolean directed) {
+        this.nodes = nodes;
+        this.nodeCount = nodes.length;
+        this.directed = directed;
+        this.indices = new HashMap<>(nodes.length * 4 / 3 + 1);
+        for (int i = 0; i < nodes.length; i++) this.indices.putIfAbsent(nodes[i], i);
+        this.wordsPerRow = wordsFor(nodes.length);
+        this.words = new long[checkedSize(nodes.length, this.wordsPerRow)];
+    }
+
+    /**
+     * The method copies nodes and ribs of any graph into a new bit matrix graph. Weights are dropped.
+     * Directed graphs stay directed.
+     *
+     * @param graph the graph to be copied
+     * @param <N>   generic node type
+     * @return a bit matrix copy of the graph
+     */
+    public static <N> BitMatrixGraph<N, Rib> from(Graph<N, ? extends Rib> graph) {
+        N[] nodes = (N[]) new Object[graph.getNodeCount()];
+        for (int i = 0; i < nodes.length; i++) nodes[i] = graph.nodeAt(i);
+        BitMatrixGraph<N, Rib> copy = new BitMatrixGraph<>(nodes, GraphUtil.isDirected(graph));
+        for (int i = 0; i < nodes.length; i++)
+            for (Rib rib : graph.ribsOf(i))
+                if (rib.from == i) copy.set(i, rib.to);
+        return copy;
+    }
+
+    private static int wordsFor(int nodeCount) {
+        return Math.max(1, (nodeCount + 63) >>> 6);
+    }
+
+    private static int checkedSize(int rows, int wordsPerRow) {
+        long size = (long) rows * wordsPerRow;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The matrix of " + rows + " nodes doesn't fit into a single array");
+        return (int) size;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * @return the nodes, without the spare room kept for the nodes to be added
+     */
+    public N[] getNodes() {
+        return this.nodes.length == this.nodeCount ? this.nodes : Arrays.copyOf(this.nodes, this.nodeCount);
+    }
+
+    /**
+     * The method adds a node without any ribs. The matrix is laid out anew only when it runs out of spare rows
+     * or its rows run out of spare words, and the spare room doubles each time,
+     * so adding V nodes one by one copies O(V * V / 64) words in total, as many as the matrix has.
+     *
+     * @return index of the new node
+     */
+    public int addNode(N node) {
+        int index = this.nodeCount;
+        if (index == this.nodes.length) this.nodes = Arrays.copyOf(this.nodes, Math.max(1, index << 1));
+        int rows = this.words.length / this.wordsPerRow;
+        if (index >= rows) rows = Math.max(index + 1, rows << 1);
+        if (index >= this.wordsPerRow << 6) {
+            // wider rows, so every row moves to its new place
+            int rowWords = this.wordsPerRow << 1;
+            long[] grown = new long[fittingSize(rows, index + 1, rowWords)];
+            for (int i = 0; i < index; i++) System.arraycopy(this.words, i * this.wordsPerRow, grown, i * rowWords, this.wordsPerRow);
+            this.words = grown;
+            this.wordsPerRow = rowWords;
+        } else if ((long) rows * this.wordsPerRow > this.words.length)
+            this.words = Arrays.copyOf(this.words, fittingSize(rows, index + 1, this.wordsPerRow));
+        this.nodes[index] = node;
+        this.nodeCount++;
+        this.indices.putIfAbsent(node, index);
+        modified();
+        return index;
+    }
+
+    /**
+     * @return size of a matrix of the wanted amount of rows, or of just the needed ones if the wanted rows don't fit into an array
+     */
+    private static int fittingSize(int wanted, int needed, int wordsPerRow) {
+        if ((long) wanted * wordsPerRow <= Integer.MAX_VALUE - 8) return wanted * wordsPerRow;
+        return checkedSize(needed, wordsPerRow);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * @return amount of ribs, kept along the way, an undirected rib counted once
+     */
+    @Override
+    public int getRibCount() {
+        return this.ribCount;
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    protected void modified() {
+        modificationCount++;
+    }
+
+    @Override
+    public N nodeAt(int index) {
+        return this.nodes[index];
+    }
+
+    @Override
+    public int indexOf(N node) {
+        Integer index = this.indices.get(node);
+        return Objects.isNull(index) ? -1 : index;
+    }
+
+    public boolean isConnected(int from, int to) {
+        return (this.words[from * this.wordsPerRow + (to >>> 6)] & (1L << to)) != 0;
+    }
+
+    public int degreeOf(int index) {
+        int degree = 0;
+        for (int k = index * this.wordsPerRow, end = k + this.wordsPerRow; k < end; k++) degree += Long.bitCount(this.words[k]);
+        return degree;
+    }
+
+    /**
+     * Calls the consumer with the index of every node the given node has a rib to, in ascending order.
+     * Nothing is allocated, and a word without ribs is skipped as a whole.
+     */
+    public void forEachSuccessor(int index, IntConsumer consumer) {
+        int row = index * this.wordsPerRow;
+        for (int w = 0; w < this.wordsPerRow; w++) {
+            long word = this.words[row + w];
+            while (word != 0) {
+                consumer.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @Override
+    public Set<N> successorsOf(N node) {
+        return successorsOf(indexOf(node));
+    }
+
+    @Override
+    public Set<N> successorsOf(int index) {
+        Set<N> successors = new HashSet<>();
+        forEachSuccessor(index, i -> successors.add(this.nodes[i]));
+        return successors;
+    }
+
+    @Override
+    public Set<A> ribsOf(N node) {
+        return ribsOf(indexOf(node));
+    }
+
+    /**
+     * @return the ribs leaving the node, as new objects: the graph doesn't keep any
+     */
+    @Override
+    public Set<A> ribsOf(int index) {
+        Set<A> ribs = new HashSet<>();
+        forEachSuccessor(index, i -> ribs.add((A) (this.directed ? new Arc(index, i) : new Rib(index, i))));
+        return ribs;
+    }
+
+    @Override
+    public void connectNodes(N from, N to) {
+        connectNodes(indexOf(from), indexOf(to));
+    }
+
+    @Override
+    public void connectNodes(int from, int to) {
+        set(from, to);
+        modified();
+    }
+
+    private void set(int from, int to) {
+        int k = from * this.wordsPerRow + (to >>> 6);
+        long bit = 1L << to;
+        if ((this.words[k] & bit) != 0) return;
+        this.words[k] |= bit;
+        if (!this.directed) this.words[to * this.wordsPerRow + (from >>> 6)] |= 1L << from;
+        this.ribCount++;
+    }
+
+    @Override
+    public void disconnectNodes(N from, N to) {
+        disconnectNodes(indexOf(from), indexOf(to));
+    }
+
+    @Override
+    public void disconnectNodes(int from, int to) {
+        int k = from * this.wordsPerRow + (to >>> 6);
+        long bit = 1L << to;
+        if ((this.words[k] & bit) == 0) return;
+        this.words[k] &= ~bit;
+        if (!this.directed) this.words[to * this.wordsPerRow + (from >>> 6)] &= ~(1L << from);
+        this.ribCount--;
+        modified();
+    }
+
+    /**
+     * Breadth first search which expands the whole frontier at once: the next frontier is the OR of the rows of all the frontier nodes,
+     * minus the nodes visited before, computed a word at a time. The cost of a level is O(F * V / 64) word operations for a frontier of F nodes,
+     * whatever the amount of ribs is.
+     *
+     * @param source index of the node to start from
+     * @return amount of ribs on a shortest path from the source to each node, -1 for a node which can't be reached
+     */
+    public int[] breadthFirstDepths(int source) {
+        int n = this.nodeCount, w = this.wordsPerRow;
+        int[] depths = new int[n];
+        Arrays.fill(depths, -1);
+        long[] visited = new long[w], frontier = new long[w], next = new long[w];
+        visited[source >>> 6] |= 1L << source;
+        frontier[source >>> 6] |= 1L << source;
+        depths[source] = 0;
+        for (int depth = 1; ; depth++) {
+            Arrays.fill(next, 0L);
+            for (int f = 0; f < w; f++) {
+                long word = frontier[f];
+                while (word != 0) {
+                    int row = ((f << 6) + Long.numberOfTrailingZeros(word)) * w;
+                    for (int k = 0; k < w; k++) next[k] |= this.words[row + k];
+                    word &= word - 1;
+                }
+            }
+            boolean empty = true;
+            for (int k = 0; k < w; k++) {
+                long fresh = next[k] & ~visited[k];
+                next[k] = fresh;
+                if (fresh == 0) continue;
+                empty = false;
+                visited[k] |= fresh;
+                for (long word = fresh; word != 0; word &= word - 1)
+                    depths[(k << 6) + Long.numberOfTrailingZeros(word)] = depth;
+            }
+            if (empty) return depths;
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+    }
+
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        int row = index * this.wordsPerRow;
+        for (int w = 0; w < this.wordsPerRow; w++)
+            for (long word = this.words[row + w]; word != 0; word &= word - 1)
+                consumer.accept((w << 6) + Long.numberOfTrailingZeros(word), 1.0d);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.getNodeCount(); i++)
+            sb.append(nodeAt(i)).append(" -> ").append(Arrays.toString(successorsOf(i).toArray())).append(System.lineSeparator());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.*;
+
+import java.util.*;
+
+/**
+ * Immutable implementation of a weighted graph, based on a compressed sparse row (CSR) layout.
+ * Ribs leaving a node with index i occupy the positions offsets[i] (inclusive) to offsets[i + 1] (exclusive)
+ * of the targets and weights arrays, so the whole graph is held by three primitive arrays
+ * instead of a set of rib objects per node.
+ * An undirected rib is stored twice, once for each of its two nodes.
+ * Instances are obtained from the {@link Builder}, either rib by rib or by converting any other graph.
+ *
+ * @param <N> generic node type
+ * @param <E> generic rib type
+ */
+public class CompressedSparseRowGraph<N, E extends WeightedRib> implements WeightedGraph<N, E> {
+    private final N[] nodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final boolean directed;
+    private final Map<N, Integer> indices;
+
+    private CompressedSparseRowGraph(N[] nodes, int[] offsets, int[] targets, double[] weights, boolean directed) {
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.directed = directed;
+        this.indices = new HashMap<>(nodes.length * 4 / 3 + 1);
+        for (int i = 0; i < nodes.length; i++) this.indices.putIfAbsent(nodes[i], i);
+    }
+
+    /**
+     * The method converts any graph into its compressed sparse row copy.
+     * Ribs of weightless graphs get weight 1.0. Directed graphs stay directed.
+     *
+     * @param graph the graph to be converted
+     * @param <N>   generic node type
+     * @return an immutable compressed sparse row copy of the graph
+     */
+    public static <N> CompressedSparseRowGraph<N, WeightedRib> from(Graph<N, ? extends Rib> graph) {
+        return Builder.from(graph).build();
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @return the array of rib positions, its length is the node count plus one
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public double[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * The method returns a transposed copy of the graph, whose arcs lead in the opposite direction.
+     * An undirected graph is its own transposition, so it's returned as is.
+     *
+     * @return the graph with every arc reversed
+     */
+    public CompressedSparseRowGraph<N, E> reversed() {
+        if (!directed) return this;
+        int[] reversedOffsets = new int[nodes.length + 1];
+        for (int target : targets) reversedOffsets[target + 1]++;
+        for (int i = 0; i < nodes.length; i++) reversedOffsets[i + 1] += reversedOffsets[i];
+        int[] cursor = Arrays.copyOf(reversedOffsets, nodes.length);
+        int[] reversedTargets = new int[targets.length];
+        double[] reversedWeights = new double[weights.length];
+        for (int i = 0; i < nodes.length; i++)
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                int position = cursor[targets[k]]++;
+                reversedTargets[position] = i;
+                reversedWeights[position] = weights[k];
+            }
+        return new CompressedSparseRowGraph<>(nodes, reversedOffsets, reversedTargets, reversedWeights, true);
+    }
+
+    public int degreeOf(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    public N[] getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public int getRibCount() {
+        return directed ? targets.length : targets.length / 2;
+    }
+
+    /**
+     * @return always zero, since the graph can't be modified
+     */
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    @Override
+    public N nodeAt(int index) {
+        return nodes[index];
+    }
+
+    @Override
+    public int indexOf(N node) {
+        Integer index = indices.get(node);
+        return Objects.isNull(index) ? -1 : index;
+    }
+
+    @Override
+    public Set<N> successorsOf(N node) {
+        return successorsOf(indexOf(node));
+    }
+
+    @Override
+    public Set<N> successorsOf(int index) {
+        Set<N> successors = new HashSet<>();
+        for (int k = offsets[index]; k < offsets[index + 1]; k++) successors.add(nodes[targets[k]]);
+        return successors;
+    }
+
+    @Override
+    public Set<E> ribsOf(N node) {
+        return ribsOf(indexOf(node));
+    }
+
+    /**
+     * Ribs are equal if their ends are, so of a few parallel ribs the set keeps the lightest one
+     */
+    @Override
+    public Set<E> ribsOf(int index) {
+        Map<Integer, E> lightest = new HashMap<>();
+        for (int k = offsets[index]; k < offsets[index + 1]; k++)
+            lightest.merge(targets[k], (E) new WeightedRib(index, targets[k], weights[k]), (one, two) -> one.weight <= two.weight ? one : two);
+        return new HashSet<>(lightest.values());
+    }
+
+    @Override
+    public void connectNodes(N from, N to) {
+        connectNodes(indexOf(from), indexOf(to));
+    }
+
+    @Override
+    public void connectNodes(int from, int to) {
+        throw new UnsupportedOperationException("A compressed sparse row graph is immutable. Use its builder instead.");
+    }
+
+    @Override
+    public void connectNodes(N from, N to, double weight) {
+        connectNodes(indexOf(from), indexOf(to), weight);
+    }
+
+    @Override
+    public void connectNodes(int from, int to, double weight) {
+        throw new UnsupportedOperationException("A compressed sparse row graph is immutable. Use its builder instead.");
+    }
+
+    @Override
+    public void disconnectNodes(N from, N to) {
+        disconnectNodes(indexOf(from), indexOf(to));
+    }
+
+    @Override
+    public void disconnectNodes(int from, int to) {
+        throw new UnsupportedOperationException("A compressed sparse row graph is immutable. Use its builder instead.");
+    }
+
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        for (int k = offsets[index]; k < offsets[index + 1]; k++) consumer.accept(targets[k], weights[k]);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nodes.length; i++) {
+            sb.append(nodes[i]).append(" >>> ");
+            for (int k = offsets[i]; k < offsets[i + 1]; k++)
+                sb.append(nodes[targets[k]]).append("(").append(weights[k]).append("); ");
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Accumulates ribs in growable primitive arrays and lays them out into a compressed sparse row graph
+     * with a counting sort, which takes O(V + E) time.
+     *
+     * @param <N> generic node type
+     */
+    public static final class Builder<N> {
+        private final N[] nodes;
+        private final boolean directed;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private double[] weight = new double[16];
+        private int size;
+
+        public Builder(N[] nodes, boolean directed) {
+            this.nodes = nodes;
+            this.directed = directed;
+        }
+
+        public Builder(List<N> nodes, boolean directed) {
+            this((N[]) nodes.toArray(), directed);
+        }
+
+        /**
+         * The method copies nodes and ribs of any graph into a new builder.
+         * Only the ribs leaving a node are taken from its rib set, so an incoming rib,
+         * which matrix based graphs report as well, isn't counted twice.
+         * Compressed sparse row and mapped graphs are copied arc by arc instead, since their rib sets keep a single one of parallel arcs.
+         *
+         * @param graph the graph to be copied
+         * @param <N>   generic node type
+         * @return a builder, filled with the graph's nodes and ribs
+         */
+        public static <N> Builder<N> from(Graph<N, ? extends Rib> graph) {
+            N[] nodes = (N[]) new Object[graph.getNodeCount()];
+            for (int i = 0; i < nodes.length; i++) nodes[i] = graph.nodeAt(i);
+            Builder<N> builder = new Builder<>(nodes, GraphUtil.isDirected(graph));
+            boolean arrays = graph instanceof CompressedSparseRowGraph<?, ?> || graph instanceof MappedGraph<?>;
+            for (int i = 0; i < nodes.length; i++) {
+                int from = i;
+                if (arrays) graph.forEachNeighbor(i, (to, weight) -> builder.append(from, to, weight));
+                else for (Rib rib : graph.ribsOf(i))
+                    if (rib.from == i) builder.append(i, rib.to, GraphUtil.weightOf(rib));
+            }
+            return builder;
+        }
+
+        /**
+         * Adds a rib. A rib of an undirected builder is added in both directions.
+         *
+         * @param from   index of the first node
+         * @param to     index of the second node
+         * @param weight weight of the rib
+         * @return this builder
+         */
+        public Builder<N> addRib(int from, int to, double weight) {
+            if (from < 0 || from >= nodes.length || to < 0 || to >= nodes.length)
+                throw new IllegalArgumentException("Both nodes of a rib must belong to the graph. Bad rib was " + from + " --- " + to);
+            append(from, to, weight);
+            if (!directed) append(to, from, weight);
+            return this;
+        }
+
+        /**
+         * Adds a batch of ribs from[i] --- to[i] of weights[i], growing the arrays once for the whole batch
+         *
+         * @return this builder
+         */
+        public Builder<N> addRibs(int[] from, int[] to, double[] weights) {
+            if (from.length != to.length || from.length != weights.length)
+                throw new IllegalArgumentException("Every rib must have both of its nodes and a weight. Bad lengths were " + from.length + ", " + to.length + " and " + weights.length);
+            for (int i = 0; i < from.length; i++)
+                if (from[i] < 0 || from[i] >= nodes.length || to[i] < 0 || to[i] >= nodes.length)
+                    throw new IllegalArgumentException("Both nodes of a rib must belong to the graph. Bad rib was " + from[i] + " --- " + to[i]);
+            long capacity = (long) size + (directed ? 1 : 2) * (long) from.length;
+            if (capacity > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many ribs: " + capacity);
+            if (capacity > this.from.length) {
+                // doubling keeps a builder fed batch by batch from copying all of its ribs on every batch
+                int grown = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, (long) this.from.length << 1));
+                this.from = Arrays.copyOf(this.from, grown);
+                this.to = Arrays.copyOf(this.to, grown);
+                this.weight = Arrays.copyOf(this.weight, grown);
+            }
+            for (int i = 0; i < from.length; i++) {
+                append(from[i], to[i], weights[i]);
+                if (!directed) append(to[i], from[i], weights[i]);
+            }
+            return this;
+        }
+
+        public Builder<N> addRib(N from, N to, double weight) {
+            return addRib(indexOfNode(from), indexOfNode(to), weight);
+        }
+
+        private int indexOfNode(N node) {
+            for (int i = 0; i < nodes.length; i++) if (Objects.equals(nodes[i], node)) return i;
+            return -1;
+        }
+
+        private void append(int f, int t, double w) {
+            if (size == from.length) {
+                int capacity = size << 1;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = f;
+            to[size] = t;
+            weight[size] = w;
+            size++;
+        }
+
+        public <E extends WeightedRib> CompressedSparseRowGraph<N, E> build() {
+            int[] offsets = new int[nodes.length + 1];
+            for (int i = 0; i < size; i++) offsets[from[i] + 1]++;
+            for (int i = 0; i < nodes.length; i++) offsets[i + 1] += offsets[i];
+            int[] cursor = Arrays.copyOf(offsets, nodes.length);
+            int[] targets = new int[size];
+            double[] weights = new double[size];
+            for (int i = 0; i < size; i++) {
+                int position = cursor[from[i]]++;
+                targets[position] = to[i];
+                weights[position] = weight[i];
+            }
+            return new CompressedSparseRowGraph<>(nodes, offsets, targets, weights, directed);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free disjoint sets of the integers from 0 to n - 1 (Anderson and Woll, 1991), for many threads to unite and look up at the same time.
+ * A union hooks the root with the greater index under the other root with a compare-and-set, and starts over if some other thread
+ * has hooked either root in the meantime, so a union which returns true is the only one which has merged the two sets.
+ * Find halves paths with compare-and-sets too. A failed one does no harm, since it only means some other thread has shortened the path already.
+ * There are no ranks: linking by index keeps the structure acyclic without them, and path halving keeps the trees shallow enough.
+ */
+public class ConcurrentIntUnionFind implements UnionFind<Integer> {
+    private final AtomicIntegerArray parents;
+
+    public ConcurrentIntUnionFind(int size) {
+        if (size < 0) throw new IllegalArgumentException("Size of a union-find mustn't be negative. Bad size was " + size);
+        this.parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) parents.set(i, i);
+    }
+
+    public int find(int element) {
+        while (true) {
+            int parent = parents.get(element);
+            if (parent == element) return element;
+            int grandparent = parents.get(parent);
+            if (parent != grandparent) parents.compareAndSet(element, parent, grandparent);
+            element = grandparent;
+        }
+    }
+
+    /**
+     * @return true if this very call has merged two different sets
+     */
+    public boolean union(int one, int two) {
+        while (true) {
+            int rootOne = find(one), rootTwo = find(two);
+            if (rootOne == rootTwo) return false;
+            int parent = Math.min(rootOne, rootTwo), child = Math.max(rootOne, rootTwo);
+            if (parents.compareAndSet(child, child, parent)) return true;
+        }
+    }
+
+    /**
+     * The answer is exact only if no other thread is uniting the sets at the same time
+     */
+    public boolean connected(int one, int two) {
+        while (true) {
+            int rootOne = find(one), rootTwo = find(two);
+            if (rootOne == rootTwo) return true;
+            // if the first root is still a root, the sets really were different at that moment
+            if (parents.get(rootOne) == rootOne) return false;
+        }
+    }
+
+    @Override
+    public void union(Integer one, Integer two) {
+        union(one.intValue(), two.intValue());
+    }
+
+    @Override
+    public boolean connected(Integer one, Integer two) {
+        return connected(one.intValue(), two.intValue());
+    }
+
+    public int size() {
+        return parents.length();
+    }
+}
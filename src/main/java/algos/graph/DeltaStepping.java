@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedGraph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Delta-stepping single source shortest paths algorithm (Meyer and Sanders, 2003), run on a fork/join pool.
+ * Tentative distances are kept in buckets of width delta. The nodes of the least non-empty bucket are settled all together:
+ * their light ribs (not heavier than delta) are relaxed in parallel over and over until the bucket stays empty,
+ * then their heavy ribs are relaxed once, since those can't lead back into the same bucket.
+ * A small delta makes the algorithm look like Dijkstra algorithm with little parallelism,
+ * a large one makes it look like Bellman-Ford algorithm with a lot of wasted relaxations.
+ * The average rib weight divided by the average degree is a reasonable start.
+ * <p>
+ * Distances are updated with a compare-and-set on their bits, so concurrent relaxations never lose a shorter distance.
+ * Predecessors are picked after the distances are known: a parallel breadth-first walk from the root over the tight ribs
+ * (those for which distance of the tail plus weight equals distance of the head) builds the shortest path tree.
+ * The graph is copied into compressed sparse row arrays with light ribs put before heavy ones, once, in the constructor.
+ *
+ * @param <N> generic node type
+ * @param <E> generic rib (arc) type
+ */
+public class DeltaStepping<N, E extends Rib> {
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    private final WeightedGraph<N, E> graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+    private final int nodeCount;
+    private final int[] offsets, lightEnds, targets;
+    private final double[] weights;
+
+    public DeltaStepping(WeightedGraph<N, E> graph, double delta) {
+        this(graph, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph a graph with non-negative weights. Changes made to the graph after the constructor has run aren't seen by the algorithm
+     * @param delta width of a bucket
+     * @param pool  the pool to run the parallel phases on
+     */
+    public DeltaStepping(WeightedGraph<N, E> graph, double delta, ForkJoinPool pool) {
+        if (!(delta > .0d) || delta == Double.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("Width of a bucket must be a positive finite number. Bad width was " + delta);
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+        CompressedSparseRowGraph<N, ?> csr = graph instanceof CompressedSparseRowGraph<N, ?> c ? c : CompressedSparseRowGraph.from(graph);
+        this.nodeCount = csr.getNodeCount();
+        this.offsets = csr.getOffsets().clone();
+        this.lightEnds = new int[nodeCount];
+        this.targets = new int[csr.getTargets().length];
+        this.weights = new double[targets.length];
+        int[] csrTargets = csr.getTargets();
+        double[] csrWeights = csr.getWeights();
+        for (int node = 0; node < nodeCount; node++) {
+            int light = offsets[node], heavy = offsets[node + 1];
+            for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+                if (csrWeights[k] < .0d) throw new IllegalArgumentException("Delta-stepping doesn't support negative weights. Bad weight was " + csrWeights[k]);
+                int position = csrWeights[k] <= delta ? light++ : --heavy;
+                targets[position] = csrTargets[k];
+                weights[position] = csrWeights[k];
+            }
+            lightEnds[node] = light;
+        }
+    }
+
+    public GraphUtil.DijkstraResult<E> run(N root) {
+        return run(graph.indexOf(root));
+    }
+
+    /**
+     * The result has the same shape as the one of {@link GraphUtil#dijkstra(Object, WeightedGraph)}:
+     * distances of the nodes which can't be reached are left at zero, and the path map has no entries for them and for the root
+     *
+     * @param root index of the root node
+     * @return distances from the root and the shortest path tree
+     */
+    public GraphUtil.DijkstraResult<E> run(int root) {
+        if (root < 0 || root >= nodeCount) throw new IllegalArgumentException("Bad root index " + root);
+        AtomicLongArray distances = new AtomicLongArray(nodeCount);
+        long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int i = 0; i < nodeCount; i++) distances.set(i, infinity);
+        distances.set(root, Double.doubleToRawLongBits(.0d));
+
+        // buckets are filled lazily: a node may sit in several buckets, but is only processed in the one its current distance belongs to
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        int[] marks = new int[nodeCount], settledMarks = new int[nodeCount];
+        int epoch = 0, bucketEpoch = 0;
+        buckets.computeIfAbsent(0L, b -> new IntList()).add(root);
+        while (!buckets.isEmpty()) {
+            Map.Entry<Long, IntList> entry = buckets.pollFirstEntry();
+            long bucket = entry.getKey();
+            bucketEpoch++;
+            IntList settled = new IntList();
+            IntList frontier = entry.getValue();
+            while (true) {
+                epoch++;
+                IntList current = new IntList();
+                for (int i = 0; i < frontier.size; i++) {
+                    int node = frontier.values[i];
+                    if (marks[node] != epoch && bucketOf(distances, node) == bucket) {
+                        marks[node] = epoch;
+                        current.add(node);
+                        if (settledMarks[node] != bucketEpoch) {
+                            settledMarks[node] = bucketEpoch;
+                            settled.add(node);
+                        }
+                    }
+                }
+                if (current.size == 0) break;
+                IntList improved = pool.invoke(new RelaxTask(distances, current.values, 0, current.size, true));
+                frontier = distribute(improved, distances, bucket, buckets);
+            }
+            IntList improved = pool.invoke(new RelaxTask(distances, settled.values, 0, settled.size, false));
+            distribute(improved, distances, bucket, buckets);
+        }
+
+        double[] result = new double[nodeCount];
+        for (int i = 0; i < nodeCount; i++) result[i] = Double.longBitsToDouble(distances.get(i));
+        int[] predecessors = shortestPathTree(result, root);
+        HashMap<Integer, E> pathMap = new HashMap<>();
+        List<E> ribs = Collections.synchronizedList(new ArrayList<>());
+        pool.submit(() -> IntStream.range(0, nodeCount).parallel().filter(i -> predecessors[i] != -1)
+                .forEach(i -> ribs.add(GraphUtil.ribBetween(graph, predecessors[i], i)))).join();
+        for (E rib : ribs) pathMap.put(rib.to, rib);
+        for (int i = 0; i < nodeCount; i++) if (result[i] == Double.POSITIVE_INFINITY) result[i] = .0d;
+        return new GraphUtil.DijkstraResult<>(result, pathMap);
+    }
+
+    private long bucketOf(AtomicLongArray distances, int node) {
+        return (long) (Double.longBitsToDouble(distances.get(node)) / delta);
+    }
+
+    /**
+     * Puts every improved node into the bucket of its distance
+     *
+     * @return the improved nodes which fall into the current bucket and must be relaxed again
+     */
+    private IntList distribute(IntList improved, AtomicLongArray distances, long bucket, TreeMap<Long, IntList> buckets) {
+        IntList again = new IntList();
+        for (int i = 0; i < improved.size; i++) {
+            int node = improved.values[i];
+            long target = bucketOf(distances, node);
+            if (target == bucket) again.add(node);
+            else buckets.computeIfAbsent(target, b -> new IntList()).add(node);
+        }
+        return again;
+    }
+
+    /**
+     * Walks the tight ribs breadth first, one level in parallel at a time. Every node is claimed by the first tight rib which reaches it,
+     * so the walk builds a tree even if there are ribs of zero weight
+     */
+    private int[] shortestPathTree(double[] distances, int root) {
+        AtomicIntegerArray claims = new AtomicIntegerArray(nodeCount);
+        for (int i = 0; i < nodeCount; i++) claims.set(i, -1);
+        claims.set(root, root);
+        int[] level = {root};
+        while (level.length > 0) {
+            int[] current = level;
+            level = pool.submit(() -> Arrays.stream(current).parallel().flatMap(node -> {
+                IntStream.Builder next = IntStream.builder();
+                for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+                    int to = targets[k];
+                    if (distances[node] + weights[k] == distances[to] && claims.get(to) == -1 && claims.compareAndSet(to, -1, node))
+                        next.add(to);
+                }
+                return next.build();
+            }).toArray()).join();
+        }
+        int[] predecessors = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) predecessors[i] = i == root ? -1 : claims.get(i);
+        return predecessors;
+    }
+
+    private final class RelaxTask extends RecursiveTask<IntList> {
+        private static final long serialVersionUID = 1L;
+        private final AtomicLongArray distances;
+        private final int[] nodes;
+        private final int from, to;
+        private final boolean light;
+
+        RelaxTask(AtomicLongArray distances, int[] nodes, int from, int to, boolean light) {
+            this.distances = distances;
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                RelaxTask left = new RelaxTask(distances, nodes, from, middle, light);
+                left.fork();
+                IntList right = new RelaxTask(distances, nodes, middle, to, light).compute();
+                return left.join().addAll(right);
+            }
+            IntList improved = new IntList();
+            for (int i = from; i < to; i++) {
+                int node = nodes[i];
+                double distance = Double.longBitsToDouble(distances.get(node));
+                int start = light ? offsets[node] : lightEnds[node], end = light ? lightEnds[node] : offsets[node + 1];
+                for (int k = start; k < end; k++)
+                    if (relax(targets[k], distance + weights[k])) improved.add(targets[k]);
+            }
+            return improved;
+        }
+
+        private boolean relax(int node, double distance) {
+            while (true) {
+                long current = distances.get(node);
+                if (distance >= Double.longBitsToDouble(current)) return false;
+                if (distances.compareAndSet(node, current, Double.doubleToRawLongBits(distance))) return true;
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size << 1);
+            values[size++] = value;
+        }
+
+        IntList addAll(IntList other) {
+            if (size + other.size > values.length) values = Arrays.copyOf(values, Math.max(size + other.size, size << 1));
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+        }
+    }
+}
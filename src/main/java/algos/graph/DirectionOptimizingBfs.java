@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.Graph;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedRib;
+
+import java.util.Arrays;
+
+/**
+ * Direction optimizing breadth first search (Beamer, Asanović, Patterson, 2012).
+ * A usual, top-down, level of the search looks at every rib leaving the frontier. On a graph of a small diameter
+ * the frontier soon grows to a large share of the nodes, and most of those ribs lead to nodes which are visited already.
+ * Then a bottom-up level is cheaper: every unvisited node looks through its incoming ribs for a parent in the frontier
+ * and stops at the first one it finds.
+ * <p>
+ * The search goes bottom-up as soon as the ribs leaving the frontier outnumber the ribs of unvisited nodes divided by alpha,
+ * and back top-down when the frontier shrinks below the node count divided by beta.
+ * Frontiers are bitmaps, a bit per node, so a bottom-up level tests a possible parent with a single word look-up.
+ * <p>
+ * The graph is copied into the compressed sparse row layout once, in the constructor, unless it's laid out so already,
+ * and transposed if it's directed, so changes made to the graph later aren't seen by the search. Every search allocates its own arrays.
+ *
+ * @param <N> generic node type
+ */
+public class DirectionOptimizingBfs<N> {
+    public static final int DEFAULT_ALPHA = 14;
+    public static final int DEFAULT_BETA = 24;
+
+    private final Graph<N, ? extends Rib> graph;
+    private final int nodeCount;
+    private final int[] offsets, targets;
+    private final int[] inOffsets, inSources;
+    private final int alpha, beta;
+    private int topDownLevels, bottomUpLevels;
+
+    public DirectionOptimizingBfs(Graph<N, ? extends Rib> graph) {
+        this(graph, DEFAULT_ALPHA, DEFAULT_BETA);
+    }
+
+    /**
+     * @param graph the graph to search, directed or not
+     * @param alpha the greater it is, the sooner the search goes bottom-up
+     * @param beta  the greater it is, the later the search goes back top-down
+     */
+    public DirectionOptimizingBfs(Graph<N, ? extends Rib> graph, int alpha, int beta) {
+        if (alpha < 1 || beta < 1)
+            throw new IllegalArgumentException("Both switching parameters must be positive. Bad parameters were " + alpha + " and " + beta);
+        this.graph = graph;
+        this.alpha = alpha;
+        this.beta = beta;
+        CompressedSparseRowGraph<N, WeightedRib> csr = graph instanceof CompressedSparseRowGraph<?, ?>
+                ? (CompressedSparseRowGraph<N, WeightedRib>) graph : CompressedSparseRowGraph.from(graph);
+        CompressedSparseRowGraph<N, WeightedRib> reverse = csr.reversed();
+        this.nodeCount = csr.getNodeCount();
+        this.offsets = csr.getOffsets();
+        this.targets = csr.getTargets();
+        this.inOffsets = reverse.getOffsets();
+        this.inSources = reverse.getTargets();
+    }
+
+    public GraphUtil.BfsResult search(N source) {
+        return search(graph.indexOf(source));
+    }
+
+    /**
+     * @param source index of the node to start from
+     * @return depths and parents of all the nodes
+     */
+    public GraphUtil.BfsResult search(int source) {
+        int n = nodeCount;
+        if (source < 0 || source >= n)
+            throw new IllegalArgumentException("Source must be an index of a node of the graph. Bad index was " + source);
+        int words = (n + 63) >>> 6;
+        int[] depths = new int[n], parents = new int[n];
+        Arrays.fill(depths, -1);
+        Arrays.fill(parents, -1);
+        long[] visited = new long[words], frontier = new long[words], next = new long[words];
+        long lastWordMask = (n & 63) == 0 ? -1L : (1L << n) - 1;
+
+        depths[source] = 0;
+        visited[source >>> 6] |= 1L << source;
+        frontier[source >>> 6] |= 1L << source;
+        int frontierSize = 1;
+        long frontierRibs = degreeOf(source), unvisitedRibs = targets.length - frontierRibs;
+        boolean bottomUp = false, growing = true;
+        topDownLevels = 0;
+        bottomUpLevels = 0;
+
+        for (int depth = 1; frontierSize > 0; depth++) {
+            if (!bottomUp && frontierRibs > unvisitedRibs / alpha) bottomUp = true;
+            else if (bottomUp && !growing && frontierSize < n / beta) bottomUp = false;
+            Arrays.fill(next, 0L);
+            int nextSize = 0;
+            long nextRibs = 0;
+            if (bottomUp) {
+                bottomUpLevels++;
+                for (int w = 0; w < words; w++) {
+                    long unvisited = ~visited[w];
+                    if (w == words - 1) unvisited &= lastWordMask;
+                    for (; unvisited != 0; unvisited &= unvisited - 1) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                        for (int k = inOffsets[v]; k < inOffsets[v + 1]; k++) {
+                            int u = inSources[k];
+                            if ((frontier[u >>> 6] & (1L << u)) == 0) continue;
+                            depths[v] = depth;
+                            parents[v] = u;
+                            next[w] |= 1L << v;
+                            nextSize++;
+                            nextRibs += degreeOf(v);
+                            break;
+                        }
+                    }
+                }
+            } else {
+                topDownLevels++;
+                for (int w = 0; w < words; w++)
+                    for (long word = frontier[w]; word != 0; word &= word - 1) {
+                        int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                        for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                            int v = targets[k];
+                            if (depths[v] != -1) continue;
+                            depths[v] = depth;
+                            parents[v] = u;
+                            next[v >>> 6] |= 1L << v;
+                            nextSize++;
+                            nextRibs += degreeOf(v);
+                        }
+                    }
+            }
+            for (int w = 0; w < words; w++) visited[w] |= next[w];
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            growing = nextSize > frontierSize;
+            frontierSize = nextSize;
+            frontierRibs = nextRibs;
+            unvisitedRibs -= nextRibs;
+        }
+        return new GraphUtil.BfsResult(source, depths, parents);
+    }
+
+    private int degreeOf(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * @return amount of top-down levels of the last search
+     */
+    public int getTopDownLevels() {
+        return topDownLevels;
+    }
+
+    /**
+     * @return amount of bottom-up levels of the last search
+     */
+    public int getBottomUpLevels() {
+        return bottomUpLevels;
+    }
+}
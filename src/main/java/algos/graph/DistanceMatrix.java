@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.datastructure.IndexedDaryHeap;
+import algos.graph.objects.Graph;
+import algos.graph.objects.IntDoubleConsumer;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedGraph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Many-to-many table of shortest distances, from every node of a set of sources to every node of a set of targets.
+ * A search of Dijkstra algorithm runs per source, the searches run in parallel on a fork/join pool,
+ * and every search stops as soon as it has settled all the targets instead of going over the whole graph.
+ * <p>
+ * The searches share a compressed sparse row copy of the graph, made once and made anew only after the graph has changed,
+ * so they don't touch the graph itself. Every search borrows its arrays from a pool, resets only what it has touched,
+ * and writes its row straight into a single flat array: nothing is allocated per source.
+ *
+ * @param <N> generic node type
+ */
+public class DistanceMatrix<N> {
+    private final Graph<N, ? extends Rib> graph;
+    private final ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<Search> searches = new ConcurrentLinkedQueue<>();
+    private WeightedGraph<N, ?> snapshot;
+    private long snapshotModificationCount;
+
+    public DistanceMatrix(Graph<N, ? extends Rib> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph the graph, weightless ribs weigh 1.0
+     * @param pool  the pool to run the searches on
+     */
+    public DistanceMatrix(Graph<N, ? extends Rib> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    public double[] compute(List<N> sources, List<N> targets) {
+        return compute(sources.stream().mapToInt(graph::indexOf).toArray(), targets.stream().mapToInt(graph::indexOf).toArray());
+    }
+
+    /**
+     * @param sources indices of the nodes the rows start from
+     * @param targets indices of the nodes of the columns
+     * @return the distances, row by row: the distance from sources[i] to targets[j] is at i * targets.length + j,
+     * infinite if there is no path
+     */
+    public double[] compute(int[] sources, int[] targets) {
+        double[] matrix = new double[Math.multiplyExact(sources.length, targets.length)];
+        compute(sources, targets, matrix);
+        return matrix;
+    }
+
+    /**
+     * The same as {@link #compute(int[], int[])}, but fills the given array, which lets a caller reuse it
+     */
+    public void compute(int[] sources, int[] targets, double[] matrix) {
+        if (matrix.length != (long) sources.length * targets.length)
+            throw new IllegalArgumentException("The matrix must have a cell per source and target. Bad length was " + matrix.length);
+        WeightedGraph<N, ?> view = view();
+        int n = view.getNodeCount();
+        for (int node : sources) checkIndex(node, n);
+        for (int node : targets) checkIndex(node, n);
+        if (sources.length == 0 || targets.length == 0) return;
+
+        // columns of the same node are chained, so a node which is a target twice is settled once
+        int[] firstColumn = new int[n], nextColumn = new int[targets.length];
+        Arrays.fill(firstColumn, -1);
+        int distinct = 0;
+        for (int column = targets.length - 1; column >= 0; column--) {
+            if (firstColumn[targets[column]] == -1) distinct++;
+            nextColumn[column] = firstColumn[targets[column]];
+            firstColumn[targets[column]] = column;
+        }
+        Arrays.fill(matrix, Double.POSITIVE_INFINITY);
+        int targetCount = distinct;
+        pool.submit(() -> IntStream.range(0, sources.length).parallel().forEach(row -> {
+            Search search = acquire(n);
+            try {
+                search.run(view, sources[row], firstColumn, nextColumn, targetCount, matrix, row * targets.length);
+            } finally {
+                searches.offer(search);
+            }
+        })).join();
+    }
+
+    private static void checkIndex(int node, int nodeCount) {
+        if (node < 0 || node >= nodeCount)
+            throw new IllegalArgumentException("Sources and targets must be indices of nodes of the graph. Bad index was " + node);
+    }
+
+    /**
+     * @return the graph itself if it's immutable, or its compressed sparse row copy, made anew if the graph has changed
+     */
+    private synchronized WeightedGraph<N, ?> view() {
+        if (graph instanceof CompressedSparseRowGraph || graph instanceof MappedGraph) return (WeightedGraph<N, ?>) graph;
+        if (snapshot == null || snapshotModificationCount != graph.getModificationCount()) {
+            snapshotModificationCount = graph.getModificationCount();
+            snapshot = CompressedSparseRowGraph.from(graph);
+            searches.clear();
+        }
+        return snapshot;
+    }
+
+    private Search acquire(int nodeCount) {
+        Search search = searches.poll();
+        while (search != null && search.distances.length != nodeCount) search = searches.poll();
+        return search != null ? search : new Search(nodeCount);
+    }
+
+    /**
+     * Arrays of a single search, reused by the searches which follow it
+     */
+    private static final class Search implements IntDoubleConsumer {
+        private final double[] distances;
+        private final boolean[] settled;
+        private final IndexedDaryHeap heap;
+        private int[] touched = new int[64];
+        private int touchedCount;
+        private double nodeDistance;
+
+        private Search(int nodeCount) {
+            distances = new double[nodeCount];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            settled = new boolean[nodeCount];
+            heap = new IndexedDaryHeap(nodeCount);
+        }
+
+        private void run(WeightedGraph<?, ?> graph, int source, int[] firstColumn, int[] nextColumn, int targetCount, double[] matrix, int rowStart) {
+            touch(source, .0d);
+            heap.insert(source, .0d);
+            int remaining = targetCount;
+            while (!heap.isEmpty()) {
+                int current = heap.pollMin();
+                settled[current] = true;
+                if (firstColumn[current] != -1) {
+                    for (int column = firstColumn[current]; column != -1; column = nextColumn[column])
+                        matrix[rowStart + column] = distances[current];
+                    if (--remaining == 0) break;
+                }
+                nodeDistance = distances[current];
+                graph.forEachNeighbor(current, this);
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                distances[touched[i]] = Double.POSITIVE_INFINITY;
+                settled[touched[i]] = false;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+
+        @Override
+        public void accept(int to, double weight) {
+            double distance = nodeDistance + weight;
+            if (settled[to] || distance >= distances[to]) return;
+            if (distances[to] == Double.POSITIVE_INFINITY) touch(to, distance);
+            else distances[to] = distance;
+            heap.insertOrDecrease(to, distance);
+        }
+
+        private void touch(int index, double distance) {
+            if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount << 1);
+            touched[touchedCount++] = index;
+            distances[index] = distance;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.datastructure.IndexedDaryHeap;
+import algos.graph.objects.IntDoubleConsumer;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Shortest paths from a single source, kept up to date while ribs of the graph are added, removed or change their weights,
+ * in the manner of Ramalingam and Reps (1996): a change repairs only the part of the shortest path tree it affects
+ * instead of running Dijkstra algorithm over the whole graph again.
+ * <ul>
+ *     <li>A rib which gets lighter may shorten the path to the node it leads to. If it does, the shorter distance spreads
+ *     from that node by Dijkstra algorithm, which stops where distances don't improve any more.</li>
+ *     <li>A rib which gets heavier or disappears matters only if it belongs to the tree. Then the subtree hanging on it loses its distances,
+ *     every node of the subtree takes the best path through a node outside of the subtree, and Dijkstra algorithm,
+ *     run over the subtree alone, settles the rest.</li>
+ * </ul>
+ * Changes must be made through the methods of this class, which pass them to the graph and repair the tree.
+ * A change made to the graph directly is noticed by its {@link algos.graph.objects.Graph#getModificationCount() modification count},
+ * and the paths are then calculated anew from scratch. Weights must not be negative. An instance isn't thread safe.
+ *
+ * @param <N> generic node type
+ */
+public class DynamicShortestPaths<N> {
+    private final WeightedGraph<N, ? extends Rib> graph;
+    private final int source;
+    private final boolean directed;
+    private long modificationCount;
+    private double[] distances;
+    private int[] parents;
+    private int[] firstChild, nextSibling, previousSibling;
+    private int[][] incoming;
+    private int[] incomingSizes;
+    private boolean[] affected;
+    private int[] subtree;
+    private IndexedDaryHeap heap;
+    private final WeightLookup lookup = new WeightLookup();
+    private final Propagation propagation = new Propagation();
+    private final Attachment attachment = new Attachment();
+    private int lastRepairSize;
+
+    /**
+     * @param graph  the graph, it's looked at through {@link algos.graph.objects.Graph#forEachNeighbor(int, IntDoubleConsumer)}
+     * @param source index of the node the paths start from
+     */
+    public DynamicShortestPaths(WeightedGraph<N, ? extends Rib> graph, int source) {
+        if (source < 0 || source >= graph.getNodeCount())
+            throw new IllegalArgumentException("Source must be an index of a node of the graph. Bad index was " + source);
+        this.graph = graph;
+        this.source = source;
+        this.directed = GraphUtil.isDirected(graph);
+        recompute();
+    }
+
+    public DynamicShortestPaths(WeightedGraph<N, ? extends Rib> graph, N source) {
+        this(graph, graph.indexOf(source));
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return amount of nodes the last change has touched, or the node count if the paths were calculated anew
+     */
+    public int getLastRepairSize() {
+        return lastRepairSize;
+    }
+
+    public double distanceTo(int node) {
+        synchronize();
+        return distances[node];
+    }
+
+    /**
+     * @return the next to last node of the shortest path to the node, -1 for the source and for nodes which can't be reached
+     */
+    public int parentOf(int node) {
+        synchronize();
+        return parents[node];
+    }
+
+    /**
+     * @return a copy of the distances, infinite for nodes which can't be reached
+     */
+    public double[] getDistances() {
+        synchronize();
+        return Arrays.copyOf(distances, distances.length);
+    }
+
+    /**
+     * @return indices of the nodes of the shortest path, from the source to the node inclusive, or an empty array if there is none
+     */
+    public int[] pathTo(int node) {
+        synchronize();
+        return GraphUtil.predecessorsToPath(source, node, parents);
+    }
+
+    public void connectNodes(N from, N to, double weight) {
+        connectNodes(graph.indexOf(from), graph.indexOf(to), weight);
+    }
+
+    /**
+     * Connects the nodes in the graph and repairs the paths. What happens to a rib which is there already depends on the graph:
+     * matrix graphs overwrite its weight, list graphs keep the old one. {@link #setWeight(int, int, double)} changes it either way.
+     */
+    public void connectNodes(int from, int to, double weight) {
+        checkWeight(weight);
+        synchronize();
+        double before = weightOf(from, to);
+        graph.connectNodes(from, to, weight);
+        changed(from, to, before);
+    }
+
+    public void disconnectNodes(N from, N to) {
+        disconnectNodes(graph.indexOf(from), graph.indexOf(to));
+    }
+
+    /**
+     * Disconnects the nodes in the graph and repairs the paths. Nothing happens if the nodes aren't connected
+     */
+    public void disconnectNodes(int from, int to) {
+        synchronize();
+        double before = weightOf(from, to);
+        lastRepairSize = 0;
+        if (before == Double.POSITIVE_INFINITY) return;
+        graph.disconnectNodes(from, to);
+        changed(from, to, before);
+    }
+
+    /**
+     * Replaces the rib between the nodes, if there is one, by a rib of the given weight, and repairs the paths once
+     */
+    public void setWeight(int from, int to, double weight) {
+        checkWeight(weight);
+        synchronize();
+        double before = weightOf(from, to);
+        if (before != Double.POSITIVE_INFINITY) graph.disconnectNodes(from, to);
+        graph.connectNodes(from, to, weight);
+        changed(from, to, before);
+    }
+
+    private static void checkWeight(double weight) {
+        if (!(weight >= 0))
+            throw new IllegalArgumentException("Weights of ribs must not be negative. Bad weight was " + weight);
+    }
+
+    /**
+     * Calculates all the paths from scratch
+     */
+    public void recompute() {
+        int n = graph.getNodeCount();
+        GraphUtil.IndexedDijkstraResult result = GraphUtil.indexedDijkstra(graph, source, -1);
+        distances = result.distances;
+        parents = result.predecessors;
+        firstChild = new int[n];
+        nextSibling = new int[n];
+        previousSibling = new int[n];
+        Arrays.fill(firstChild, -1);
+        for (int i = 0; i < n; i++) if (parents[i] != -1) link(i, parents[i]);
+        if (directed) {
+            incoming = new int[n][];
+            incomingSizes = new int[n];
+            for (int i = 0; i < n; i++) {
+                int node = i;
+                graph.forEachNeighbor(i, (to, weight) -> addIncoming(to, node));
+            }
+        }
+        affected = new boolean[n];
+        subtree = new int[16];
+        heap = new IndexedDaryHeap(n);
+        modificationCount = graph.getModificationCount();
+        lastRepairSize = n;
+    }
+
+    private void synchronize() {
+        if (graph.getModificationCount() != modificationCount || graph.getNodeCount() != distances.length) recompute();
+    }
+
+    /**
+     * Compares the weight of the rib before and after a change and repairs what the change has affected
+     */
+    private void changed(int from, int to, double before) {
+        modificationCount = graph.getModificationCount();
+        lastRepairSize = 0;
+        double after = weightOf(from, to);
+        if (directed) {
+            if (before == Double.POSITIVE_INFINITY && after != Double.POSITIVE_INFINITY) addIncoming(to, from);
+            else if (before != Double.POSITIVE_INFINITY && after == Double.POSITIVE_INFINITY) removeIncoming(to, from);
+        }
+        if (after < before) {
+            lighter(from, to, after);
+            if (!directed) lighter(to, from, after);
+        } else if (after > before) {
+            if (parents[to] == from) heavier(to);
+            else if (!directed && parents[from] == to) heavier(from);
+        }
+    }
+
+    private void lighter(int from, int to, double weight) {
+        double distance = distances[from] + weight;
+        if (!(distance < distances[to])) return;
+        distances[to] = distance;
+        reparent(to, from);
+        heap.insert(to, distance);
+        propagate();
+    }
+
+    /**
+     * The subtree of the root has lost its path. Its nodes are detached, attached anew to the best nodes outside of it,
+     * and the distances spread among them from there
+     */
+    private void heavier(int root) {
+        int size = 0;
+        subtree[size++] = root;
+        affected[root] = true;
+        for (int i = 0; i < size; i++)
+            for (int child = firstChild[subtree[i]]; child != -1; child = nextSibling[child]) {
+                if (size == subtree.length) subtree = Arrays.copyOf(subtree, size << 1);
+                subtree[size++] = child;
+                affected[child] = true;
+            }
+        for (int i = 0; i < size; i++) {
+            int node = subtree[i];
+            reparent(node, -1);
+            distances[node] = Double.POSITIVE_INFINITY;
+        }
+        for (int i = 0; i < size; i++) {
+            int node = subtree[i];
+            attachment.node = node;
+            attachment.distance = Double.POSITIVE_INFINITY;
+            attachment.parent = -1;
+            if (directed) {
+                for (int k = 0; k < incomingSizes[node]; k++) {
+                    int from = incoming[node][k];
+                    attachment.accept(from, weightOf(from, node));
+                }
+            } else graph.forEachNeighbor(node, attachment);
+            if (attachment.parent == -1) continue;
+            distances[node] = attachment.distance;
+            reparent(node, attachment.parent);
+            heap.insert(node, attachment.distance);
+        }
+        for (int i = 0; i < size; i++) affected[subtree[i]] = false;
+        lastRepairSize = size;
+        propagate();
+    }
+
+    /**
+     * Dijkstra algorithm from the nodes in the heap, which goes only as far as distances improve
+     */
+    private void propagate() {
+        while (!heap.isEmpty()) {
+            int node = heap.pollMin();
+            lastRepairSize++;
+            propagation.node = node;
+            propagation.nodeDistance = distances[node];
+            graph.forEachNeighbor(node, propagation);
+        }
+    }
+
+    /**
+     * @return weight of the lightest rib from one node to the other, infinite if there is none
+     */
+    private double weightOf(int from, int to) {
+        lookup.target = to;
+        lookup.weight = Double.POSITIVE_INFINITY;
+        graph.forEachNeighbor(from, lookup);
+        return lookup.weight;
+    }
+
+    private void reparent(int node, int parent) {
+        if (parents[node] != -1) unlink(node);
+        parents[node] = parent;
+        if (parent != -1) link(node, parent);
+    }
+
+    private void link(int node, int parent) {
+        int first = firstChild[parent];
+        nextSibling[node] = first;
+        previousSibling[node] = -1;
+        if (first != -1) previousSibling[first] = node;
+        firstChild[parent] = node;
+    }
+
+    private void unlink(int node) {
+        int previous = previousSibling[node], next = nextSibling[node];
+        if (previous == -1) firstChild[parents[node]] = next;
+        else nextSibling[previous] = next;
+        if (next != -1) previousSibling[next] = previous;
+    }
+
+    private void addIncoming(int node, int from) {
+        int[] list = incoming[node];
+        int size = incomingSizes[node];
+        for (int k = 0; k < size; k++) if (list[k] == from) return;
+        if (list == null) list = incoming[node] = new int[4];
+        else if (size == list.length) list = incoming[node] = Arrays.copyOf(list, size << 1);
+        list[size] = from;
+        incomingSizes[node] = size + 1;
+    }
+
+    private void removeIncoming(int node, int from) {
+        int[] list = incoming[node];
+        int size = incomingSizes[node];
+        for (int k = 0; k < size; k++)
+            if (list[k] == from) {
+                list[k] = list[size - 1];
+                incomingSizes[node] = size - 1;
+                return;
+            }
+    }
+
+    private static final class WeightLookup implements IntDoubleConsumer {
+        private int target;
+        private double weight;
+
+        @Override
+        public void accept(int to, double weight) {
+            if (to == target && weight < this.weight) this.weight = weight;
+        }
+    }
+
+    private final class Propagation implements IntDoubleConsumer {
+        private int node;
+        private double nodeDistance;
+
+        @Override
+        public void accept(int to, double weight) {
+            double distance = nodeDistance + weight;
+            if (distance < distances[to]) {
+                distances[to] = distance;
+                reparent(to, node);
+                heap.insertOrDecrease(to, distance);
+            }
+        }
+    }
+
+    /**
+     * Finds the best parent outside of the affected subtree for a node of it
+     */
+    private final class Attachment implements IntDoubleConsumer {
+        private int node;
+        private double distance;
+        private int parent;
+
+        @Override
+        public void accept(int from, double weight) {
+            if (affected[from] || from == node) return;
+            double candidate = distances[from] + weight;
+            if (candidate < distance) {
+                distance = candidate;
+                parent = from;
+            }
+        }
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.GeoNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Streaming reader of graph files:
+ * <ul>
+ *     <li>DIMACS shortest path graphs, ".gr": comment lines "c ...", a problem line "p sp n m" and arc lines "a u v w", nodes numbered from 1;</li>
+ *     <li>DIMACS coordinates, ".co": a problem line "p aux sp co n" and lines "v id x y" of longitude and latitude in millionths of a degree;</li>
+ *     <li>edge lists, one "u v [w]" line per rib, separated by tabs or spaces, nodes numbered from 0, lines starting with '#' or '%' skipped.</li>
+ * </ul>
+ * The file is cut into byte ranges of 16 MB at most at line breaks, and every range is mapped into memory and parsed by a task of its own,
+ * as many ranges at a time as the pool has threads. Numbers are parsed straight from the mapped bytes: no line strings, no split, no object per rib,
+ * just growable primitive arrays per range.
+ * <p>
+ * {@link #feedDimacs} and {@link #feedEdgeList} hand the ribs of every range to a {@link RibSink}, such as the addRibs method
+ * of a {@link CompressedSparseRowGraph.Builder} or of an {@link IncidentalityListGraphBuilder}, in file order, and drop them right away,
+ * so the memory they take besides the builder is bounded by the ranges parsed at a time, whatever the size of the file is.
+ * {@link #readDimacs} and {@link #readEdgeList} rather concatenate the ribs of all the ranges into an {@link EdgeList},
+ * which takes O(E) memory on top of the arrays of the ranges while it's built.
+ */
+public final class EdgeListReader {
+    private static final long MIN_CHUNK = 1 << 20;
+    private static final long MAX_CHUNK = 1 << 24;
+
+    private EdgeListReader() {
+    }
+
+    public static EdgeList readDimacs(Path file) throws IOException {
+        return readDimacs(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param file a DIMACS ".gr" file
+     * @param pool the pool to parse the ranges of the file on, a pool of one thread parses it sequentially
+     * @return the arcs of the file, with node indices starting from 0
+     */
+    public static EdgeList readDimacs(Path file, ForkJoinPool pool) throws IOException {
+        List<RibPart> parts = parse(file, pool, EdgeListReader::dimacsArcs);
+        int nodeCount = -1;
+        for (RibPart part : parts) nodeCount = Math.max(nodeCount, part.declaredNodes);
+        if (nodeCount < 0) throw new IOException("The file " + file + " doesn't contain a problem line");
+        for (RibPart part : parts) checkDimacsNodes(file, part, nodeCount);
+        return merge(parts, nodeCount);
+    }
+
+    /**
+     * The method reads the node count of the problem line, which comes before any arc, so a builder can be made before the arcs are fed to it
+     *
+     * @param file a DIMACS ".gr" file
+     * @return the node count the file declares
+     */
+    public static int readDimacsNodeCount(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].isEmpty() || tokens[0].equals("c")) continue;
+                if (!tokens[0].equals("p")) break;
+                try {
+                    if (tokens.length > 2) return Integer.parseInt(tokens[2]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("The file " + file + " has a malformed problem line: " + line, e);
+                }
+                throw new IOException("The file " + file + " has a malformed problem line: " + line);
+            }
+        }
+        throw new IOException("The file " + file + " doesn't contain a problem line before its arcs");
+    }
+
+    /**
+     * The method feeds the arcs of the file to the sink in file order, a range of the file at a time, keeping no more than the ranges parsed at a time.
+     * If the file turns out to be malformed half way, the sink has already got the arcs before the bad range.
+     *
+     * @param file a DIMACS ".gr" file
+     * @param pool the pool to parse the ranges of the file on, a pool of one thread parses it sequentially
+     * @param sink receives the arcs, with node indices starting from 0, e.g. the addRibs method of a builder of {@link #readDimacsNodeCount} nodes
+     * @return amount of arcs fed
+     */
+    public static long feedDimacs(Path file, ForkJoinPool pool, RibSink sink) throws IOException {
+        int nodeCount = readDimacsNodeCount(file);
+        long[] fed = {0};
+        parse(file, pool, EdgeListReader::dimacsArcs, part -> {
+            checkDimacsNodes(file, part, nodeCount);
+            fed[0] += part.feed(sink);
+        });
+        return fed[0];
+    }
+
+    private static RibPart dimacsArcs(Scanner scanner) {
+        RibPart part = new RibPart();
+        while (scanner.hasMore()) {
+            if (!scanner.atLineEnd()) switch (scanner.next()) {
+                case 'a' -> part.add(scanner.readInt() - 1, scanner.readInt() - 1, scanner.readDouble());
+                case 'p' -> {
+                    scanner.skipToken();
+                    part.declaredNodes = scanner.readInt();
+                }
+                case 'c' -> {
+                }
+                default -> throw scanner.malformed("an unknown line type");
+            }
+            scanner.skipLine();
+        }
+        return part;
+    }
+
+    private static void checkDimacsNodes(Path file, RibPart part, int nodeCount) throws IOException {
+        if (part.maxNode >= nodeCount || part.minNode < 0)
+            throw new IOException("The file " + file + " has arcs of nodes out of 1.." + nodeCount);
+    }
+
+    public static EdgeList readEdgeList(Path file) throws IOException {
+        return readEdgeList(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param file a file of "u v [w]" lines, a rib without a weight gets weight 1.0
+     * @param pool the pool to parse the ranges of the file on, a pool of one thread parses it sequentially
+     * @return the ribs of the file, the node count being the greatest node index plus one
+     */
+    public static EdgeList readEdgeList(Path file, ForkJoinPool pool) throws IOException {
+        List<RibPart> parts = parse(file, pool, EdgeListReader::edgeListRibs);
+        int nodeCount = 0;
+        for (RibPart part : parts) {
+            checkEdgeListNodes(file, part);
+            nodeCount = Math.max(nodeCount, part.maxNode + 1);
+        }
+        return merge(parts, nodeCount);
+    }
+
+    /**
+     * The method feeds the ribs of the file to the sink in file order, a range of the file at a time, keeping no more than the ranges parsed at a time.
+     * If the file turns out to be malformed half way, the sink has already got the ribs before the bad range.
+     *
+     * @param file a file of "u v [w]" lines, a rib without a weight gets weight 1.0
+     * @param pool the pool to parse the ranges of the file on, a pool of one thread parses it sequentially
+     * @param sink receives the ribs, e.g. the addRibs method of a builder of as many nodes as the file has, which rejects other nodes
+     * @return amount of ribs fed
+     */
+    public static long feedEdgeList(Path file, ForkJoinPool pool, RibSink sink) throws IOException {
+        long[] fed = {0};
+        parse(file, pool, EdgeListReader::edgeListRibs, part -> {
+            checkEdgeListNodes(file, part);
+            fed[0] += part.feed(sink);
+        });
+        return fed[0];
+    }
+
+    private static RibPart edgeListRibs(Scanner scanner) {
+        RibPart part = new RibPart();
+        while (scanner.hasMore()) {
+            if (!scanner.atLineEnd() && scanner.peek() != '#' && scanner.peek() != '%') {
+                int from = scanner.readInt(), to = scanner.readInt();
+                part.add(from, to, scanner.atLineEnd() ? 1.0d : scanner.readDouble());
+            }
+            scanner.skipLine();
+        }
+        return part;
+    }
+
+    private static void checkEdgeListNodes(Path file, RibPart part) throws IOException {
+        if (part.minNode < 0) throw new IOException("The file " + file + " has ribs of negative nodes");
+    }
+
+    public static Coordinates readDimacsCoordinates(Path file) throws IOException {
+        return readDimacsCoordinates(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param file a DIMACS ".co" file
+     * @param pool the pool to parse the ranges of the file on, a pool of one thread parses it sequentially
+     * @return latitudes and longitudes of the nodes, in degrees, indexed from 0
+     */
+    public static Coordinates readDimacsCoordinates(Path file, ForkJoinPool pool) throws IOException {
+        List<PointPart> parts = parse(file, pool, scanner -> {
+            PointPart part = new PointPart();
+            while (scanner.hasMore()) {
+                if (!scanner.atLineEnd()) switch (scanner.next()) {
+                    case 'v' -> part.add(scanner.readInt() - 1, scanner.readDouble(), scanner.readDouble());
+                    case 'p' -> {
+                        scanner.skipToken();
+                        scanner.skipToken();
+                        scanner.skipToken();
+                        part.declaredNodes = scanner.readInt();
+                    }
+                    case 'c' -> {
+                    }
+                    default -> throw scanner.malformed("an unknown line type");
+                }
+                scanner.skipLine();
+            }
+            return part;
+        });
+        int nodeCount = -1;
+        for (PointPart part : parts) nodeCount = Math.max(nodeCount, part.declaredNodes);
+        if (nodeCount < 0) throw new IOException("The file " + file + " doesn't contain a problem line");
+        double[] latitudes = new double[nodeCount], longitudes = new double[nodeCount];
+        for (PointPart part : parts)
+            for (int i = 0; i < part.size; i++) {
+                int id = part.ids[i];
+                if (id < 0 || id >= nodeCount) throw new IOException("The file " + file + " has a node out of 1.." + nodeCount + ": " + (id + 1));
+                longitudes[id] = part.x[i] / 1e6;
+                latitudes[id] = part.y[i] / 1e6;
+            }
+        return new Coordinates(latitudes, longitudes);
+    }
+
+    private static <P> List<P> parse(Path file, ForkJoinPool pool, Function<Scanner, P> parser) throws IOException {
+        List<P> parts = new ArrayList<>();
+        parse(file, pool, parser, parts::add);
+        return parts;
+    }
+
+    /**
+     * Cuts the file into ranges of whole lines and parses them in parallel, as many at a time as the pool has threads,
+     * and hands the results to the consumer in file order
+     */
+    private static <P> void parse(Path file, ForkJoinPool pool, Function<Scanner, P> parser, PartConsumer<P> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long wanted = Math.min(pool.getParallelism() * 4L, size / MIN_CHUNK + 1);
+            int chunks = (int) Math.max(wanted, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+            long[] bounds = new long[chunks + 1];
+            bounds[chunks] = size;
+            for (int k = 1; k < chunks; k++) bounds[k] = lineStart(channel, Math.max(bounds[k - 1], size * k / chunks));
+            for (int k = 0; k < chunks; k++)
+                if (bounds[k + 1] - bounds[k] > Integer.MAX_VALUE) throw new IOException("The file " + file + " has a line too long to be mapped");
+            int window = Math.max(1, pool.getParallelism());
+            for (int first = 0; first < chunks; first += window) {
+                int start = first, end = Math.min(chunks, first + window);
+                ByteBuffer[] buffers = new ByteBuffer[end - start];
+                for (int k = start; k < end; k++)
+                    buffers[k - start] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[k], bounds[k + 1] - bounds[k]);
+                List<P> parts;
+                try {
+                    parts = pool.submit(() -> IntStream.range(start, end).parallel()
+                            .mapToObj(k -> parser.apply(new Scanner(buffers[k - start], bounds[k])))
+                            .toList()).join();
+                } catch (UncheckedIOException e) {
+                    throw new IOException("The file " + file + " is malformed: " + e.getCause().getMessage(), e.getCause());
+                }
+                for (P part : parts) consumer.accept(part);
+            }
+        }
+    }
+
+    private interface PartConsumer<P> {
+        void accept(P part) throws IOException;
+    }
+
+    /**
+     * @return position of the first line which starts at the given position or after it
+     */
+    private static long lineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) return 0;
+        ByteBuffer window = ByteBuffer.allocate(1 << 12);
+        for (long at = position - 1; ; at += window.limit()) {
+            window.clear();
+            if (channel.read(window, at) <= 0) return channel.size();
+            window.flip();
+            for (int i = 0; i < window.limit(); i++) if (window.get(i) == '\n') return at + i + 1;
+        }
+    }
+
+    private static EdgeList merge(List<RibPart> parts, int nodeCount) {
+        int total = 0;
+        for (RibPart part : parts) total = Math.addExact(total, part.size);
+        int[] from = new int[total], to = new int[total];
+        double[] weight = new double[total];
+        int position = 0;
+        for (RibPart part : parts) {
+            System.arraycopy(part.from, 0, from, position, part.size);
+            System.arraycopy(part.to, 0, to, position, part.size);
+            System.arraycopy(part.weight, 0, weight, position, part.size);
+            position += part.size;
+        }
+        return new EdgeList(nodeCount, from, to, weight);
+    }
+
+    /**
+     * Receives ribs in batches, rib i of a batch leading from from[i] to to[i] with weights[i].
+     * The addRibs methods of {@link CompressedSparseRowGraph.Builder} and of {@link IncidentalityListGraphBuilder} fit it.
+     */
+    public interface RibSink {
+        void addRibs(int[] from, int[] to, double[] weights);
+    }
+
+    /**
+     * Ribs read from a file, rib i leading from from[i] to to[i] with weight[i]
+     */
+    public static final class EdgeList {
+        public final int nodeCount;
+        public final int[] from;
+        public final int[] to;
+        public final double[] weight;
+
+        public EdgeList(int nodeCount, int[] from, int[] to, double[] weight) {
+            this.nodeCount = nodeCount;
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+        }
+
+        public int size() {
+            return from.length;
+        }
+
+        /**
+         * @param builder a builder of at least {@link #nodeCount} nodes
+         * @return the builder, with all the ribs added
+         */
+        public <N> CompressedSparseRowGraph.Builder<N> feed(CompressedSparseRowGraph.Builder<N> builder) {
+            return builder.addRibs(from, to, weight);
+        }
+
+        /**
+         * @param builder a builder of at least {@link #nodeCount} nodes
+         * @return the builder, with all the ribs added
+         */
+        public <V> IncidentalityListGraphBuilder<V> feed(IncidentalityListGraphBuilder<V> builder) {
+            return builder.addRibs(from, to, weight);
+        }
+    }
+
+    /**
+     * Locations of the nodes, in degrees, node i being at latitudes[i], longitudes[i]
+     */
+    public static final class Coordinates {
+        public final double[] latitudes;
+        public final double[] longitudes;
+
+        public Coordinates(double[] latitudes, double[] longitudes) {
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        public int size() {
+            return latitudes.length;
+        }
+
+        public Location[] toNodes() {
+            Location[] nodes = new Location[latitudes.length];
+            for (int i = 0; i < nodes.length; i++) nodes[i] = new Location(i, latitudes[i], longitudes[i]);
+            return nodes;
+        }
+    }
+
+    /**
+     * A node of a road graph, known by its index and located by its coordinates
+     */
+    public record Location(int id, double latitude, double longitude) implements GeoNode {
+        @Override
+        public double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public double getLongitude() {
+            return longitude;
+        }
+    }
+
+    private static final class RibPart {
+        private int[] from = new int[1024], to = new int[1024];
+        private double[] weight = new double[1024];
+        private int size;
+        private int minNode = Integer.MAX_VALUE, maxNode = -1;
+        private int declaredNodes = -1;
+
+        private void add(int f, int t, double w) {
+            if (size == from.length) {
+                int capacity = size << 1;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = f;
+            to[size] = t;
+            weight[size] = w;
+            size++;
+            minNode = Math.min(minNode, Math.min(f, t));
+            maxNode = Math.max(maxNode, Math.max(f, t));
+        }
+
+        private int feed(RibSink sink) {
+            if (size > 0) sink.addRibs(Arrays.copyOf(from, size), Arrays.copyOf(to, size), Arrays.copyOf(weight, size));
+            return size;
+        }
+    }
+
+    private static final class PointPart {
+        private int[] ids = new int[1024];
+        private double[] x = new double[1024], y = new double[1024];
+        private int size;
+        private int declaredNodes = -1;
+
+        private void add(int id, double px, double py) {
+            if (size == ids.length) {
+                int capacity = size << 1;
+                ids = Arrays.copyOf(ids, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+            }
+            ids[size] = id;
+            x[size] = px;
+            y[size] = py;
+            size++;
+        }
+    }
+
+    /**
+     * Reads numbers straight from the bytes of a range of whole lines
+     */
+    private static final class Scanner {
+        private final ByteBuffer buffer;
+        private final long base;
+        private final int limit;
+        private int position;
+
+        private Scanner(ByteBuffer buffer, long base) {
+            this.buffer = buffer;
+            this.base = base;
+            this.limit = buffer.limit();
+        }
+
+        private boolean hasMore() {
+            return position < limit;
+        }
+
+        private byte peek() {
+            return buffer.get(position);
+        }
+
+        private byte next() {
+            return buffer.get(position++);
+        }
+
+        private void skipBlanks() {
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b != ' ' && b != '\t' && b != '\r') return;
+                position++;
+            }
+        }
+
+        private boolean atLineEnd() {
+            skipBlanks();
+            return position >= limit || buffer.get(position) == '\n';
+        }
+
+        private void skipToken() {
+            skipBlanks();
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == ' ' || b == '\t' || b == '\r' || b == '\n') return;
+                position++;
+            }
+        }
+
+        /**
+         * Moves past the next line break
+         */
+        private void skipLine() {
+            while (position < limit)
+                if (buffer.get(position++) == '\n') return;
+        }
+
+        private int readInt() {
+            skipBlanks();
+            boolean negative = position < limit && buffer.get(position) == '-';
+            if (negative) position++;
+            int start = position;
+            long value = 0;
+            for (byte b; position < limit && (b = buffer.get(position)) >= '0' && b <= '9'; position++) {
+                value = value * 10 + (b - '0');
+                if (value > Integer.MAX_VALUE) throw malformed("a number out of range");
+            }
+            if (position == start) throw malformed("a number is missing");
+            return (int) (negative ? -value : value);
+        }
+
+        /**
+         * Parses a plain decimal number by itself, and leaves the rest, such as exponents or long mantissas, to {@link Double#parseDouble(String)}
+         */
+        private double readDouble() {
+            skipBlanks();
+            int start = position;
+            boolean negative = false;
+            if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) negative = buffer.get(position++) == '-';
+            long mantissa = 0;
+            int digits = 0, scale = 0;
+            boolean point = false;
+            for (; position < limit; position++) {
+                byte b = buffer.get(position);
+                if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (point) scale++;
+                } else if (b == '.' && !point) point = true;
+                else break;
+            }
+            if (digits == 0) throw malformed("a number is missing");
+            if (digits > 18 || (position < limit && (buffer.get(position) == 'e' || buffer.get(position) == 'E'))) {
+                skipToken();
+                byte[] bytes = new byte[position - start];
+                buffer.get(start, bytes);
+                try {
+                    return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    throw malformed("a bad number");
+                }
+            }
+            double value = scale == 0 ? mantissa : mantissa / Math.pow(10, scale);
+            return negative ? -value : value;
+        }
+
+        private UncheckedIOException malformed(String problem) {
+            return new UncheckedIOException(new IOException(problem + " at byte " + (base + position)));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * All pairs shortest paths by Floyd-Warshall algorithm, blocked for the cache (Venkataraman, Sahni, Mukhopadhyaya, 2003).
+ * The distance matrix is copied into one flat row-major array and cut into square tiles. For every diagonal tile, in turn:
+ * <ol>
+ *     <li>the diagonal tile is closed over its own intermediate nodes;</li>
+ *     <li>the tiles of its row and its column are updated through it, all in parallel;</li>
+ *     <li>all the other tiles are updated through the row and column tiles, all in parallel too.</li>
+ * </ol>
+ * Every tile update only reads three tiles, which fit into the cache together, instead of streaming the whole matrix n times.
+ * <p>
+ * Next hops are kept along with the distances, so both a distance and the first step of a shortest path are answered in O(1),
+ * and a whole path in time proportional to its length. Unreachable pairs have an infinite distance and no next hop (-1).
+ * Negative weights are fine, but a negative cycle makes the distances meaningless, see {@link #hasNegativeCycle()}.
+ */
+public class FloydWarshall {
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final int nodeCount;
+    private final double[] distances;
+    private final int[] nextHops;
+
+    public static FloydWarshall of(WeightedAdjacencyMatrixGraph<?, ?> graph) {
+        return new FloydWarshall(graph.getAdjacencyMatrixWeighted(), DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public static FloydWarshall of(WeightedAdjacencyMatrixDirectedGraph<?, ?> graph) {
+        return new FloydWarshall(graph.getAdjacencyMatrixWeighted(), DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param adjacency square weight matrix in the format of the adjacency matrix graphs: a zero off the diagonal means no rib.
+     *                  The matrix is copied, not changed
+     * @param blockSize side of a tile
+     * @param pool      the pool to run the parallel phases on
+     */
+    public FloydWarshall(double[][] adjacency, int blockSize, ForkJoinPool pool) {
+        if (blockSize < 1) throw new IllegalArgumentException("Side of a tile must be positive. Bad side was " + blockSize);
+        int n = adjacency.length;
+        this.nodeCount = n;
+        int cells;
+        try {
+            cells = Math.multiplyExact(n, n);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("A matrix of " + n + " by " + n + " distances doesn't fit into an array");
+        }
+        this.distances = new double[cells];
+        this.nextHops = new int[cells];
+        for (int i = 0; i < n; i++) {
+            if (adjacency[i].length != n) throw new IllegalArgumentException("The matrix must be square");
+            for (int j = 0; j < n; j++) {
+                boolean connected = i == j || adjacency[i][j] != .0d;
+                distances[i * n + j] = i == j ? Math.min(.0d, adjacency[i][j]) : connected ? adjacency[i][j] : Double.POSITIVE_INFINITY;
+                nextHops[i * n + j] = connected ? j : -1;
+            }
+        }
+
+        int blocks = (n + blockSize - 1) / blockSize;
+        for (int kb = 0; kb < blocks; kb++) {
+            int pivot = kb;
+            update(pivot, pivot, pivot, blockSize);
+            pool.submit(() -> IntStream.range(0, 2 * blocks).parallel().filter(b -> b % blocks != pivot).forEach(b -> {
+                if (b < blocks) update(pivot, b, pivot, blockSize);
+                else update(b - blocks, pivot, pivot, blockSize);
+            })).join();
+            pool.submit(() -> IntStream.range(0, blocks * blocks).parallel().forEach(b -> {
+                int ib = b / blocks, jb = b % blocks;
+                if (ib != pivot && jb != pivot) update(ib, jb, pivot, blockSize);
+            })).join();
+        }
+    }
+
+    /**
+     * Relaxes tile (ib, jb) through the intermediate nodes of tile kb
+     */
+    private void update(int ib, int jb, int kb, int blockSize) {
+        int n = nodeCount;
+        int iEnd = Math.min(n, (ib + 1) * blockSize), jStart = jb * blockSize, jEnd = Math.min(n, jStart + blockSize), kEnd = Math.min(n, (kb + 1) * blockSize);
+        for (int k = kb * blockSize; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * blockSize; i < iEnd; i++) {
+                int iRow = i * n;
+                double throughK = distances[iRow + k];
+                if (throughK == Double.POSITIVE_INFINITY) continue;
+                int hop = nextHops[iRow + k];
+                for (int j = jStart; j < jEnd; j++) {
+                    double candidate = throughK + distances[kRow + j];
+                    if (candidate < distances[iRow + j]) {
+                        distances[iRow + j] = candidate;
+                        nextHops[iRow + j] = hop;
+                    }
+                }
+            }
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public double distance(int from, int to) {
+        return distances[from * nodeCount + to];
+    }
+
+    /**
+     * @return the node which follows 'from' on a shortest path to 'to', 'to' itself for the pair of the same node, or -1 if 'to' can't be reached
+     */
+    public int nextHop(int from, int to) {
+        return nextHops[from * nodeCount + to];
+    }
+
+    /**
+     * @return indices of the nodes of a shortest path, both ends included, or an empty array if there is no path
+     */
+    public int[] path(int from, int to) {
+        if (nextHop(from, to) == -1) return new int[0];
+        int[] path = new int[nodeCount];
+        int length = 0;
+        path[length++] = from;
+        for (int node = from; node != to; ) {
+            node = nextHop(node, to);
+            if (length == nodeCount) throw new IllegalStateException("The path from " + from + " to " + to + " loops, the graph has a negative cycle");
+            path[length++] = node;
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    public boolean hasNegativeCycle() {
+        for (int i = 0; i < nodeCount; i++) if (distances[i * nodeCount + i] < .0d) return true;
+        return false;
+    }
+
+    /**
+     * @return a copy of the flat row-major distance matrix: the distance from i to j is at i * n + j
+     */
+    public double[] getDistances() {
+        return distances.clone();
+    }
+
+    /**
+     * @return a copy of the flat row-major next hop matrix: the next hop from i towards j is at i * n + j
+     */
+    public int[] getNextHops() {
+        return nextHops.clone();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.Graph;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedRib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/**
+ * Binary on-disk format of a weighted graph, laid out so that {@link MappedGraph} can map the file into memory
+ * and answer queries from it as is, without parsing anything. All numbers are little-endian.
+ * <pre>
+ * header, 64 bytes:
+ *   int    magic, "GRF1"
+ *   int    version
+ *   int    flags, bit 0 is set for a directed graph
+ *   int    node count n
+ *   long   rib entry count m, an undirected rib makes two entries
+ *   long   size of the node labels in bytes
+ *   long   position of the node table
+ *   long   position of the offsets
+ *   long   position of the targets
+ *   long   position of the weights
+ * node table:
+ *   int[n + 1]  label offsets, label i occupies bytes offsets[i] (inclusive) to offsets[i + 1] (exclusive) of the labels
+ *   byte[]      labels of the nodes, UTF-8
+ * int[n + 1]    offsets, the compressed sparse row layout of {@link CompressedSparseRowGraph}
+ * int[m]        targets
+ * double[m]     weights
+ * </pre>
+ * Every section after the header starts at a multiple of 8 bytes. A node is stored as a string label,
+ * so a {@link NodeCodec} tells how to turn nodes into labels and back.
+ */
+public final class GraphFile {
+    static final int MAGIC = 0x47524631; // "GRF1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int DIRECTED = 1;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Turns nodes into the labels they are stored by, and labels back into nodes.
+     * Different nodes of a graph must get different labels.
+     *
+     * @param <N> generic node type
+     */
+    public interface NodeCodec<N> {
+        String encode(N node);
+
+        N decode(String label);
+
+        static <N> NodeCodec<N> of(Function<N, String> encoder, Function<String, N> decoder) {
+            return new NodeCodec<>() {
+                @Override
+                public String encode(N node) {
+                    return encoder.apply(node);
+                }
+
+                @Override
+                public N decode(String label) {
+                    return decoder.apply(label);
+                }
+            };
+        }
+
+        static NodeCodec<String> strings() {
+            return of(Function.identity(), Function.identity());
+        }
+
+        static NodeCodec<Integer> integers() {
+            return of(String::valueOf, Integer::valueOf);
+        }
+    }
+
+    /**
+     * The method writes any graph to the file, converting it into the compressed sparse row layout first
+     * unless it's laid out so already. Ribs of weightless graphs get weight 1.0.
+     *
+     * @param graph the graph to be written
+     * @param codec turns the nodes into labels
+     * @param file  the file to be created or overwritten
+     * @param <N>   generic node type
+     */
+    public static <N> void write(Graph<N, ? extends Rib> graph, NodeCodec<N> codec, Path file) throws IOException {
+        CompressedSparseRowGraph<N, ?> csr = graph instanceof CompressedSparseRowGraph<N, ?> compressed
+                ? compressed
+                : CompressedSparseRowGraph.<N>from(graph);
+        write(csr, codec, file);
+    }
+
+    public static <N> void write(CompressedSparseRowGraph<N, ? extends WeightedRib> graph, NodeCodec<N> codec, Path file) throws IOException {
+        int n = graph.getNodeCount();
+        int[] offsets = graph.getOffsets(), targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+        byte[][] labels = new byte[n][];
+        int[] labelOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            labels[i] = codec.encode(graph.nodeAt(i)).getBytes(StandardCharsets.UTF_8);
+            long next = (long) labelOffsets[i] + labels[i].length;
+            if (next > Integer.MAX_VALUE) throw new IllegalArgumentException("Labels of the nodes exceed 2 GB");
+            labelOffsets[i + 1] = (int) next;
+        }
+        long labelBytes = labelOffsets[n];
+        long[] positions = positions(n, targets.length, labelBytes);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(graph.isDirected() ? DIRECTED : 0);
+            out.putInt(n);
+            out.putLong(targets.length);
+            out.putLong(labelBytes);
+            for (long position : positions) out.putLong(position);
+            for (int offset : labelOffsets) out.putInt(offset);
+            for (byte[] label : labels) out.put(label);
+            out.align();
+            for (int offset : offsets) out.putInt(offset);
+            out.align();
+            for (int target : targets) out.putInt(target);
+            out.align();
+            for (double weight : weights) out.putDouble(weight);
+            out.flush();
+        }
+    }
+
+    /**
+     * @return positions of the node table, the offsets, the targets and the weights, one after another, each aligned to 8 bytes
+     */
+    static long[] positions(int nodeCount, long entryCount, long labelBytes) {
+        long tablePosition = HEADER_SIZE;
+        long offsetsPosition = align(tablePosition + 4L * (nodeCount + 1) + labelBytes);
+        long targetsPosition = align(offsetsPosition + 4L * (nodeCount + 1));
+        long weightsPosition = align(targetsPosition + 4L * entryCount);
+        return new long[]{tablePosition, offsetsPosition, targetsPosition, weightsPosition};
+    }
+
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * Buffers the output and keeps track of the position, so that sections can be padded
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        private void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            position += Long.BYTES;
+        }
+
+        private void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+            position += Double.BYTES;
+        }
+
+        private void put(byte[] bytes) throws IOException {
+            for (int done = 0; done < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - done);
+                buffer.put(bytes, done, length);
+                done += length;
+            }
+            position += bytes.length;
+        }
+
+        private void align() throws IOException {
+            while ((position & 7) != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
@@ -15,16 +15,21 @@
 // limitations under the License.
 package algos.graph;
 
+import algos.datastructure.IndexedDaryHeap;
 import algos.graph.objects.*;
+import algos.sort.KeyIndexQuickSort;
 
 import java.util.*;
-import java.util.function.IntConsumer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 public class GraphUtil {
 
     /**
      * This algorithm is also known as Robert C. Prim's algorithm (1957), though firstly invented by Vojtech Jarnik in 1930
-     * The algorithm returns a minimum spanning tree of the graph as a list of arcs
+     * The algorithm returns a minimum spanning tree of the graph as a list of arcs.
+     * The tree is grown the same way {@link #eagerJarnik(Graph, int)} does it, over {@link Graph#forEachNeighbor(int, IntDoubleConsumer)},
+     * and only the ribs of the tree are looked up as objects, once it's complete
      *
      * @param graph the graph object
      * @param start an index of a vertex where we want to start our journey from
@@ -34,35 +39,225 @@ public class GraphUtil {
      * @return a minimum spanning tree of the graph
      */
     public static <V, E extends WeightedRib, T extends Graph<V, E>> List<E> jarnik(T graph, int start) {
+        SpanningTree tree = prim(graph, start, false);
         LinkedList<E> result = new LinkedList<>();
+        for (int k = 0; k < tree.size(); k++) result.add(ribBetween(graph, tree.from[k], tree.to[k]));
+        return result;
+    }
+
+    /**
+     * Joseph Kruskal's algorithm (1956). Ribs are sorted by weight once, and then taken one by one, lightest first,
+     * unless both ends of a rib already are in the same tree, which a union-find tells in almost constant time.
+     * The ribs are sorted as primitive arrays of weights and indices, without comparators and boxing.
+     * Unlike {@link #jarnik(Graph, int)}, which keeps a priority queue of every rib it has seen, the memory it needs
+     * is fixed by the amount of ribs, and it isn't limited to the component of a start node.
+     * Arcs of a directed graph are taken as undirected ribs.
+     *
+     * @param graph the graph object
+     * @param <V>   generic vertex (node) type
+     * @param <E>   generic edge (rib, arc) type
+     * @param <T>   generic graph implementation type
+     * @return a minimum spanning forest of the graph: a minimum spanning tree of every connected component
+     */
+    public static <V, E extends Rib, T extends Graph<V, E>> List<E> kruskal(T graph) {
+        int nodeCount = graph.getNodeCount();
+        ArrayList<E> ribs = spanningCandidates(graph);
+        double[] weights = new double[ribs.size()];
+        int[] order = new int[ribs.size()];
+        for (int k = 0; k < weights.length; k++) {
+            weights[k] = weightOf(ribs.get(k));
+            order[k] = k;
+        }
+        KeyIndexQuickSort.sort(weights, order);
 
-        if (start < 0 || start > (graph.getNodeCount() - 1))
+        IntUnionFind trees = new IntUnionFind(nodeCount);
+        ArrayList<E> result = new ArrayList<>(Math.max(nodeCount - 1, 0));
+        for (int k = 0; k < order.length && trees.count() > 1; k++) {
+            E rib = ribs.get(order[k]);
+            if (trees.union(rib.from, rib.to)) result.add(rib);
+        }
+        return result;
+    }
+
+    /**
+     * Otakar Boruvka's algorithm (1926), run in parallel. Every round finds the lightest rib leaving every component, all at the same time,
+     * and then merges the components along those ribs, again all at the same time, with a {@link ConcurrentIntUnionFind}.
+     * Every round at least halves the amount of components, so there are no more than log2(N) rounds,
+     * and the ribs which have become internal to a component are dropped after every round.
+     * Ties are broken by the position of a rib in the list of ribs, so that the chosen ribs never make a cycle even if weights are equal.
+     * Arcs of a directed graph are taken as undirected ribs.
+     *
+     * @param graph the graph object
+     * @param <V>   generic vertex (node) type
+     * @param <E>   generic edge (rib, arc) type
+     * @param <T>   generic graph implementation type
+     * @return a minimum spanning forest of the graph: a minimum spanning tree of every connected component
+     */
+    public static <V, E extends Rib, T extends Graph<V, E>> List<E> boruvka(T graph) {
+        int nodeCount = graph.getNodeCount();
+        ArrayList<E> ribs = spanningCandidates(graph);
+        int[] froms = new int[ribs.size()], tos = new int[ribs.size()];
+        double[] weights = new double[ribs.size()];
+        for (int k = 0; k < weights.length; k++) {
+            E rib = ribs.get(k);
+            froms[k] = rib.from;
+            tos[k] = rib.to;
+            weights[k] = weightOf(rib);
+        }
+
+        ConcurrentIntUnionFind components = new ConcurrentIntUnionFind(nodeCount);
+        AtomicIntegerArray lightest = new AtomicIntegerArray(nodeCount);
+        boolean[] taken = new boolean[ribs.size()];
+        int[] alive = IntStream.range(0, ribs.size()).toArray();
+        while (alive.length > 0) {
+            int[] candidates = alive;
+            IntStream.range(0, nodeCount).parallel().forEach(i -> lightest.set(i, -1));
+            alive = Arrays.stream(candidates).parallel().filter(k -> {
+                int one = components.find(froms[k]), two = components.find(tos[k]);
+                if (one == two) return false;
+                offerLightest(lightest, one, k, weights);
+                offerLightest(lightest, two, k, weights);
+                return true;
+            }).toArray();
+            IntStream.range(0, nodeCount).parallel().forEach(i -> {
+                int k = lightest.get(i);
+                // the lightest rib of two components is chosen by both of them, and only the first union takes it
+                if (k != -1 && components.union(froms[k], tos[k])) taken[k] = true;
+            });
+        }
+
+        ArrayList<E> result = new ArrayList<>(Math.max(nodeCount - 1, 0));
+        for (int k = 0; k < taken.length; k++) if (taken[k]) result.add(ribs.get(k));
+        return result;
+    }
+
+    private static void offerLightest(AtomicIntegerArray lightest, int component, int rib, double[] weights) {
+        while (true) {
+            int current = lightest.get(component);
+            if (current != -1 && (weights[current] < weights[rib] || (weights[current] == weights[rib] && current < rib))) return;
+            if (lightest.compareAndSet(component, current, rib)) return;
+        }
+    }
+
+    /**
+     * @return every rib of the graph, except loops, with undirected ribs taken once rather than from both of their ends
+     */
+    private static <V, E extends Rib, T extends Graph<V, E>> ArrayList<E> spanningCandidates(T graph) {
+        boolean directed = isDirected(graph);
+        ArrayList<E> ribs = new ArrayList<>();
+        for (int i = 0; i < graph.getNodeCount(); i++)
+            for (E rib : graph.ribsOf(i))
+                if (rib.from == i && rib.to != i && (directed || rib.from < rib.to)) ribs.add(rib);
+        return ribs;
+    }
+
+    public static final class SpanningTree {
+        public final int[] from;
+        public final int[] to;
+        public final double[] weight;
+
+        public SpanningTree(int[] from, int[] to, double[] weight) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+        }
+
+        public int size() {
+            return from.length;
+        }
+
+        public double totalWeight() {
+            double total = .0d;
+            for (double w : weight) total += w;
+            return total;
+        }
+    }
+
+    /**
+     * The eager version of {@link #jarnik(Graph, int)}. Instead of a queue of every rib it has seen, it keeps one entry per node
+     * in an indexed d-ary heap: the lightest known rib connecting the node to the tree, which is replaced by a decrease-key whenever a lighter one shows up.
+     * So the heap never holds more than N entries, and neighbours are visited through {@link Graph#forEachNeighbor(int, IntDoubleConsumer)},
+     * which reads the graph's own storage without making rib objects.
+     * When the component of the start node is spanned, the tree grows on from the next node which isn't spanned yet,
+     * so the result is a minimum spanning forest.
+     *
+     * @param graph the graph object
+     * @param start an index of a vertex where we want to start our journey from
+     * @param <V>   generic vertex (node) type
+     * @param <E>   generic edge (rib, arc) type
+     * @param <T>   generic graph implementation type
+     * @return the ribs of the forest as parallel arrays, in the order they were added
+     */
+    public static <V, E extends WeightedRib, T extends Graph<V, E>> SpanningTree eagerJarnik(T graph, int start) {
+        return prim(graph, start, true);
+    }
+
+    /**
+     * Grows a minimum spanning tree from the start node, and then from every node which isn't spanned yet if a forest is wanted
+     */
+    private static SpanningTree prim(Graph<?, ?> graph, int start, boolean forest) {
+        int nodeCount = graph.getNodeCount();
+        if (start < 0 || start > (nodeCount - 1))
             throw new IllegalArgumentException("No node of the graph may have negative index. Bad index was " + start);
+        Attachment attachment = new Attachment(nodeCount);
+        int[] from = new int[Math.max(nodeCount - 1, 0)], to = new int[from.length];
+        double[] weight = new double[from.length];
+        int size = 0;
 
-        final PriorityQueue<E> pq = new PriorityQueue<>();
-        boolean[] visited = new boolean[graph.getNodeCount()];
-
-        IntConsumer visit = index -> {
-            visited[index] = true;
-            for (E edge : graph.ribsOf(index))
-                if (!visited[edge.to] || !visited[edge.from]) pq.offer(edge);
-        };
-
-        visit.accept(start);
-        while (!pq.isEmpty()) {
-            E edge = pq.poll();
-            if (visited[edge.to]) {
-                if (visited[edge.from]) continue;
-                else {
-                    result.add(edge);
-                    visit.accept(edge.from);
-                    continue;
+        for (int i = 0; i < (forest ? nodeCount : 1); i++) {
+            int root = (start + i) % nodeCount;
+            if (attachment.spanned[root]) continue;
+            attachment.heap.insert(root, .0d);
+            attachment.parents[root] = -1;
+            while (!attachment.heap.isEmpty()) {
+                int node = attachment.heap.pollMin();
+                attachment.spanned[node] = true;
+                if (attachment.parents[node] != -1) {
+                    from[size] = attachment.parents[node];
+                    to[size] = node;
+                    weight[size++] = attachment.parentWeights[node];
                 }
+                attachment.node = node;
+                graph.forEachNeighbor(node, attachment);
+            }
+        }
+        return new SpanningTree(Arrays.copyOf(from, size), Arrays.copyOf(to, size), Arrays.copyOf(weight, size));
+    }
+
+    /**
+     * Offers the ribs leaving the node which has just been spanned to the nodes which aren't spanned yet.
+     * A single instance serves the whole run, so visiting neighbours allocates nothing
+     */
+    private static final class Attachment implements IntDoubleConsumer {
+        private final boolean[] spanned;
+        private final int[] parents;
+        private final double[] parentWeights;
+        private final IndexedDaryHeap heap;
+        private int node;
+
+        private Attachment(int nodeCount) {
+            this.spanned = new boolean[nodeCount];
+            this.parents = new int[nodeCount];
+            this.parentWeights = new double[nodeCount];
+            this.heap = new IndexedDaryHeap(nodeCount);
+        }
+
+        @Override
+        public void accept(int neighbour, double weight) {
+            if (!spanned[neighbour] && heap.insertOrDecrease(neighbour, weight)) {
+                parents[neighbour] = node;
+                parentWeights[neighbour] = weight;
             }
-            result.add(edge);
-            visit.accept(edge.to);
         }
+    }
 
+    /**
+     * Same as {@link #eagerJarnik(Graph, int)}, but as a list of the graph's ribs, the way {@link #jarnik(Graph, int)} returns it
+     */
+    public static <V, E extends WeightedRib, T extends Graph<V, E>> List<E> eagerJarnikList(T graph, int start) {
+        SpanningTree tree = eagerJarnik(graph, start);
+        ArrayList<E> result = new ArrayList<>(tree.size());
+        for (int k = 0; k < tree.size(); k++) result.add(ribBetween(graph, tree.from[k], tree.to[k]));
         return result;
     }
 
@@ -100,7 +295,7 @@ public class GraphUtil {
         }
     }
 
-    public static final class DijkstraResult<E extends WeightedRib> {
+    public static final class DijkstraResult<E extends Rib> {
         public final double[] distances;
         public final Map<Integer, E> pathMap;
 
@@ -111,7 +306,10 @@ public class GraphUtil {
     }
 
     /**
-     * The method calculates the shortest distance from the root node to any other node of the given graph
+     * The method calculates the shortest distance from the root node to any other node of the given graph.
+     * The search itself is {@link #indexedDijkstra(WeightedGraph, int, int)}, which visits neighbours through {@link Graph#forEachNeighbor(int, IntDoubleConsumer)}
+     * and allocates nothing per rib. Rib objects are looked up only for the path map, once the search is over.
+     * Nodes which can't be reached have distance 0 and no entry in the path map, as well as the root itself
      *
      * @param root - the root node
      * @param <N>  - graph node generic type
@@ -121,29 +319,272 @@ public class GraphUtil {
      */
     public static <N, T extends WeightedRib, G extends WeightedGraph<N, T>> DijkstraResult<T> dijkstra(N root, G graph) {
         int start = graph.indexOf(root);
-        double[] distances = new double[graph.getNodeCount()];
-        distances[start] = .0d;
-        boolean[] visited = new boolean[graph.getNodeCount()];
-        visited[start] = true;
-        HashMap<Integer, T> pathMap = new HashMap<>();
-        PriorityQueue<DijkstraNode> pQueue = new PriorityQueue<>();
-        pQueue.offer(new DijkstraNode(start, distances[start]));
-
-        while (!pQueue.isEmpty()) {
-            int nodeIndex = pQueue.poll().vertex;
-            double nodeDistance = distances[nodeIndex];
-            for (T wEdge : graph.ribsOf(nodeIndex)) {
-                double oldDistance = distances[wEdge.to];
-                double pathWeight = wEdge.weight + nodeDistance;
-                if (!visited[wEdge.to] || (oldDistance > pathWeight)) {
-                    visited[wEdge.to] = true;
-                    distances[wEdge.to] = pathWeight;
-                    pathMap.put(wEdge.to, wEdge);
-                    pQueue.offer(new DijkstraNode(wEdge.to, distances[wEdge.to]));
-                }
+        IndexedDijkstraResult search = indexedDijkstra(graph, start, -1);
+        double[] distances = search.distances;
+        for (int i = 0; i < distances.length; i++) if (distances[i] == Double.POSITIVE_INFINITY) distances[i] = .0d;
+        return new DijkstraResult<>(distances, predecessorRibs(graph, search.predecessors));
+    }
+
+    /**
+     * The method looks up the rib leading to every node from its predecessor, the lightest one if there are a few.
+     * Ribs of every predecessor are walked once, however many nodes it leads to
+     *
+     * @return the path map in the format of {@link DijkstraResult}: the rib leading to a node by the node's index
+     */
+    private static <T extends Rib> HashMap<Integer, T> predecessorRibs(Graph<?, T> graph, int[] predecessors) {
+        boolean[] isPredecessor = new boolean[predecessors.length];
+        int reached = 0;
+        for (int predecessor : predecessors)
+            if (predecessor != -1) {
+                isPredecessor[predecessor] = true;
+                reached++;
+            }
+        HashMap<Integer, T> pathMap = new HashMap<>(reached * 4 / 3 + 1);
+        for (int p = 0; p < predecessors.length; p++) {
+            if (!isPredecessor[p]) continue;
+            for (T rib : graph.ribsOf(p)) {
+                if (rib.from != p || predecessors[rib.to] != p) continue;
+                T known = pathMap.get(rib.to);
+                if (Objects.isNull(known) || weightOf(rib) < weightOf(known)) pathMap.put(rib.to, rib);
+            }
+        }
+        return pathMap;
+    }
+
+    /**
+     * The method calculates the shortest path between two nodes, searching forth from the source and back from the target at the same time.
+     * Each call prepares a reverse view of a directed graph, so for repeated queries on the same graph
+     * you may want to keep an instance of {@link BidirectionalDijkstra} instead.
+     *
+     * @param source - the source node
+     * @param target - the target node
+     * @param <N>    - graph node generic type
+     * @param <T>    - graph edge (arc, rib) generic type
+     * @param <G>    - generic graph implementation type
+     * @return an encapsulated result of the calculation, whose path map holds the path from the source to the target
+     */
+    public static <N, T extends Rib, G extends WeightedGraph<N, T>> DijkstraResult<T> bidirectionalDijkstra(N source, N target, G graph) {
+        return new BidirectionalDijkstra<>(graph).query(source, target);
+    }
+
+    /**
+     * The method calculates the shortest distance from the root node to any other node of the given graph, like {@link #dijkstra(Object, WeightedGraph)} does,
+     * but relaxes the ribs in parallel on the common fork/join pool. Each call copies the graph, so for repeated runs
+     * on the same graph you may want to keep an instance of {@link DeltaStepping} instead.
+     *
+     * @param root  - the root node
+     * @param delta - width of a distance bucket
+     * @param <N>   - graph node generic type
+     * @param <T>   - graph edge (arc, rib) generic type
+     * @param <G>   - generic graph implementation type
+     * @return an encapsulated result of the calculation
+     */
+    public static <N, T extends Rib, G extends WeightedGraph<N, T>> DijkstraResult<T> deltaStepping(N root, G graph, double delta) {
+        return new DeltaStepping<>(graph, delta).run(root);
+    }
+
+    public static final class IndexedDijkstraResult {
+        public final int source;
+        public final double[] distances;
+        public final int[] predecessors;
+
+        public IndexedDijkstraResult(int source, double[] distances, int[] predecessors) {
+            this.source = source;
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+
+        public boolean reached(int index) {
+            return index == source || predecessors[index] != -1;
+        }
+
+        public int[] pathTo(int end) {
+            return predecessorsToPath(source, end, predecessors);
+        }
+    }
+
+    /**
+     * Result of a breadth first search: the amount of ribs on a shortest path from the source to every node and the node before it on that path.
+     * Unreached nodes have depth -1 and parent -1, the source has depth 0 and parent -1.
+     */
+    public static class BfsResult {
+        public final int source;
+        public final int[] depths;
+        public final int[] parents;
+
+        public BfsResult(int source, int[] depths, int[] parents) {
+            this.source = source;
+            this.depths = depths;
+            this.parents = parents;
+        }
+
+        public boolean reached(int index) {
+            return depths[index] != -1;
+        }
+
+        public int[] pathTo(int end) {
+            return predecessorsToPath(source, end, parents);
+        }
+    }
+
+    /**
+     * Direction optimizing breadth first search from the source node, see {@link DirectionOptimizingBfs}.
+     * To search the same graph from many sources, keep an instance of {@link DirectionOptimizingBfs} instead,
+     * since the graph is copied into the compressed sparse row layout every time.
+     */
+    public static <N> BfsResult directionOptimizingBfs(Graph<N, ? extends Rib> graph, int source) {
+        return new DirectionOptimizingBfs<>(graph).search(source);
+    }
+
+    /**
+     * Topological order of a directed acyclic graph by Kahn's algorithm: every arc leads from a node to a node which comes later.
+     * To order a graph which has cycles, order the condensation of its {@link StronglyConnectedComponents} instead.
+     *
+     * @param graph a directed graph without cycles
+     * @return indices of all the nodes in a topological order
+     */
+    public static <N> int[] topologicalOrder(Graph<N, ? extends Rib> graph) {
+        if (!isDirected(graph) && graph.getRibCount() > 0)
+            throw new IllegalArgumentException("Only a directed graph has a topological order");
+        CompressedSparseRowGraph<N, WeightedRib> csr = graph instanceof CompressedSparseRowGraph<?, ?>
+                ? (CompressedSparseRowGraph<N, WeightedRib>) graph : CompressedSparseRowGraph.from(graph);
+        return topologicalOrder(csr.getOffsets(), csr.getTargets());
+    }
+
+    /**
+     * Kahn's algorithm over a graph in the compressed sparse row layout. The order array serves as the queue of the nodes
+     * which have no incoming arcs left, so the algorithm needs no memory but the order and the in-degrees.
+     *
+     * @param offsets positions of the arcs of every node, the node count plus one of them
+     * @param targets heads of the arcs
+     * @return indices of all the nodes in a topological order
+     */
+    public static int[] topologicalOrder(int[] offsets, int[] targets) {
+        int n = offsets.length - 1;
+        int[] inDegrees = new int[n], order = new int[n];
+        for (int k = 0; k < offsets[n]; k++) inDegrees[targets[k]]++;
+        int tail = 0;
+        for (int i = 0; i < n; i++) if (inDegrees[i] == 0) order[tail++] = i;
+        for (int head = 0; head < tail; head++) {
+            int node = order[head];
+            for (int k = offsets[node]; k < offsets[node + 1]; k++)
+                if (--inDegrees[targets[k]] == 0) order[tail++] = targets[k];
+        }
+        if (tail < n) throw new IllegalArgumentException("The graph has a cycle, " + (n - tail) + " nodes can't be ordered");
+        return order;
+    }
+
+    /**
+     * The method calculates the shortest distance from the source node to other nodes of the given graph.
+     * Unlike {@link #dijkstra(Object, WeightedGraph)}, it keeps every node at most once in an indexed d-ary heap
+     * and lowers its key when a shorter path is found, instead of enqueueing a new DijkstraNode on every relaxation.
+     * Paths are recorded as an array of predecessor indices rather than a map of edges, so nothing gets boxed.
+     * If the target is given, the search stops as soon as the target is settled. Distances of the nodes settled by then are final,
+     * the rest are upper bounds. Unreached nodes have an infinite distance and predecessor -1.
+     *
+     * @param graph  the graph
+     * @param source index of the root node
+     * @param target index of the node to stop at, or -1 to settle the whole graph
+     * @param <N>    graph node generic type
+     * @param <T>    graph edge (arc, rib) generic type
+     * @param <G>    generic graph implementation type
+     * @return distance and predecessor arrays, indexed by node index
+     */
+    public static <N, T extends Rib, G extends WeightedGraph<N, T>> IndexedDijkstraResult indexedDijkstra(G graph, int source, int target) {
+        int nodeCount = graph.getNodeCount();
+        if (source < 0 || source >= nodeCount)
+            throw new IllegalArgumentException("Source must be an index of a node of the graph. Bad index was " + source);
+        double[] distances = new double[nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] predecessors = new int[nodeCount];
+        Arrays.fill(predecessors, -1);
+        boolean[] settled = new boolean[nodeCount];
+        IndexedDaryHeap heap = new IndexedDaryHeap(nodeCount);
+
+        Relaxation relaxation = new Relaxation(distances, predecessors, settled, heap);
+
+        distances[source] = .0d;
+        heap.insert(source, .0d);
+        while (!heap.isEmpty()) {
+            int nodeIndex = heap.pollMin();
+            settled[nodeIndex] = true;
+            if (nodeIndex == target) break;
+            relaxation.node = nodeIndex;
+            relaxation.nodeDistance = distances[nodeIndex];
+            graph.forEachNeighbor(nodeIndex, relaxation);
+        }
+        return new IndexedDijkstraResult(source, distances, predecessors);
+    }
+
+    /**
+     * Relaxes the ribs leaving the node which has just been settled. A single instance serves the whole search,
+     * so visiting neighbours allocates nothing
+     */
+    private static final class Relaxation implements IntDoubleConsumer {
+        private final double[] distances;
+        private final int[] predecessors;
+        private final boolean[] settled;
+        private final IndexedDaryHeap heap;
+        private int node;
+        private double nodeDistance;
+
+        private Relaxation(double[] distances, int[] predecessors, boolean[] settled, IndexedDaryHeap heap) {
+            this.distances = distances;
+            this.predecessors = predecessors;
+            this.settled = settled;
+            this.heap = heap;
+        }
+
+        @Override
+        public void accept(int to, double weight) {
+            double pathWeight = nodeDistance + weight;
+            if (!settled[to] && pathWeight < distances[to]) {
+                distances[to] = pathWeight;
+                predecessors[to] = node;
+                heap.insertOrDecrease(to, pathWeight);
             }
         }
-        return new DijkstraResult<>(distances, pathMap);
+    }
+
+    public static <N, T extends Rib, G extends WeightedGraph<N, T>> IndexedDijkstraResult indexedDijkstra(N source, N target, G graph) {
+        return indexedDijkstra(graph, graph.indexOf(source), Objects.isNull(target) ? -1 : graph.indexOf(target));
+    }
+
+    /**
+     * The method restores a path from the array of predecessors, produced by {@link #indexedDijkstra(WeightedGraph, int, int)}
+     *
+     * @return indices of the path nodes, from start to end inclusive, or an empty array if the end wasn't reached from the start
+     */
+    public static int[] predecessorsToPath(int start, int end, int[] predecessors) {
+        int length = 1;
+        for (int node = end; node != start; node = predecessors[node]) {
+            if (predecessors[node] == -1 || length > predecessors.length) return new int[0];
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = end, i = length - 1; i >= 0; node = predecessors[node], i--) path[i] = node;
+        return path;
+    }
+
+    /**
+     * Same as {@link #pathMapToPathList(int, int, Map)}, but made out of the array of predecessors.
+     * Edge objects are looked up in the graph only for the nodes of the path.
+     */
+    public static <N, T extends Rib, G extends Graph<N, T>> List<T> predecessorsToPathList(int start, int end, int[] predecessors, G graph) {
+        int[] nodes = predecessorsToPath(start, end, predecessors);
+        List<T> path = new ArrayList<>(Math.max(nodes.length - 1, 0));
+        for (int i = 1; i < nodes.length; i++) path.add(ribBetween(graph, nodes[i - 1], nodes[i]));
+        return path;
+    }
+
+    /**
+     * @return the lightest rib leaving the 'from' node towards the 'to' node, or null if there is none
+     */
+    public static <N, T extends Rib> T ribBetween(Graph<N, T> graph, int from, int to) {
+        T result = null;
+        for (T rib : graph.ribsOf(from))
+            if (rib.from == from && rib.to == to && (Objects.isNull(result) || weightOf(rib) < weightOf(result))) result = rib;
+        return result;
     }
 
     public static <N, T extends WeightedArc, G extends WeightedIncidentalityListDirectedGraph<N, T>> Map<N, Double> distanceArrayToDistanceMap(double[] distances, G graph) {
@@ -168,6 +609,32 @@ public class GraphUtil {
         return path;
     }
 
+    /**
+     * Compressed sparse row, mapped and bit matrix graphs may be directed or not, but don't implement {@link DirectedGraph} either way,
+     * so the direction of a graph is to be told by this method rather than by its type
+     *
+     * @param graph any graph
+     * @return true if the ribs of the graph lead one way only
+     */
+    public static boolean isDirected(Graph<?, ?> graph) {
+        if (graph instanceof CompressedSparseRowGraph<?, ?> csr) return csr.isDirected();
+        if (graph instanceof MappedGraph<?> mapped) return mapped.isDirected();
+        if (graph instanceof BitMatrixGraph<?, ?> bits) return bits.isDirected();
+        return graph instanceof DirectedGraph;
+    }
+
+    /**
+     * Weighted ribs and weighted arcs don't share a common weight accessor, so here it is
+     *
+     * @param rib any rib or arc
+     * @return weight of the rib, or 1.0 for a weightless one
+     */
+    public static double weightOf(Rib rib) {
+        if (rib instanceof WeightedRib wRib) return wRib.weight;
+        if (rib instanceof WeightedArc wArc) return wArc.weight;
+        return 1.0d;
+    }
+
     public static <T, G extends Rib> void print(Collection<G> connections, Graph<T, G> graph) {
         connections.stream()
                 .map(wRib -> graph.nodeAt(wRib.from) + " ==== " + graph.nodeAt(wRib.to))
@@ -5,6 +5,7 @@ package algos.graph;
 
 import algos.graph.objects.Arc;
 import algos.graph.objects.DirectedGraph;
+import algos.graph.objects.IntDoubleConsumer;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,12 +21,18 @@ import java.util.stream.Collectors;
  */
 public class IncidentalityListDirectedGraph<V, E extends Arc> implements DirectedGraph<V, E> {
     private ArrayList<V> nodes = new ArrayList<>();
+    private HashMap<V, Integer> indices;
     protected ArrayList<Set<E>> incidentality = new ArrayList<>();
-    private Set<E> ribs = new HashSet<>();
+    private int arcCount;
+    private volatile long modificationCount;
 
     public IncidentalityListDirectedGraph(ArrayList<V> nodes) {
         this.nodes = nodes;
-        for (V vertex : nodes) this.incidentality.add(new HashSet<>());
+        this.indices = new HashMap<>(nodes.size() * 4 / 3 + 1);
+        for (int i = 0; i < nodes.size(); i++) {
+            this.indices.putIfAbsent(nodes.get(i), i);
+            this.incidentality.add(new HashSet<>());
+        }
     }
 
     @Override
@@ -34,21 +41,24 @@ public class IncidentalityListDirectedGraph<V, E extends Arc> implements Directe
     }
 
     public int getArcCount() {
-        return this.incidentality.stream().mapToInt(Set::size).sum();
+        return this.arcCount;
     }
 
     public int addVertex(V vertex) {
+        this.indices.putIfAbsent(vertex, this.nodes.size());
         this.nodes.add(vertex);
         this.incidentality.add(new HashSet<>());
+        modified();
         return getNodeCount() - 1;
     }
 
-    private void updateArcs() {
-        this.ribs = this.incidentality.stream().flatMap(Set::stream).collect(Collectors.toSet());
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
     }
 
-    private void updateRibs() {
-        updateArcs();
+    protected void modified() {
+        modificationCount++;
     }
 
     @Override
@@ -62,7 +72,8 @@ public class IncidentalityListDirectedGraph<V, E extends Arc> implements Directe
     }
 
     public int indexOf(V vertex) {
-        return this.nodes.indexOf(vertex);
+        Integer index = this.indices.get(vertex);
+        return Objects.isNull(index) ? -1 : index;
     }
 
     @Override
@@ -72,8 +83,56 @@ public class IncidentalityListDirectedGraph<V, E extends Arc> implements Directe
 
     @Override
     public void connectNodes(int from, int to) {
-        this.incidentality.get(from).add((E) new Arc(from, to));
-        updateArcs();
+        addArc((E) new Arc(from, to));
+        modified();
+    }
+
+    /**
+     * Puts an arc into the set of its tail node and keeps the arc count up to date.
+     * An arc which already leads between the same nodes is kept as it is.
+     * The modification count isn't bumped here, so a batch of arcs bumps it only once.
+     */
+    protected void addArc(E arc) {
+        if (this.incidentality.get(arc.from).add(arc)) this.arcCount++;
+    }
+
+    /**
+     * Takes an arc out of the set of its tail node and keeps the arc count up to date
+     */
+    protected void removeArc(E arc) {
+        if (this.incidentality.get(arc.from).remove(arc)) this.arcCount--;
+    }
+
+    /**
+     * The method adds arcs from[i] -> to[i] in one go.
+     * Out-degrees of the nodes are counted first, so every arc set is resized at most once.
+     *
+     * @param from indices of the tail nodes of the arcs
+     * @param to   indices of the head nodes of the arcs
+     */
+    public void connectAll(int[] from, int[] to) {
+        if (from.length != to.length)
+            throw new IllegalArgumentException("Every arc must have both of its nodes. Bad lengths were " + from.length + " and " + to.length);
+        reserve(from);
+        for (int i = 0; i < from.length; i++) addArc((E) new Arc(from[i], to[i]));
+        modified();
+    }
+
+    /**
+     * Grows the arc sets of the tail nodes in advance, so that they hold the arcs to come without rehashing
+     */
+    protected void reserve(int[] from) {
+        int[] degrees = new int[getNodeCount()];
+        for (int tail : from) degrees[tail]++;
+        for (int i = 0; i < degrees.length; i++) {
+            if (degrees[i] == 0) continue;
+            Set<E> current = this.incidentality.get(i);
+            int expected = current.size() + degrees[i];
+            if (expected <= 12) continue;
+            Set<E> resized = new HashSet<>(expected * 4 / 3 + 1);
+            resized.addAll(current);
+            this.incidentality.set(i, resized);
+        }
     }
 
     @Override
@@ -83,8 +142,8 @@ public class IncidentalityListDirectedGraph<V, E extends Arc> implements Directe
 
     @Override
     public void disconnectNodes(int from, int to) {
-        this.incidentality.get(from).remove((E) new Arc(from, to));
-        updateArcs();
+        removeArc((E) new Arc(from, to));
+        modified();
     }
 
     public Set<V> successorsOf(int index) {
@@ -105,6 +164,10 @@ public class IncidentalityListDirectedGraph<V, E extends Arc> implements Directe
         return arcsOf(indexOf(vertex));
     }
 
+    /**
+     * @return the nodes of the graph. New nodes must be added with {@link #addVertex(Object)}, not to this list,
+     * or {@link #indexOf(Object)} won't find them
+     */
     public ArrayList<V> getNodes() {
         return this.nodes;
     }
@@ -113,6 +176,11 @@ public class IncidentalityListDirectedGraph<V, E extends Arc> implements Directe
         return this.incidentality;
     }
 
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        for (E rib : this.incidentality.get(index)) consumer.accept(rib.to, 1.0d);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -20,12 +20,18 @@ import java.util.stream.Stream;
  */
 public class IncidentalityListGraph<V, E extends Rib> implements Graph<V, E> {
     private ArrayList<V> nodes = new ArrayList<>();
+    private HashMap<V, Integer> indices;
     private ArrayList<Set<E>> incidentality = new ArrayList<>();
-    private Set<E> ribs = new HashSet<>();
+    private int ribCount;
+    private volatile long modificationCount;
 
     public IncidentalityListGraph(ArrayList<V> nodes) {
         this.nodes = nodes;
-        for (V node : nodes) this.incidentality.add(new HashSet<>());
+        this.indices = new HashMap<>(nodes.size() * 4 / 3 + 1);
+        for (int i = 0; i < nodes.size(); i++) {
+            this.indices.putIfAbsent(nodes.get(i), i);
+            this.incidentality.add(new HashSet<>());
+        }
     }
 
     @Override
@@ -34,11 +40,22 @@ public class IncidentalityListGraph<V, E extends Rib> implements Graph<V, E> {
     }
 
     public int addVertex(V vertex) {
+        this.indices.putIfAbsent(vertex, this.nodes.size());
         this.nodes.add(vertex);
         this.incidentality.add(new HashSet<>());
+        modified();
         return getNodeCount() - 1;
     }
 
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    protected void modified() {
+        modificationCount++;
+    }
+
     @Override
     public V nodeAt(int index) {
         return this.nodes.get(index);
@@ -46,16 +63,13 @@ public class IncidentalityListGraph<V, E extends Rib> implements Graph<V, E> {
 
     @Override
     public int getRibCount() {
-        return this.ribs.size() / 2;
+        return this.ribCount;
     }
 
     @Override
     public int indexOf(V vertex) {
-        return this.nodes.indexOf(vertex);
-    }
-
-    private void updateRibs() {
-        this.ribs = this.incidentality.stream().flatMap(Set::stream).collect(Collectors.toSet());
+        Integer index = this.indices.get(vertex);
+        return Objects.isNull(index) ? -1 : index;
     }
 
     @Override
@@ -65,9 +79,56 @@ public class IncidentalityListGraph<V, E extends Rib> implements Graph<V, E> {
 
     @Override
     public void connectNodes(int from, int to) {
-        this.incidentality.get(from).add((E) new Rib(from, to));
-        this.incidentality.get(to).add((E) new Rib(to, from));
-        updateRibs();
+        addRib((E) new Rib(from, to), (E) new Rib(to, from));
+        modified();
+    }
+
+    /**
+     * Puts a rib into the sets of both of its nodes and keeps the rib count up to date.
+     * A rib which already connects the same nodes is kept as it is.
+     * The modification count isn't bumped here, so a batch of ribs bumps it only once.
+     *
+     * @param forth the rib as seen from its first node
+     * @param back  the same rib as seen from its second node
+     */
+    protected void addRib(E forth, E back) {
+        if (this.incidentality.get(forth.from).add(forth)) this.ribCount++;
+        this.incidentality.get(back.from).add(back);
+    }
+
+    /**
+     * The method connects nodes pairwise, from[i] with to[i], in one go.
+     * Degrees of the nodes are counted first, so every rib set is resized at most once.
+     *
+     * @param from indices of the first nodes of the ribs
+     * @param to   indices of the second nodes of the ribs
+     */
+    public void connectAll(int[] from, int[] to) {
+        if (from.length != to.length)
+            throw new IllegalArgumentException("Every rib must have both of its nodes. Bad lengths were " + from.length + " and " + to.length);
+        reserve(from, to);
+        for (int i = 0; i < from.length; i++) addRib((E) new Rib(from[i], to[i]), (E) new Rib(to[i], from[i]));
+        modified();
+    }
+
+    /**
+     * Grows the rib sets of the nodes in advance, so that they hold the ribs to come without rehashing
+     */
+    protected void reserve(int[] from, int[] to) {
+        int[] degrees = new int[getNodeCount()];
+        for (int i = 0; i < from.length; i++) {
+            degrees[from[i]]++;
+            degrees[to[i]]++;
+        }
+        for (int i = 0; i < degrees.length; i++) {
+            if (degrees[i] == 0) continue;
+            Set<E> current = this.incidentality.get(i);
+            int expected = current.size() + degrees[i];
+            if (expected <= 12) continue;
+            Set<E> resized = new HashSet<>(expected * 4 / 3 + 1);
+            resized.addAll(current);
+            this.incidentality.set(i, resized);
+        }
     }
 
     @Override
@@ -78,8 +139,9 @@ public class IncidentalityListGraph<V, E extends Rib> implements Graph<V, E> {
     @Override
     public void disconnectNodes(int from, int to) {
         this.incidentality.get(from).remove(ribsOf(from).stream().filter(rib -> rib.to == to).findAny().get());
-        this.incidentality.get(to).remove(ribsOf(to).stream().filter(rib -> rib.from == to).findAny().get());
-        updateRibs();
+        this.incidentality.get(to).removeIf(rib -> rib.to == from);
+        this.ribCount--;
+        modified();
     }
 
     public Set<V> successorsOf(int index) {
@@ -110,6 +172,10 @@ public class IncidentalityListGraph<V, E extends Rib> implements Graph<V, E> {
         return ribsOf(indexOf(vertex));
     }
 
+    /**
+     * @return the nodes of the graph. New nodes must be added with {@link #addVertex(Object)}, not to this list,
+     * or {@link #indexOf(Object)} won't find them
+     */
     public ArrayList<V> getNodes() {
         return nodes;
     }
@@ -118,6 +184,11 @@ public class IncidentalityListGraph<V, E extends Rib> implements Graph<V, E> {
         return incidentality;
     }
 
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        for (E rib : this.incidentality.get(index)) consumer.accept(rib.to, 1.0d);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
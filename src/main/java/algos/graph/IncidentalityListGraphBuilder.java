@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bulk loader of incidentality list graphs. Ribs are accumulated in growable primitive arrays,
+ * either one by one, by arrays or from a stream, and then handed over to a graph in one batch,
+ * so that the rib set of every node is sized once for its whole degree instead of growing rib by rib.
+ * The same builder can make a graph of any of the four incidentality list kinds;
+ * weightless graphs ignore the weights.
+ *
+ * @param <V> generic vertex type
+ */
+public class IncidentalityListGraphBuilder<V> {
+    private final ArrayList<V> nodes;
+    private int[] from;
+    private int[] to;
+    private double[] weight;
+    private int size;
+
+    public IncidentalityListGraphBuilder(List<V> nodes) {
+        this(nodes, 16);
+    }
+
+    /**
+     * @param nodes        nodes of the graph, more can be added later
+     * @param expectedRibs amount of ribs to reserve room for
+     */
+    public IncidentalityListGraphBuilder(List<V> nodes, int expectedRibs) {
+        this.nodes = new ArrayList<>(nodes);
+        int capacity = Math.max(16, expectedRibs);
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+        this.weight = new double[capacity];
+    }
+
+    public int addNode(V node) {
+        this.nodes.add(node);
+        return this.nodes.size() - 1;
+    }
+
+    public int getNodeCount() {
+        return this.nodes.size();
+    }
+
+    public int getRibCount() {
+        return this.size;
+    }
+
+    public IncidentalityListGraphBuilder<V> addRib(int from, int to) {
+        return addRib(from, to, 1.0d);
+    }
+
+    public IncidentalityListGraphBuilder<V> addRib(int from, int to, double weight) {
+        checkNodes(from, to);
+        ensureCapacity(this.size + 1);
+        append(from, to, weight);
+        return this;
+    }
+
+    /**
+     * Adds a batch of ribs from[i] --- to[i] of weights[i]
+     *
+     * @return this builder
+     */
+    public IncidentalityListGraphBuilder<V> addRibs(int[] from, int[] to, double[] weights) {
+        if (from.length != to.length || from.length != weights.length)
+            throw new IllegalArgumentException("Every rib must have both of its nodes and a weight. Bad lengths were " + from.length + ", " + to.length + " and " + weights.length);
+        for (int i = 0; i < from.length; i++) checkNodes(from[i], to[i]);
+        ensureCapacity(this.size + from.length);
+        System.arraycopy(from, 0, this.from, this.size, from.length);
+        System.arraycopy(to, 0, this.to, this.size, to.length);
+        System.arraycopy(weights, 0, this.weight, this.size, weights.length);
+        this.size += from.length;
+        return this;
+    }
+
+    /**
+     * Adds all ribs of the stream, in its encounter order. Weightless ribs get weight 1.0
+     *
+     * @return this builder
+     */
+    public IncidentalityListGraphBuilder<V> addRibs(Stream<? extends Rib> ribs) {
+        ribs.sequential().forEachOrdered(rib -> addRib(rib.from, rib.to, GraphUtil.weightOf(rib)));
+        return this;
+    }
+
+    private void checkNodes(int from, int to) {
+        if (from < 0 || from >= this.nodes.size() || to < 0 || to >= this.nodes.size())
+            throw new IllegalArgumentException("Both nodes of a rib must belong to the graph. Bad rib was " + from + " --- " + to);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.from.length) return;
+        int grown = Math.max(capacity, this.from.length << 1);
+        this.from = Arrays.copyOf(this.from, grown);
+        this.to = Arrays.copyOf(this.to, grown);
+        this.weight = Arrays.copyOf(this.weight, grown);
+    }
+
+    private void append(int f, int t, double w) {
+        this.from[this.size] = f;
+        this.to[this.size] = t;
+        this.weight[this.size] = w;
+        this.size++;
+    }
+
+    public IncidentalityListGraph<V, Rib> build() {
+        IncidentalityListGraph<V, Rib> graph = new IncidentalityListGraph<>(new ArrayList<>(this.nodes));
+        graph.connectAll(Arrays.copyOf(this.from, this.size), Arrays.copyOf(this.to, this.size));
+        return graph;
+    }
+
+    public IncidentalityListDirectedGraph<V, Arc> buildDirected() {
+        IncidentalityListDirectedGraph<V, Arc> graph = new IncidentalityListDirectedGraph<>(new ArrayList<>(this.nodes));
+        graph.connectAll(Arrays.copyOf(this.from, this.size), Arrays.copyOf(this.to, this.size));
+        return graph;
+    }
+
+    public <E extends WeightedRib> WeightedIncidentalityListGraph<V, E> buildWeighted() {
+        WeightedIncidentalityListGraph<V, E> graph = new WeightedIncidentalityListGraph<>(new ArrayList<>(this.nodes));
+        graph.connectAll(Arrays.copyOf(this.from, this.size), Arrays.copyOf(this.to, this.size), Arrays.copyOf(this.weight, this.size));
+        return graph;
+    }
+
+    public <E extends WeightedArc> WeightedIncidentalityListDirectedGraph<V, E> buildWeightedDirected() {
+        WeightedIncidentalityListDirectedGraph<V, E> graph = new WeightedIncidentalityListDirectedGraph<>(new ArrayList<>(this.nodes));
+        graph.connectAll(Arrays.copyOf(this.from, this.size), Arrays.copyOf(this.to, this.size), Arrays.copyOf(this.weight, this.size));
+        return graph;
+    }
+}
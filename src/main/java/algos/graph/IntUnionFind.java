@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets of the integers from 0 to n - 1, kept in two primitive arrays.
+ * Union by rank keeps the trees shallow, and path halving (every node visited by find is hooked to its grandparent)
+ * flattens them a little more with every look-up, without a second pass or recursion.
+ * Together they make any sequence of m operations run in O(m α(n)), where α is the inverse Ackermann function, which never exceeds 4 in practice.
+ */
+public class IntUnionFind implements UnionFind<Integer> {
+    private final int[] parents;
+    private final byte[] ranks;
+    private int count;
+
+    public IntUnionFind(int size) {
+        if (size < 0) throw new IllegalArgumentException("Size of a union-find mustn't be negative. Bad size was " + size);
+        this.parents = new int[size];
+        this.ranks = new byte[size];
+        this.count = size;
+        for (int i = 0; i < size; i++) parents[i] = i;
+    }
+
+    /**
+     * @return the representative of the set the element belongs to
+     */
+    public int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets of the two elements
+     *
+     * @return true if the elements were in different sets, false if they already were in the same one
+     */
+    public boolean union(int one, int two) {
+        int rootOne = find(one), rootTwo = find(two);
+        if (rootOne == rootTwo) return false;
+        if (ranks[rootOne] < ranks[rootTwo]) parents[rootOne] = rootTwo;
+        else if (ranks[rootOne] > ranks[rootTwo]) parents[rootTwo] = rootOne;
+        else {
+            parents[rootTwo] = rootOne;
+            ranks[rootOne]++;
+        }
+        count--;
+        return true;
+    }
+
+    public boolean connected(int one, int two) {
+        return find(one) == find(two);
+    }
+
+    @Override
+    public void union(Integer one, Integer two) {
+        union(one.intValue(), two.intValue());
+    }
+
+    @Override
+    public boolean connected(Integer one, Integer two) {
+        return connected(one.intValue(), two.intValue());
+    }
+
+    /**
+     * @return amount of disjoint sets
+     */
+    public int count() {
+        return count;
+    }
+
+    public int size() {
+        return parents.length;
+    }
+
+    /**
+     * Puts every element back into a set of its own
+     */
+    public void reset() {
+        for (int i = 0; i < parents.length; i++) parents[i] = i;
+        Arrays.fill(ranks, (byte) 0);
+        count = parents.length;
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.datastructure.IndexedDaryHeap;
+import algos.graph.objects.IntDoubleConsumer;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedGraph;
+import algos.graph.objects.WeightedRib;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Yen's algorithm of k shortest loopless paths (Yen, 1971). Having found the i-th path, it branches off every node of it,
+ * the spur node, with the part of the path up to the spur node kept, and the ribs which the paths found so far take
+ * from the same part forbidden, so every branch makes a path which differs from all of them. The lightest of the branches
+ * collected so far is the next path.
+ * <p>
+ * Nothing of the graph is copied for a branch: forbidden ribs and nodes are masks over the node indices, which the search
+ * looks at while it visits neighbours through {@link algos.graph.objects.Graph#forEachNeighbor(int, IntDoubleConsumer)}.
+ * The searches share a single tree of shortest paths to the target, calculated once per query, which gives the first path
+ * and serves the branch searches as an exact A* estimate of the remaining distance: forbidding ribs only makes paths longer,
+ * so the estimate stays a lower bound, and a spur node which can't reach the target at all is skipped without a search.
+ * The arrays of a search are borrowed from a pool and cleared in time proportional to what the search has touched.
+ * <p>
+ * Paths come as a lazy stream: the next path is calculated when it's asked for, so taking three of them costs three steps.
+ * Weights must not be negative. A stream fails with {@link ConcurrentModificationException} if the graph is changed while it's consumed.
+ *
+ * @param <N> generic node type
+ */
+public class KShortestPaths<N> {
+    private final WeightedGraph<N, ? extends Rib> graph;
+    private final boolean directed;
+    private final ConcurrentLinkedQueue<Workspace> pool = new ConcurrentLinkedQueue<>();
+    private CompressedSparseRowGraph<N, WeightedRib> reverse;
+    private long reverseModificationCount;
+
+    public KShortestPaths(WeightedGraph<N, ? extends Rib> graph) {
+        this.graph = graph;
+        this.directed = GraphUtil.isDirected(graph);
+    }
+
+    /**
+     * @return at most k shortest loopless paths from the source to the target, the lightest first
+     */
+    public List<Route> find(int source, int target, int k) {
+        if (k < 0) throw new IllegalArgumentException("Amount of paths must not be negative. Bad amount was " + k);
+        return paths(source, target).limit(k).toList();
+    }
+
+    public List<Route> find(N source, N target, int k) {
+        return find(graph.indexOf(source), graph.indexOf(target), k);
+    }
+
+    public Stream<Route> paths(N source, N target) {
+        return paths(graph.indexOf(source), graph.indexOf(target));
+    }
+
+    /**
+     * @return loopless paths from the source to the target, in the order of their weights, calculated one by one as the stream is consumed
+     */
+    public Stream<Route> paths(int source, int target) {
+        int n = graph.getNodeCount();
+        if (source < 0 || source >= n || target < 0 || target >= n)
+            throw new IllegalArgumentException("Both ends of a path must be indices of nodes of the graph. Bad ends were " + source + " and " + target);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Paths(source, target),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * The tree of shortest paths from every node to the target: distances to the target and the next node on the way to it
+     */
+    private GraphUtil.IndexedDijkstraResult treeTo(int target) {
+        if (!directed) return GraphUtil.indexedDijkstra(graph, target, -1);
+        CompressedSparseRowGraph<N, WeightedRib> reversed;
+        synchronized (this) {
+            if (reverse == null || reverseModificationCount != graph.getModificationCount()) {
+                reverseModificationCount = graph.getModificationCount();
+                reverse = (graph instanceof CompressedSparseRowGraph<?, ?> csr
+                        ? (CompressedSparseRowGraph<N, WeightedRib>) csr : CompressedSparseRowGraph.from(graph)).reversed();
+            }
+            reversed = reverse;
+        }
+        return GraphUtil.indexedDijkstra(reversed, target, -1);
+    }
+
+    private Workspace acquire(int nodeCount) {
+        Workspace workspace = pool.poll();
+        while (workspace != null && workspace.distances.length != nodeCount) workspace = pool.poll();
+        return workspace != null ? workspace : new Workspace(nodeCount);
+    }
+
+    /**
+     * A loopless path and the distance from its first node to every node of it
+     */
+    public static final class Route {
+        public final int[] nodes;
+        public final double[] distances;
+        public final double weight;
+
+        public Route(int[] nodes, double[] distances) {
+            this.nodes = nodes;
+            this.distances = distances;
+            this.weight = distances[distances.length - 1];
+        }
+
+        public int size() {
+            return nodes.length;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(nodes) + " (" + weight + ")";
+        }
+    }
+
+    /**
+     * Yen's algorithm, one path per call of {@link #next()}
+     */
+    private final class Paths implements Iterator<Route> {
+        private final int source, target;
+        private final long modificationCount;
+        private final List<Route> found = new ArrayList<>();
+        private final PriorityQueue<Route> candidates = new PriorityQueue<>(
+                Comparator.comparingDouble((Route route) -> route.weight).thenComparingInt(Route::size));
+        private final Set<List<Integer>> seen = new HashSet<>();
+        private double[] toTarget;
+        private Route next;
+        private boolean exhausted;
+
+        private Paths(int source, int target) {
+            this.source = source;
+            this.target = target;
+            this.modificationCount = graph.getModificationCount();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            if (exhausted) return false;
+            if (graph.getModificationCount() != modificationCount) throw new ConcurrentModificationException();
+            if (found.isEmpty()) next = first();
+            else {
+                branch(found.get(found.size() - 1));
+                next = candidates.poll();
+            }
+            if (next == null) exhausted = true;
+            else found.add(next);
+            return next != null;
+        }
+
+        @Override
+        public Route next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Route route = next;
+            next = null;
+            return route;
+        }
+
+        /**
+         * The shortest path is read off the tree of paths to the target
+         */
+        private Route first() {
+            GraphUtil.IndexedDijkstraResult tree = treeTo(target);
+            toTarget = tree.distances;
+            if (toTarget[source] == Double.POSITIVE_INFINITY) return null;
+            int size = 1;
+            for (int node = source; node != target; node = tree.predecessors[node]) size++;
+            int[] nodes = new int[size];
+            double[] distances = new double[size];
+            for (int i = 0, node = source; i < size; i++) {
+                nodes[i] = node;
+                distances[i] = toTarget[source] - toTarget[node];
+                if (node != target) node = tree.predecessors[node];
+            }
+            seen.add(key(nodes));
+            return new Route(nodes, distances);
+        }
+
+        /**
+         * Branches off every node of the path, but the target, and adds the new paths to the candidates
+         */
+        private void branch(Route previous) {
+            Workspace workspace = acquire(toTarget.length);
+            try {
+                for (int i = 0; i < previous.nodes.length - 1; i++) {
+                    int spur = previous.nodes[i];
+                    if (toTarget[spur] == Double.POSITIVE_INFINITY) continue;
+                    for (Route route : found)
+                        if (route.nodes.length > i + 1 && Arrays.equals(route.nodes, 0, i + 1, previous.nodes, 0, i + 1))
+                            workspace.forbidRib(route.nodes[i + 1]);
+                    for (int j = 0; j < i; j++) workspace.forbidNode(previous.nodes[j]);
+                    if (workspace.search(spur, target, toTarget)) {
+                        Route route = workspace.join(previous, i, target);
+                        if (seen.add(key(route.nodes))) candidates.add(route);
+                    }
+                    workspace.allow();
+                }
+            } finally {
+                pool.offer(workspace);
+            }
+        }
+
+        private List<Integer> key(int[] nodes) {
+            return Arrays.stream(nodes).boxed().toList();
+        }
+    }
+
+    /**
+     * Arrays of an A* search from a spur node, with the masks of forbidden nodes and ribs.
+     * Only the entries a search has touched are reset after it
+     */
+    private final class Workspace implements IntDoubleConsumer {
+        private final double[] distances;
+        private final int[] predecessors;
+        private final boolean[] reached, closed, forbiddenNodes, forbiddenRibs;
+        private final IndexedDaryHeap heap;
+        private int[] touched = new int[64], forbidden = new int[16];
+        private int touchedCount, forbiddenCount;
+        private double[] toTarget;
+        private int node, spur;
+        private double nodeDistance;
+
+        private Workspace(int nodeCount) {
+            distances = new double[nodeCount];
+            predecessors = new int[nodeCount];
+            reached = new boolean[nodeCount];
+            closed = new boolean[nodeCount];
+            forbiddenNodes = new boolean[nodeCount];
+            forbiddenRibs = new boolean[nodeCount];
+            heap = new IndexedDaryHeap(nodeCount);
+        }
+
+        private void forbidNode(int index) {
+            if (forbiddenNodes[index]) return;
+            forbiddenNodes[index] = true;
+            remember(index);
+        }
+
+        /**
+         * Forbids the rib from the spur node to the given node
+         */
+        private void forbidRib(int to) {
+            if (forbiddenRibs[to]) return;
+            forbiddenRibs[to] = true;
+            remember(to);
+        }
+
+        private void remember(int index) {
+            if (forbiddenCount == forbidden.length) forbidden = Arrays.copyOf(forbidden, forbiddenCount << 1);
+            forbidden[forbiddenCount++] = index;
+        }
+
+        private void allow() {
+            for (int i = 0; i < forbiddenCount; i++) {
+                forbiddenNodes[forbidden[i]] = false;
+                forbiddenRibs[forbidden[i]] = false;
+            }
+            forbiddenCount = 0;
+        }
+
+        /**
+         * A* search from the spur node to the target, which keeps off the forbidden nodes and ribs
+         *
+         * @return true if the target has been reached
+         */
+        private boolean search(int spur, int target, double[] toTarget) {
+            for (int i = 0; i < touchedCount; i++) {
+                reached[touched[i]] = false;
+                closed[touched[i]] = false;
+            }
+            touchedCount = 0;
+            heap.clear();
+            this.spur = spur;
+            this.toTarget = toTarget;
+            reach(spur, .0d, -1);
+            heap.insert(spur, toTarget[spur]);
+            while (!heap.isEmpty()) {
+                int current = heap.pollMin();
+                if (current == target) return true;
+                closed[current] = true;
+                node = current;
+                nodeDistance = distances[current];
+                graph.forEachNeighbor(current, this);
+            }
+            return false;
+        }
+
+        @Override
+        public void accept(int to, double weight) {
+            if (forbiddenNodes[to] || closed[to] || toTarget[to] == Double.POSITIVE_INFINITY) return;
+            if (node == spur && forbiddenRibs[to]) return;
+            double distance = nodeDistance + weight;
+            if (reached[to] && distance >= distances[to]) return;
+            reach(to, distance, node);
+            heap.insertOrDecrease(to, distance + toTarget[to]);
+        }
+
+        private void reach(int index, double distance, int predecessor) {
+            if (!reached[index]) {
+                reached[index] = true;
+                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount << 1);
+                touched[touchedCount++] = index;
+            }
+            distances[index] = distance;
+            predecessors[index] = predecessor;
+        }
+
+        /**
+         * @return the part of the previous path up to its i-th node, followed by the path the search has found from there
+         */
+        private Route join(Route previous, int i, int target) {
+            int spurSize = 0;
+            for (int index = target; index != -1; index = predecessors[index]) spurSize++;
+            int size = i + spurSize;
+            int[] nodes = Arrays.copyOf(previous.nodes, size);
+            double[] pathDistances = Arrays.copyOf(previous.distances, size);
+            double root = previous.distances[i];
+            for (int k = size - 1, index = target; index != -1; k--, index = predecessors[index]) {
+                nodes[k] = index;
+                pathDistances[k] = root + distances[index];
+            }
+            return new Route(nodes, pathDistances);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.datastructure.IndexedDaryHeap;
+import algos.geo.GeoDistances;
+import algos.graph.objects.GeoNode;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedGraph;
+import algos.graph.objects.WeightedRib;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ALT (A*, Landmarks, Triangle inequality, Goldberg and Harrelson, 2005) point-to-point shortest path search.
+ * A few nodes are chosen as landmarks, and distances from every landmark to every node and back are computed once, in the constructor.
+ * By the triangle inequality, for any landmark L the distance from v to t is no shorter than d(L, t) - d(L, v) and d(v, L) - d(t, L),
+ * so the greatest of those differences is an admissible and consistent A* heuristic, which leads the search towards the target
+ * and makes it settle far fewer nodes than Dijkstra algorithm does.
+ * <p>
+ * If the nodes have coordinates ({@link GeoNode}, such as {@link algos.graph.objects.CityNode} and {@link algos.graph.objects.CrossroadsNode}),
+ * the heuristic may also take the geodesic distance into account, see {@link #geodesicBound(double)}.
+ * The working arrays are reused from query to query, so an instance isn't thread safe.
+ *
+ * @param <N> generic node type
+ * @param <E> generic rib (arc) type
+ */
+public class LandmarkAStar<N, E extends Rib> {
+    public enum LandmarkSelection {
+        /**
+         * Every next landmark is the node which is the farthest from the landmarks chosen before it
+         */
+        FARTHEST,
+        /**
+         * The plane around the geographical centre of the nodes is cut into equal sectors, one per landmark,
+         * and the node of a sector which is the farthest from the centre becomes a landmark. Nodes must be {@link GeoNode}s
+         */
+        PLANAR
+    }
+
+    private final WeightedGraph<N, E> graph;
+    private final CompressedSparseRowGraph<N, WeightedRib> csr;
+    private final int[] landmarks;
+    // distances from landmarks to nodes and from nodes to landmarks, one row per landmark. Both are the same array if the graph is undirected
+    private final double[][] fromLandmarks, toLandmarks;
+    private double unitsPerMeter = .0d;
+
+    private final double[] distances, potentials;
+    private final int[] predecessors;
+    private final boolean[] settled;
+    private final IndexedDaryHeap heap;
+    private final int[] touched;
+    private int touchedCount, settledCount;
+
+    public LandmarkAStar(WeightedGraph<N, E> graph, int landmarkCount) {
+        this(graph, landmarkCount, LandmarkSelection.FARTHEST);
+    }
+
+    /**
+     * @param graph         a graph with non-negative weights. Changes made to the graph after the constructor has run aren't seen by the search
+     * @param landmarkCount amount of landmarks, usually between 4 and 16. Every landmark costs one or two Dijkstra searches and one or two arrays of distances
+     * @param selection     the way to choose landmarks
+     */
+    public LandmarkAStar(WeightedGraph<N, E> graph, int landmarkCount, LandmarkSelection selection) {
+        int nodeCount = graph.getNodeCount();
+        if (landmarkCount < 1 || landmarkCount > nodeCount)
+            throw new IllegalArgumentException("Amount of landmarks must be positive and not greater than amount of nodes. Bad amount was " + landmarkCount);
+        this.graph = graph;
+        this.csr = graph instanceof CompressedSparseRowGraph<?, ?>
+                ? (CompressedSparseRowGraph<N, WeightedRib>) graph : CompressedSparseRowGraph.from(graph);
+        boolean directed = GraphUtil.isDirected(graph);
+        CompressedSparseRowGraph<N, WeightedRib> reverse = csr.reversed();
+        this.landmarks = new int[landmarkCount];
+        this.fromLandmarks = new double[landmarkCount][];
+        this.toLandmarks = new double[landmarkCount][];
+
+        int[] planar = selection == LandmarkSelection.PLANAR ? planarLandmarks(landmarkCount) : new int[0];
+        boolean[] chosen = new boolean[nodeCount];
+        double[] closeness = new double[nodeCount];
+        Arrays.fill(closeness, Double.POSITIVE_INFINITY);
+        for (int l = 0; l < landmarkCount; l++) {
+            int landmark;
+            if (l < planar.length) landmark = planar[l];
+            else if (l == 0) landmark = farthestFrom(distancesFrom(csr, 0));
+            else landmark = farthest(closeness, chosen);
+            landmarks[l] = landmark;
+            chosen[landmark] = true;
+            fromLandmarks[l] = distancesFrom(csr, landmark);
+            toLandmarks[l] = directed ? distancesFrom(reverse, landmark) : fromLandmarks[l];
+            for (int i = 0; i < nodeCount; i++) closeness[i] = Math.min(closeness[i], fromLandmarks[l][i] + toLandmarks[l][i]);
+        }
+
+        this.distances = new double[nodeCount];
+        this.potentials = new double[nodeCount];
+        this.predecessors = new int[nodeCount];
+        this.settled = new boolean[nodeCount];
+        this.heap = new IndexedDaryHeap(nodeCount);
+        this.touched = new int[nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, -1);
+    }
+
+    /**
+     * The method makes the heuristic take the geodesic distance between a node and the target into account. The distance is a haversine one,
+     * cut by {@link GeoDistances#HAVERSINE_ERROR} so it never exceeds the distance of {@link algos.geo.Vincenty}, and it's many times cheaper.
+     * It stays admissible only if no rib is lighter than the geodesic distance between its ends multiplied by the factor,
+     * e.g. weights are road lengths in meters and the factor is 1, or weights are road lengths in kilometers and the factor is 0.001
+     *
+     * @param unitsPerMeter weight units per meter of the geodesic distance, 0 turns the geodesic bound off
+     * @return this search
+     */
+    public LandmarkAStar<N, E> geodesicBound(double unitsPerMeter) {
+        if (unitsPerMeter < .0d) throw new IllegalArgumentException("The factor mustn't be negative. Bad factor was " + unitsPerMeter);
+        if (unitsPerMeter > .0d)
+            for (int i = 0; i < csr.getNodeCount(); i++)
+                if (!(csr.nodeAt(i) instanceof GeoNode))
+                    throw new IllegalArgumentException("The geodesic bound needs nodes with coordinates, but " + csr.nodeAt(i) + " has none");
+        this.unitsPerMeter = unitsPerMeter;
+        return this;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * @return amount of nodes the last query has settled
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * @return a lower bound of the distance between two nodes, which the search uses as its heuristic
+     */
+    public double lowerBound(int from, int to) {
+        double bound = .0d;
+        for (int l = 0; l < landmarks.length; l++) {
+            bound = Math.max(bound, difference(fromLandmarks[l][to], fromLandmarks[l][from]));
+            bound = Math.max(bound, difference(toLandmarks[l][from], toLandmarks[l][to]));
+        }
+        if (unitsPerMeter > .0d) {
+            GeoNode a = (GeoNode) csr.nodeAt(from), b = (GeoNode) csr.nodeAt(to);
+            bound = Math.max(bound, unitsPerMeter * (1 - GeoDistances.HAVERSINE_ERROR) * GeoDistances.haversine(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude()));
+        }
+        return bound;
+    }
+
+    public GraphUtil.DijkstraResult<E> query(N source, N target) {
+        return query(graph.indexOf(source), graph.indexOf(target));
+    }
+
+    /**
+     * The method returns the shortest path in the same shape {@link GraphUtil#dijkstra(Object, WeightedGraph)} does.
+     * The path map holds the path nodes only. Distances of the settled nodes are exact, other nodes the search has reached keep their labels,
+     * and the nodes it has never reached have an infinite distance.
+     *
+     * @param source index of the source node
+     * @param target index of the target node
+     * @return the shortest path from the source to the target, the path map is empty if there is no such path
+     */
+    public GraphUtil.DijkstraResult<E> query(int source, int target) {
+        search(source, target);
+        HashMap<Integer, E> pathMap = new HashMap<>();
+        if (settled[target])
+            for (int node = target; node != source; node = predecessors[node])
+                pathMap.put(node, GraphUtil.ribBetween(graph, predecessors[node], node));
+        return new GraphUtil.DijkstraResult<>(distances.clone(), pathMap);
+    }
+
+    /**
+     * @return the shortest distance from the source to the target, or infinity if the target can't be reached
+     */
+    public double distance(int source, int target) {
+        search(source, target);
+        return distances[target];
+    }
+
+    private void search(int source, int target) {
+        int nodeCount = csr.getNodeCount();
+        if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount)
+            throw new IllegalArgumentException("Both source and target must be indices of nodes of the graph. Bad indices were " + source + " and " + target);
+        reset();
+        int[] offsets = csr.getOffsets(), targets = csr.getTargets();
+        double[] weights = csr.getWeights();
+        touched[touchedCount++] = source;
+        distances[source] = .0d;
+        potentials[source] = lowerBound(source, target);
+        heap.insert(source, potentials[source]);
+
+        while (!heap.isEmpty()) {
+            int node = heap.pollMin();
+            settled[node] = true;
+            settledCount++;
+            if (node == target) return;
+            double nodeDistance = distances[node];
+            for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+                int to = targets[k];
+                if (settled[to]) continue;
+                double pathWeight = nodeDistance + weights[k];
+                if (distances[to] == Double.POSITIVE_INFINITY) {
+                    touched[touchedCount++] = to;
+                    potentials[to] = lowerBound(to, target);
+                } else if (pathWeight >= distances[to]) continue;
+                distances[to] = pathWeight;
+                predecessors[to] = node;
+                // an infinite potential means the target can't be reached from there
+                if (potentials[to] != Double.POSITIVE_INFINITY) heap.insertOrDecrease(to, pathWeight + potentials[to]);
+            }
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int node = touched[i];
+            distances[node] = Double.POSITIVE_INFINITY;
+            predecessors[node] = -1;
+            settled[node] = false;
+        }
+        touchedCount = 0;
+        settledCount = 0;
+        heap.clear();
+    }
+
+    /**
+     * The difference of two landmark distances, where an infinite minuend and a finite subtrahend mean there's no path at all,
+     * and an infinite subtrahend means the landmark tells nothing
+     */
+    private static double difference(double minuend, double subtrahend) {
+        if (subtrahend == Double.POSITIVE_INFINITY) return .0d;
+        return minuend - subtrahend;
+    }
+
+    private static <N> double[] distancesFrom(CompressedSparseRowGraph<N, WeightedRib> graph, int index) {
+        GraphUtil.DijkstraResult<WeightedRib> result = GraphUtil.dijkstra(graph.nodeAt(index), graph);
+        double[] distances = result.distances;
+        // GraphUtil.dijkstra leaves distances of unreachable nodes at zero
+        Map<Integer, WeightedRib> pathMap = result.pathMap;
+        for (int i = 0; i < distances.length; i++)
+            if (i != index && !pathMap.containsKey(i)) distances[i] = Double.POSITIVE_INFINITY;
+        return distances;
+    }
+
+    private static int farthestFrom(double[] distances) {
+        int farthest = 0;
+        for (int i = 1; i < distances.length; i++)
+            if (distances[i] != Double.POSITIVE_INFINITY && distances[i] > distances[farthest]) farthest = i;
+        return farthest;
+    }
+
+    private static int farthest(double[] closeness, boolean[] chosen) {
+        int farthest = -1;
+        for (int i = 0; i < closeness.length; i++)
+            if (!chosen[i] && (farthest == -1 || closeness[i] > closeness[farthest])) farthest = i;
+        return farthest;
+    }
+
+    private int[] planarLandmarks(int landmarkCount) {
+        int nodeCount = csr.getNodeCount();
+        double[] latitudes = new double[nodeCount], longitudes = new double[nodeCount];
+        double centreLatitude = .0d, centreLongitude = .0d;
+        for (int i = 0; i < nodeCount; i++) {
+            if (!(csr.nodeAt(i) instanceof GeoNode node))
+                throw new IllegalArgumentException("Planar landmark selection needs nodes with coordinates, but " + csr.nodeAt(i) + " has none");
+            latitudes[i] = node.getLatitude();
+            longitudes[i] = node.getLongitude();
+            centreLatitude += latitudes[i] / nodeCount;
+            centreLongitude += longitudes[i] / nodeCount;
+        }
+        double scale = Math.cos(Math.toRadians(centreLatitude));
+        int[] farthest = new int[landmarkCount];
+        double[] radii = new double[landmarkCount];
+        Arrays.fill(farthest, -1);
+        for (int i = 0; i < nodeCount; i++) {
+            double x = (longitudes[i] - centreLongitude) * scale, y = latitudes[i] - centreLatitude;
+            int sector = (int) ((Math.atan2(y, x) + Math.PI) / (2 * Math.PI) * landmarkCount) % landmarkCount;
+            double radius = x * x + y * y;
+            if (farthest[sector] == -1 || radius > radii[sector]) {
+                farthest[sector] = i;
+                radii[sector] = radius;
+            }
+        }
+        // empty sectors are left to the farthest point selection
+        return Arrays.stream(farthest).filter(i -> i != -1).toArray();
+    }
+}
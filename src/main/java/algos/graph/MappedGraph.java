@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.IntDoubleConsumer;
+import algos.graph.objects.WeightedGraph;
+import algos.graph.objects.WeightedRib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read only weighted graph served straight from a memory mapped {@link GraphFile}.
+ * Opening it reads the header and maps the sections, nothing more, so it takes the same time whatever the size of the graph,
+ * and the pages are loaded by the OS as the queries touch them. Processes which map the same file share those pages.
+ * <p>
+ * A node object is decoded from its label the first time it's asked for and kept afterwards.
+ * The index of labels, which {@link #indexOf(Object)} needs, is built by the first call of it, in O(V) time.
+ * Queries may run concurrently. The mapping is released once the graph is garbage collected.
+ * <p>
+ * The graph is directed if the file says so, and it isn't a {@link algos.graph.objects.DirectedGraph} either way:
+ * its direction is told by {@link #isDirected()}, or by {@link GraphUtil#isDirected(Graph)} along with other graphs.
+ *
+ * @param <N> generic node type
+ */
+public class MappedGraph<N> implements WeightedGraph<N, WeightedRib> {
+    private final GraphFile.NodeCodec<N> codec;
+    private final int nodeCount;
+    private final int entryCount;
+    private final boolean directed;
+    private final IntBuffer labelOffsets;
+    private final ByteBuffer labels;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+    private final AtomicReferenceArray<N> nodes;
+    private volatile Map<String, Integer> indices;
+
+    private MappedGraph(GraphFile.NodeCodec<N> codec, int nodeCount, int entryCount, boolean directed,
+                        IntBuffer labelOffsets, ByteBuffer labels, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights) {
+        this.codec = codec;
+        this.nodeCount = nodeCount;
+        this.entryCount = entryCount;
+        this.directed = directed;
+        this.labelOffsets = labelOffsets;
+        this.labels = labels;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nodes = new AtomicReferenceArray<>(nodeCount);
+    }
+
+    /**
+     * The header has to give the sections the very positions {@link GraphFile#write} puts them at,
+     * and the offsets of the labels and of the ribs have to be in order, or the file is reported as corrupt by an IOException.
+     * The targets aren't checked, since that would read the whole file before any query.
+     *
+     * @param file  a file written by {@link GraphFile#write}
+     * @param codec turns the labels back into nodes, the same way the writer has turned the nodes into labels
+     * @param <N>   generic node type
+     * @return the graph, mapped into memory
+     */
+    public static <N> MappedGraph<N> open(Path file, GraphFile.NodeCodec<N> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(GraphFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) if (channel.read(header, header.position()) < 0) break;
+            header.flip();
+            if (header.remaining() < Integer.BYTES || header.getInt() != GraphFile.MAGIC)
+                throw new IOException("The file " + file + " doesn't contain a graph");
+            int version = header.getInt();
+            if (version != GraphFile.VERSION) throw new IOException("Unsupported graph file version " + version);
+            if (header.remaining() < GraphFile.HEADER_SIZE - 2 * Integer.BYTES) throw new IOException("The file " + file + " is truncated");
+            int flags = header.getInt();
+            int n = header.getInt();
+            long m = header.getLong(), labelBytes = header.getLong();
+            long[] positions = {header.getLong(), header.getLong(), header.getLong(), header.getLong()};
+            if (n < 0 || m < 0 || m > Integer.MAX_VALUE || labelBytes < 0 || labelBytes > Integer.MAX_VALUE
+                    || !Arrays.equals(positions, GraphFile.positions(n, m, labelBytes)))
+                throw new IOException("The file " + file + " has a corrupt header");
+            long tablePosition = positions[0], offsetsPosition = positions[1], targetsPosition = positions[2], weightsPosition = positions[3];
+            if (channel.size() < weightsPosition + Double.BYTES * m) throw new IOException("The file " + file + " is truncated");
+
+            IntBuffer labelOffsets = map(channel, tablePosition, Integer.BYTES * (n + 1L)).asIntBuffer();
+            if (!ascending(labelOffsets, labelBytes)) throw new IOException("The file " + file + " has corrupt label offsets");
+            IntBuffer offsets = map(channel, offsetsPosition, Integer.BYTES * (n + 1L)).asIntBuffer();
+            if (!ascending(offsets, m)) throw new IOException("The file " + file + " has corrupt offsets");
+            return new MappedGraph<>(codec, n, (int) m, (flags & GraphFile.DIRECTED) != 0,
+                    labelOffsets,
+                    map(channel, tablePosition + Integer.BYTES * (n + 1L), labelBytes),
+                    offsets,
+                    map(channel, targetsPosition, Integer.BYTES * m).asIntBuffer(),
+                    map(channel, weightsPosition, Double.BYTES * m).asDoubleBuffer());
+        }
+    }
+
+    /**
+     * @return true if the offsets start at zero, never decrease and end at the given size, so every range they cut lies within the section
+     */
+    private static boolean ascending(IntBuffer offsets, long size) {
+        if (offsets.get(0) != 0) return false;
+        int previous = 0;
+        for (int i = 1; i < offsets.limit(); i++) {
+            int offset = offsets.get(i);
+            if (offset < previous) return false;
+            previous = offset;
+        }
+        return previous == size;
+    }
+
+    /**
+     * Every section is mapped on its own, since a single mapping can't exceed 2 GB
+     */
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IOException("A section of " + size + " bytes is too large to be mapped");
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int degreeOf(int index) {
+        return offsets.get(index + 1) - offsets.get(index);
+    }
+
+    /**
+     * @return the label the node is stored by
+     */
+    public String labelAt(int index) {
+        int from = labelOffsets.get(index);
+        byte[] bytes = new byte[labelOffsets.get(index + 1) - from];
+        labels.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int getRibCount() {
+        return directed ? entryCount : entryCount / 2;
+    }
+
+    /**
+     * @return always zero, since the graph can't be modified
+     */
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    @Override
+    public N nodeAt(int index) {
+        N node = nodes.get(index);
+        if (Objects.isNull(node)) {
+            nodes.compareAndSet(index, null, codec.decode(labelAt(index)));
+            node = nodes.get(index);
+        }
+        return node;
+    }
+
+    @Override
+    public int indexOf(N node) {
+        Map<String, Integer> map = indices;
+        if (Objects.isNull(map)) {
+            synchronized (this) {
+                map = indices;
+                if (Objects.isNull(map)) {
+                    map = new HashMap<>(nodeCount * 4 / 3 + 1);
+                    for (int i = 0; i < nodeCount; i++) map.putIfAbsent(labelAt(i), i);
+                    indices = map;
+                }
+            }
+        }
+        Integer index = map.get(codec.encode(node));
+        return Objects.isNull(index) ? -1 : index;
+    }
+
+    @Override
+    public Set<N> successorsOf(N node) {
+        return successorsOf(indexOf(node));
+    }
+
+    @Override
+    public Set<N> successorsOf(int index) {
+        Set<N> successors = new HashSet<>();
+        for (int k = offsets.get(index), end = offsets.get(index + 1); k < end; k++) successors.add(nodeAt(targets.get(k)));
+        return successors;
+    }
+
+    @Override
+    public Set<WeightedRib> ribsOf(N node) {
+        return ribsOf(indexOf(node));
+    }
+
+    /**
+     * Ribs are equal if their ends are, so of a few parallel ribs the set keeps the lightest one
+     */
+    @Override
+    public Set<WeightedRib> ribsOf(int index) {
+        Map<Integer, WeightedRib> lightest = new HashMap<>();
+        for (int k = offsets.get(index), end = offsets.get(index + 1); k < end; k++)
+            lightest.merge(targets.get(k), new WeightedRib(index, targets.get(k), weights.get(k)), (one, two) -> one.weight <= two.weight ? one : two);
+        return new HashSet<>(lightest.values());
+    }
+
+    @Override
+    public void connectNodes(N from, N to) {
+        connectNodes(indexOf(from), indexOf(to));
+    }
+
+    @Override
+    public void connectNodes(int from, int to) {
+        throw new UnsupportedOperationException("A mapped graph is read only. Write a new graph file instead.");
+    }
+
+    @Override
+    public void connectNodes(N from, N to, double weight) {
+        connectNodes(indexOf(from), indexOf(to), weight);
+    }
+
+    @Override
+    public void connectNodes(int from, int to, double weight) {
+        throw new UnsupportedOperationException("A mapped graph is read only. Write a new graph file instead.");
+    }
+
+    @Override
+    public void disconnectNodes(N from, N to) {
+        disconnectNodes(indexOf(from), indexOf(to));
+    }
+
+    @Override
+    public void disconnectNodes(int from, int to) {
+        throw new UnsupportedOperationException("A mapped graph is read only. Write a new graph file instead.");
+    }
+
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        for (int k = offsets.get(index), end = offsets.get(index + 1); k < end; k++) consumer.accept(targets.get(k), weights.get(k));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nodeCount; i++) {
+            sb.append(nodeAt(i)).append(" >>> ");
+            for (int k = offsets.get(i); k < offsets.get(i + 1); k++)
+                sb.append(nodeAt(targets.get(k))).append("(").append(weights.get(k)).append("); ");
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.Graph;
+import algos.graph.objects.Rib;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Level synchronous parallel breadth first search. The frontier of a level is an array of node indices, cut into chunks
+ * which are expanded in parallel on a fork/join pool. A node is claimed by the first task which sets its bit
+ * in an atomic bitmap of visited nodes, so every node gets exactly one depth and one parent without any locks.
+ * Every chunk collects the nodes it has claimed into a buffer of its own, and the buffers are concatenated
+ * into the next frontier once the level is over.
+ * <p>
+ * The graph is copied into the compressed sparse row layout once, in the constructor, unless it's laid out so already,
+ * so changes made to the graph later aren't seen by the search. Searches may run concurrently.
+ *
+ * @param <N> generic node type
+ */
+public class ParallelBfs<N> {
+    private static final int GRAIN = 256;
+
+    private final Graph<N, ? extends Rib> graph;
+    private final int nodeCount;
+    private final int[] offsets, targets;
+    private final ForkJoinPool pool;
+
+    public ParallelBfs(Graph<N, ? extends Rib> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph the graph to search, directed or not
+     * @param pool  the pool to expand the frontiers on
+     */
+    public ParallelBfs(Graph<N, ? extends Rib> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        CompressedSparseRowGraph<N, ?> csr = graph instanceof CompressedSparseRowGraph<N, ?> compressed ? compressed : CompressedSparseRowGraph.from(graph);
+        this.nodeCount = csr.getNodeCount();
+        this.offsets = csr.getOffsets();
+        this.targets = csr.getTargets();
+    }
+
+    public Result search(N source) {
+        return search(graph.indexOf(source));
+    }
+
+    /**
+     * @param source index of the node to start from
+     * @return depths and parents of all the nodes, along with the size and the time of every level
+     */
+    public Result search(int source) {
+        int n = nodeCount;
+        if (source < 0 || source >= n)
+            throw new IllegalArgumentException("Source must be an index of a node of the graph. Bad index was " + source);
+        int[] depths = new int[n], parents = new int[n];
+        Arrays.fill(depths, -1);
+        Arrays.fill(parents, -1);
+        AtomicLongArray visited = new AtomicLongArray((n + 63) >>> 6);
+        visited.set(source >>> 6, 1L << source);
+        depths[source] = 0;
+
+        int[] frontier = {source};
+        int[] levelSizes = new int[16];
+        long[] levelNanos = new long[16];
+        int levels = 0;
+        while (frontier.length > 0) {
+            long start = System.nanoTime();
+            int depth = levels + 1;
+            int[] current = frontier;
+            int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, (current.length + GRAIN - 1) / GRAIN));
+            int[][] buffers = new int[chunks][];
+            int[] sizes = new int[chunks];
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int from = (int) ((long) current.length * chunk / chunks), to = (int) ((long) current.length * (chunk + 1) / chunks);
+                int[] buffer = new int[Math.max(16, to - from)];
+                int size = 0;
+                for (int i = from; i < to; i++) {
+                    int u = current[i];
+                    for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                        int v = targets[k];
+                        if (!claim(visited, v)) continue;
+                        depths[v] = depth;
+                        parents[v] = u;
+                        if (size == buffer.length) buffer = Arrays.copyOf(buffer, size << 1);
+                        buffer[size++] = v;
+                    }
+                }
+                buffers[chunk] = buffer;
+                sizes[chunk] = size;
+            })).join();
+
+            int total = 0;
+            for (int size : sizes) total += size;
+            frontier = new int[total];
+            for (int chunk = 0, position = 0; chunk < chunks; position += sizes[chunk], chunk++)
+                System.arraycopy(buffers[chunk], 0, frontier, position, sizes[chunk]);
+
+            if (levels == levelSizes.length) {
+                levelSizes = Arrays.copyOf(levelSizes, levels << 1);
+                levelNanos = Arrays.copyOf(levelNanos, levels << 1);
+            }
+            levelSizes[levels] = current.length;
+            levelNanos[levels] = System.nanoTime() - start;
+            levels++;
+        }
+        return new Result(source, depths, parents, Arrays.copyOf(levelSizes, levels), Arrays.copyOf(levelNanos, levels));
+    }
+
+    /**
+     * @return true if the node hadn't been visited and the calling task is the one which has marked it
+     */
+    private static boolean claim(AtomicLongArray visited, int node) {
+        int word = node >>> 6;
+        long bit = 1L << node;
+        for (long old = visited.get(word); (old & bit) == 0; old = visited.get(word))
+            if (visited.compareAndSet(word, old, old | bit)) return true;
+        return false;
+    }
+
+    /**
+     * Depths and parents of the nodes, and a breakdown of the search by level: level i expands the nodes of depth i
+     */
+    public static class Result extends GraphUtil.BfsResult {
+        /**
+         * amount of nodes in the frontier of every level
+         */
+        public final int[] levelSizes;
+        /**
+         * time every level took, in nanoseconds, the merge of its buffers included
+         */
+        public final long[] levelNanos;
+
+        public Result(int source, int[] depths, int[] parents, int[] levelSizes, long[] levelNanos) {
+            super(source, depths, parents);
+            this.levelSizes = levelSizes;
+            this.levelNanos = levelNanos;
+        }
+
+        public int getLevelCount() {
+            return levelSizes.length;
+        }
+    }
+}
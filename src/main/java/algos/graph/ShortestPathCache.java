@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.WeightedGraph;
+import algos.graph.objects.WeightedRib;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of {@link GraphUtil#dijkstra(Object, WeightedGraph)} results for a graph which changes rarely.
+ * Whole results are cached per source node, and single paths per pair of source and target nodes.
+ * Both kinds of entries share the same capacity and are evicted in the least recently used order.
+ * <p>
+ * The cache remembers the {@link algos.graph.objects.Graph#getModificationCount() modification count} of the graph
+ * and drops all of its entries as soon as the count changes, so results are never stale as long as the graph is changed
+ * through its own methods (and not, say, through the array returned by {@code getAdjacencyMatrixWeighted()}).
+ * <p>
+ * The cache is thread safe. The lock is held only to look up and store entries, not while Dijkstra algorithm runs,
+ * so two threads which miss the same key at the same time may both compute it. A result computed for a graph
+ * which changed in the meantime isn't stored. The modification count only grows, so a thread which read it
+before a change that another thread has already seen misses rather than drops the newer entries. Cached results are shared, so callers mustn't modify them.
+ *
+ * @param <N> generic node type
+ * @param <T> generic rib type
+ * @param <G> generic graph implementation type
+ */
+public class ShortestPathCache<N, T extends WeightedRib, G extends WeightedGraph<N, T>> {
+    private final G graph;
+    private final int capacity;
+    private final LinkedHashMap<Key, Object> entries;
+    private long modificationCount;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder(), invalidations = new LongAdder();
+
+    /**
+     * @param graph    the graph to cache results for
+     * @param capacity greatest amount of entries, of both kinds together
+     */
+    public ShortestPathCache(G graph, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity of a cache must be positive. Bad capacity was " + capacity);
+        this.graph = graph;
+        this.capacity = capacity;
+        this.modificationCount = graph.getModificationCount();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() <= ShortestPathCache.this.capacity) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the cached or freshly calculated shortest distances and paths from the root node
+     */
+    public GraphUtil.DijkstraResult<T> dijkstra(N root) {
+        int source = graph.indexOf(root);
+        if (source == -1) throw new IllegalArgumentException("The node " + root + " doesn't belong to the graph");
+        return tree(root, source, graph.getModificationCount(), true);
+    }
+
+    /**
+     * @param counted whether the look-up goes into the stats, it doesn't when a path has missed and looks for its tree
+     */
+    @SuppressWarnings("unchecked")
+    private GraphUtil.DijkstraResult<T> tree(N root, int source, long version, boolean counted) {
+        Key key = new Key(source, -1);
+        Object cached = lookUp(key, version, counted);
+        if (cached != null) return (GraphUtil.DijkstraResult<T>) cached;
+        GraphUtil.DijkstraResult<T> result = GraphUtil.dijkstra(root, graph);
+        store(key, result, version);
+        return result;
+    }
+
+    /**
+     * @return the cached or freshly calculated shortest path from the source to the target, empty if there is no such path
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> path(N source, N target) {
+        int from = graph.indexOf(source), to = graph.indexOf(target);
+        if (from == -1 || to == -1) throw new IllegalArgumentException("Both nodes must belong to the graph. Bad nodes were " + source + " and " + target);
+        Key key = new Key(from, to);
+        long version = graph.getModificationCount();
+        Object cached = lookUp(key, version, true);
+        if (cached != null) return (List<T>) cached;
+        GraphUtil.DijkstraResult<T> result = tree(source, from, version, false);
+        List<T> path = from == to || !result.pathMap.containsKey(to) ? List.of() : List.copyOf(GraphUtil.pathMapToPathList(from, to, result.pathMap));
+        store(key, path, version);
+        return path;
+    }
+
+    /**
+     * @return the shortest distance from the source to the target, zero if there is no path, as {@link GraphUtil#dijkstra(Object, WeightedGraph)} has it
+     */
+    public double distance(N source, N target) {
+        return dijkstra(source).distances[graph.indexOf(target)];
+    }
+
+    private synchronized Object lookUp(Key key, long version, boolean counted) {
+        if (version > modificationCount) {
+            if (!entries.isEmpty()) invalidations.increment();
+            entries.clear();
+            modificationCount = version;
+        }
+        // a caller which read the count before a later change has already been seen gets a miss and leaves newer entries be
+        Object cached = version == modificationCount ? entries.get(key) : null;
+        if (!counted) return cached;
+        if (cached != null) hits.increment();
+        else misses.increment();
+        return cached;
+    }
+
+    private synchronized void store(Key key, Object value, long version) {
+        if (version == modificationCount && version == graph.getModificationCount()) entries.put(key, value);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    /**
+     * @param hits          amount of look-ups which found an entry
+     * @param misses        amount of look-ups which had to calculate the result
+     * @param evictions     amount of entries dropped to keep the cache within its capacity
+     * @param invalidations amount of times the whole cache was dropped because the graph had changed
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations) {
+        public double hitRate() {
+            long lookUps = hits + misses;
+            return lookUps == 0 ? .0d : (double) hits / lookUps;
+        }
+    }
+
+    /**
+     * A target of -1 stands for the whole result of the source
+     */
+    private record Key(int source, int target) {
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.geo.GeoDistances;
+import algos.graph.objects.GeoNode;
+import algos.graph.objects.Graph;
+import algos.graph.objects.WeightedRib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A k-d tree over nodes which have coordinates, for snapping a location to the nearest nodes and for finding the nodes around it.
+ * A node is put into the tree as a point of the unit sphere in three dimensional Cartesian coordinates, so the tree knows nothing
+ * of the antimeridian or of the poles, and the straight line distance between two points grows with the great circle distance between them.
+ * The tree is implicit: the points are sorted in place so that the median of every range splits it along the axis of its greatest spread,
+ * and small ranges are scanned as a whole. A nearest node is found in O(log n) time on average.
+ * <p>
+ * Distances are great circle distances over a sphere of the mean radius of the Earth, in meters. They differ from the ellipsoidal
+ * distances of {@link algos.geo.Vincenty} by {@link GeoDistances#HAVERSINE_ERROR} at most, so two nodes of nearly the same distance may be ranked otherwise by Vincenty.
+ * The index is immutable, and queries may run concurrently.
+ *
+ * @param <N> generic node type
+ */
+public class SpatialIndex<N extends GeoNode> {
+    public static final double EARTH_RADIUS = GeoDistances.EARTH_RADIUS;
+    private static final int LEAF = 8;
+
+    private final List<N> nodes;
+    private final int[] indices;
+    private final double[] xs, ys, zs;
+    private final byte[] axes;
+
+    /**
+     * @param nodes the nodes to index, they are known by their positions in the list
+     */
+    public SpatialIndex(List<N> nodes) {
+        this.nodes = new ArrayList<>(nodes);
+        int n = nodes.size();
+        this.indices = new int[n];
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.zs = new double[n];
+        this.axes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            N node = nodes.get(i);
+            double latitude = Math.toRadians(node.getLatitude()), longitude = Math.toRadians(node.getLongitude());
+            indices[i] = i;
+            xs[i] = Math.cos(latitude) * Math.cos(longitude);
+            ys[i] = Math.cos(latitude) * Math.sin(longitude);
+            zs[i] = Math.sin(latitude);
+        }
+        build(0, n);
+    }
+
+    /**
+     * @return an index over the nodes of the graph, which knows them by their indices in the graph
+     */
+    public static <N extends GeoNode> SpatialIndex<N> of(Graph<N, ?> graph) {
+        List<N> nodes = new ArrayList<>(graph.getNodeCount());
+        for (int i = 0; i < graph.getNodeCount(); i++) nodes.add(graph.nodeAt(i));
+        return new SpatialIndex<>(nodes);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public N nodeAt(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * @return the node nearest to the location, or null if the index is empty
+     */
+    public N nearestNode(double latitude, double longitude) {
+        int index = nearest(latitude, longitude);
+        return index == -1 ? null : nodes.get(index);
+    }
+
+    /**
+     * @return index of the node nearest to the location, -1 if the index is empty
+     */
+    public int nearest(double latitude, double longitude) {
+        Neighbors neighbors = nearest(latitude, longitude, 1);
+        return neighbors.size() == 0 ? -1 : neighbors.indices[0];
+    }
+
+    /**
+     * @return at most k nodes nearest to the location, the nearest first
+     */
+    public Neighbors nearest(double latitude, double longitude, int k) {
+        if (k < 0) throw new IllegalArgumentException("Amount of neighbours must not be negative. Bad amount was " + k);
+        double lat = Math.toRadians(latitude), lon = Math.toRadians(longitude);
+        Search search = new Search(Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat), Math.min(k, size()), -1);
+        search.nearest(0, size());
+        return search.neighbors();
+    }
+
+    /**
+     * @param meters radius of the circle around the location
+     * @return all the nodes within the circle, the nearest first
+     */
+    public Neighbors withinRadius(double latitude, double longitude, double meters) {
+        if (!(meters >= 0)) throw new IllegalArgumentException("Radius must not be negative. Bad radius was " + meters);
+        double chord = chordOf(meters);
+        double lat = Math.toRadians(latitude), lon = Math.toRadians(longitude);
+        Search search = new Search(Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat), 0, -1);
+        search.within(0, size(), chord * chord);
+        return search.neighbors();
+    }
+
+    /**
+     * The method links every node to its k nearest nodes by arcs, weighted by distances in meters.
+     * The searches of the nodes run in parallel.
+     *
+     * @param k    amount of neighbours of every node, the node itself not counted
+     * @param pool the pool to run the searches on
+     * @return the directed graph of k nearest neighbours: a node needn't be a neighbour of its neighbours
+     */
+    public CompressedSparseRowGraph<N, WeightedRib> nearestNeighborGraph(int k, ForkJoinPool pool) {
+        if (k < 0) throw new IllegalArgumentException("Amount of neighbours must not be negative. Bad amount was " + k);
+        int n = size(), degree = Math.min(k, Math.max(0, n - 1));
+        int ribCount = Math.multiplyExact(n, degree);
+        int[] from = new int[ribCount], to = new int[ribCount];
+        double[] weights = new double[ribCount];
+        double[] x = new double[n], y = new double[n], z = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[indices[i]] = xs[i];
+            y[indices[i]] = ys[i];
+            z[indices[i]] = zs[i];
+        }
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(node -> {
+            Search search = new Search(x[node], y[node], z[node], degree, node);
+            search.nearest(0, n);
+            Neighbors neighbors = search.neighbors();
+            for (int j = 0; j < degree; j++) {
+                from[node * degree + j] = node;
+                to[node * degree + j] = neighbors.indices[j];
+                weights[node * degree + j] = neighbors.distances[j];
+            }
+        })).join();
+        return new CompressedSparseRowGraph.Builder<>(nodes, true).addRibs(from, to, weights).build();
+    }
+
+    public CompressedSparseRowGraph<N, WeightedRib> nearestNeighborGraph(int k) {
+        return nearestNeighborGraph(k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return length of the chord of the unit sphere which spans the given great circle distance
+     */
+    private static double chordOf(double meters) {
+        return 2 * Math.sin(Math.min(meters / EARTH_RADIUS, Math.PI) / 2);
+    }
+
+    private static double metersOf(double squaredChord) {
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1.0d, Math.sqrt(squaredChord) / 2));
+    }
+
+    /**
+     * Sorts the range so that its median splits it along the axis of the greatest spread, and the halves recursively
+     */
+    private void build(int from, int to) {
+        while (to - from > LEAF) {
+            double minX = Double.POSITIVE_INFINITY, minY = minX, minZ = minX, maxX = Double.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+            for (int i = from; i < to; i++) {
+                minX = Math.min(minX, xs[i]);
+                maxX = Math.max(maxX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxY = Math.max(maxY, ys[i]);
+                minZ = Math.min(minZ, zs[i]);
+                maxZ = Math.max(maxZ, zs[i]);
+            }
+            double spreadX = maxX - minX, spreadY = maxY - minY, spreadZ = maxZ - minZ;
+            byte axis = spreadX >= spreadY && spreadX >= spreadZ ? (byte) 0 : spreadY >= spreadZ ? (byte) 1 : (byte) 2;
+            int median = (from + to) >>> 1;
+            select(from, to - 1, median, axis);
+            axes[median] = axis;
+            build(from, median);
+            from = median + 1;
+        }
+    }
+
+    private double[] coordinates(int axis) {
+        return axis == 0 ? xs : axis == 1 ? ys : zs;
+    }
+
+    /**
+     * Quickselect: puts the k-th smallest point of the range along the axis at position k,
+     * the smaller ones before it and the greater ones after it
+     */
+    private void select(int left, int right, int k, int axis) {
+        double[] values = coordinates(axis);
+        while (right > left) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left, j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+        double x = xs[i], y = ys[i], z = zs[i];
+        xs[i] = xs[j];
+        ys[i] = ys[j];
+        zs[i] = zs[j];
+        xs[j] = x;
+        ys[j] = y;
+        zs[j] = z;
+    }
+
+    /**
+     * Nodes found by a query and their distances in meters, the nearest first
+     */
+    public static final class Neighbors {
+        public final int[] indices;
+        public final double[] distances;
+
+        public Neighbors(int[] indices, double[] distances) {
+            this.indices = indices;
+            this.distances = distances;
+        }
+
+        public int size() {
+            return indices.length;
+        }
+    }
+
+    /**
+     * A single query. Found points are kept in a max-heap of squared chords, bounded by k for a nearest neighbour query
+     * and growing for a radius query
+     */
+    private final class Search {
+        private final double x, y, z;
+        private final int k, excluded;
+        private int[] found;
+        private double[] squares;
+        private int size;
+
+        private Search(double x, double y, double z, int k, int excluded) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.k = k;
+            this.excluded = excluded;
+            this.found = new int[Math.max(k, 16)];
+            this.squares = new double[found.length];
+        }
+
+        private double squareOf(int i) {
+            double dx = xs[i] - x, dy = ys[i] - y, dz = zs[i] - z;
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        private double coordinate(int axis) {
+            return axis == 0 ? x : axis == 1 ? y : z;
+        }
+
+        private void nearest(int from, int to) {
+            if (k == 0 || from >= to) return;
+            if (to - from <= LEAF) {
+                for (int i = from; i < to; i++) offer(i, squareOf(i));
+                return;
+            }
+            int median = (from + to) >>> 1, axis = axes[median];
+            double difference = coordinate(axis) - coordinates(axis)[median];
+            offer(median, squareOf(median));
+            if (difference < 0) {
+                nearest(from, median);
+                if (size < k || difference * difference < squares[0]) nearest(median + 1, to);
+            } else {
+                nearest(median + 1, to);
+                if (size < k || difference * difference < squares[0]) nearest(from, median);
+            }
+        }
+
+        private void offer(int i, double square) {
+            if (indices[i] == excluded) return;
+            if (size < k) {
+                found[size] = indices[i];
+                squares[size] = square;
+                siftUp(size++);
+            } else if (square < squares[0]) {
+                found[0] = indices[i];
+                squares[0] = square;
+                siftDown(0);
+            }
+        }
+
+        private void within(int from, int to, double radiusSquare) {
+            if (from >= to) return;
+            if (to - from <= LEAF) {
+                for (int i = from; i < to; i++) add(i, radiusSquare);
+                return;
+            }
+            int median = (from + to) >>> 1, axis = axes[median];
+            double difference = coordinate(axis) - coordinates(axis)[median];
+            add(median, radiusSquare);
+            if (difference <= 0 || difference * difference <= radiusSquare) within(from, median, radiusSquare);
+            if (difference >= 0 || difference * difference <= radiusSquare) within(median + 1, to, radiusSquare);
+        }
+
+        private void add(int i, double radiusSquare) {
+            double square = squareOf(i);
+            if (square > radiusSquare) return;
+            if (size == found.length) {
+                found = Arrays.copyOf(found, size << 1);
+                squares = Arrays.copyOf(squares, size << 1);
+            }
+            found[size] = indices[i];
+            squares[size] = square;
+            siftUp(size++);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (squares[parent] >= squares[i]) return;
+                exchange(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            for (int child = 2 * i + 1; child < size; i = child, child = 2 * i + 1) {
+                if (child + 1 < size && squares[child + 1] > squares[child]) child++;
+                if (squares[i] >= squares[child]) return;
+                exchange(i, child);
+            }
+        }
+
+        private void exchange(int i, int j) {
+            int index = found[i];
+            found[i] = found[j];
+            found[j] = index;
+            double square = squares[i];
+            squares[i] = squares[j];
+            squares[j] = square;
+        }
+
+        /**
+         * Empties the heap from the farthest point on, which leaves the points in ascending order of distance
+         */
+        private Neighbors neighbors() {
+            int count = size;
+            int[] resultIndices = new int[count];
+            double[] distances = new double[count];
+            for (int i = count - 1; i >= 0; i--) {
+                resultIndices[i] = found[0];
+                distances[i] = metersOf(squares[0]);
+                exchange(0, --size);
+                siftDown(0);
+            }
+            return new Neighbors(resultIndices, distances);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.Graph;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedRib;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Strongly connected components of a graph by Tarjan's algorithm, and the condensation of the graph: the directed acyclic graph
+ * which has a node per component and an arc between two components wherever an arc of the graph leads from one to the other.
+ * The depth first search keeps its own stack of nodes and of rib positions in plain arrays instead of recursing,
+ * so it goes through graphs of millions of nodes and paths of any length without overflowing the thread's stack.
+ * <p>
+ * Tarjan's algorithm completes a component only after every component reachable from it, so the components come in reverse topological order.
+ * They are numbered backwards, so component ids are a topological order of the condensation: every arc of it leads to a greater id.
+ * Components of an undirected graph are its connected components.
+ * <p>
+ * The graph is copied into the compressed sparse row layout once, in the constructor, unless it's laid out so already,
+ * so changes made to the graph later aren't seen.
+ *
+ * @param <N> generic node type
+ */
+public class StronglyConnectedComponents<N> {
+    private final Graph<N, ? extends Rib> graph;
+    private final int[] components;
+    private final int componentCount;
+    private final int[] memberOffsets, members;
+    private final CompressedSparseRowGraph<Integer, WeightedRib> condensation;
+
+    public StronglyConnectedComponents(Graph<N, ? extends Rib> graph) {
+        this.graph = graph;
+        CompressedSparseRowGraph<N, WeightedRib> csr = graph instanceof CompressedSparseRowGraph<?, ?>
+                ? (CompressedSparseRowGraph<N, WeightedRib>) graph : CompressedSparseRowGraph.from(graph);
+        int n = csr.getNodeCount();
+        this.components = tarjan(csr.getOffsets(), csr.getTargets());
+        this.componentCount = n == 0 ? 0 : Arrays.stream(components).max().getAsInt() + 1;
+
+        // nodes grouped by component, by counting sort
+        memberOffsets = new int[componentCount + 1];
+        for (int component : components) memberOffsets[component + 1]++;
+        for (int c = 0; c < componentCount; c++) memberOffsets[c + 1] += memberOffsets[c];
+        int[] cursor = Arrays.copyOf(memberOffsets, componentCount);
+        members = new int[n];
+        for (int i = 0; i < n; i++) members[cursor[components[i]]++] = i;
+
+        this.condensation = condense(csr);
+    }
+
+    /**
+     * The method finds strongly connected components of a graph in the compressed sparse row layout
+     *
+     * @param offsets positions of the ribs of every node, the node count plus one of them
+     * @param targets heads of the ribs
+     * @return component id of every node, the ids are a topological order of the condensation
+     */
+    public static int[] tarjan(int[] offsets, int[] targets) {
+        int n = offsets.length - 1;
+        int[] order = new int[n], low = new int[n], components = new int[n];
+        int[] stack = new int[n], calls = new int[n], cursor = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(order, -1);
+        int counter = 0, completed = 0, stackSize = 0, callCount = 0;
+        for (int root = 0; root < n; root++) {
+            if (order[root] != -1) continue;
+            order[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            cursor[root] = offsets[root];
+            calls[callCount++] = root;
+            while (callCount > 0) {
+                int node = calls[callCount - 1];
+                if (cursor[node] < offsets[node + 1]) {
+                    int next = targets[cursor[node]++];
+                    if (order[next] == -1) {
+                        order[next] = low[next] = counter++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        cursor[next] = offsets[next];
+                        calls[callCount++] = next;
+                    } else if (onStack[next]) low[node] = Math.min(low[node], order[next]);
+                    continue;
+                }
+                callCount--;
+                if (low[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = completed;
+                    } while (member != node);
+                    completed++;
+                }
+                if (callCount > 0) {
+                    int parent = calls[callCount - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) components[i] = completed - 1 - components[i];
+        return components;
+    }
+
+    /**
+     * The condensation keeps a single arc between two components, the lightest of the arcs between their nodes
+     */
+    private CompressedSparseRowGraph<Integer, WeightedRib> condense(CompressedSparseRowGraph<N, WeightedRib> csr) {
+        int[] offsets = csr.getOffsets(), targets = csr.getTargets();
+        double[] weights = csr.getWeights();
+        int[] slot = new int[componentCount];
+        Arrays.fill(slot, -1);
+        int[] from = new int[16], to = new int[16];
+        double[] weight = new double[16];
+        int size = 0;
+        for (int c = 0; c < componentCount; c++) {
+            int rowStart = size;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++)
+                for (int k = offsets[members[m]]; k < offsets[members[m] + 1]; k++) {
+                    int head = components[targets[k]];
+                    if (head == c) continue;
+                    if (slot[head] >= rowStart) {
+                        weight[slot[head]] = Math.min(weight[slot[head]], weights[k]);
+                        continue;
+                    }
+                    if (size == from.length) {
+                        from = Arrays.copyOf(from, size << 1);
+                        to = Arrays.copyOf(to, size << 1);
+                        weight = Arrays.copyOf(weight, size << 1);
+                    }
+                    slot[head] = size;
+                    from[size] = c;
+                    to[size] = head;
+                    weight[size++] = weights[k];
+                }
+        }
+        return new CompressedSparseRowGraph.Builder<>(IntStream.range(0, componentCount).boxed().toList(), true)
+                .addRibs(Arrays.copyOf(from, size), Arrays.copyOf(to, size), Arrays.copyOf(weight, size))
+                .build();
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public int componentOf(N node) {
+        return componentOf(graph.indexOf(node));
+    }
+
+    public int componentOf(int index) {
+        return components[index];
+    }
+
+    /**
+     * @return component id of every node
+     */
+    public int[] getComponents() {
+        return components.clone();
+    }
+
+    public boolean stronglyConnected(int a, int b) {
+        return components[a] == components[b];
+    }
+
+    /**
+     * @return indices of the nodes of the component, in ascending order
+     */
+    public int[] membersOf(int component) {
+        return Arrays.copyOfRange(members, memberOffsets[component], memberOffsets[component + 1]);
+    }
+
+    public int sizeOf(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    /**
+     * @return the directed acyclic graph of the components, whose nodes are component ids
+     */
+    public CompressedSparseRowGraph<Integer, WeightedRib> getCondensation() {
+        return condensation;
+    }
+}
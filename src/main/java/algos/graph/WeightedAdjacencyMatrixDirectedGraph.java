@@ -4,6 +4,7 @@
 package algos.graph;
 
 import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.IntDoubleConsumer;
 import algos.graph.objects.WeightedArc;
 import algos.graph.objects.WeightedGraph;
 
@@ -48,6 +49,7 @@ public class WeightedAdjacencyMatrixDirectedGraph<N, A extends WeightedArc> exte
     public void connectNodes(int from, int to, double weight) {
         if (weight == .0d) throw new IllegalArgumentException("Zero weight means no connection.");
         this.adjacencyMatrix[from][to] = weight;
+        modified();
     }
 
     @Override
@@ -58,6 +60,7 @@ public class WeightedAdjacencyMatrixDirectedGraph<N, A extends WeightedArc> exte
     @Override
     public void disconnectNodes(int from, int to) {
         this.adjacencyMatrix[from][to] = .0d;
+        modified();
     }
 
     @Override
@@ -72,6 +75,24 @@ public class WeightedAdjacencyMatrixDirectedGraph<N, A extends WeightedArc> exte
         return successorsOf(indexOf(vertex));
     }
 
+    @Override
+    public Set<A> arcsOf(int index) {
+        Set<A> a = new HashSet<>();
+        for (int i = 0; i < getAdjacencyMatrixWeighted().length; i++) {
+            if (getAdjacencyMatrixWeighted()[index][i] != .0d)
+                a.add((A) new WeightedArc(index, i, getAdjacencyMatrixWeighted()[index][i]));
+            if (getAdjacencyMatrixWeighted()[i][index] != .0d)
+                a.add((A) new WeightedArc(i, index, getAdjacencyMatrixWeighted()[i][index]));
+        }
+        return a;
+    }
+
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        double[] row = getAdjacencyMatrixWeighted()[index];
+        for (int i = 0; i < row.length; i++) if (row[i] != .0d) consumer.accept(i, row[i]);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("WeightedAdjacencyMatrixDirectedGraph{");
@@ -4,6 +4,7 @@
 package algos.graph;
 
 import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.IntDoubleConsumer;
 import algos.graph.objects.WeightedGraph;
 import algos.graph.objects.WeightedRib;
 
@@ -50,6 +51,7 @@ public class WeightedAdjacencyMatrixGraph<N, A extends WeightedRib> extends Adja
         if (weight == .0d) throw new IllegalArgumentException("Zero weight means no connection.");
         this.adjacencyMatrix[from][to] = weight;
         this.adjacencyMatrix[to][from] = weight;
+        modified();
     }
 
     @Override
@@ -61,6 +63,7 @@ public class WeightedAdjacencyMatrixGraph<N, A extends WeightedRib> extends Adja
     public void disconnectNodes(int from, int to) {
         this.adjacencyMatrix[from][to] = .0d;
         this.adjacencyMatrix[to][from] = .0d;
+        modified();
     }
 
     @Override
@@ -90,6 +93,12 @@ public class WeightedAdjacencyMatrixGraph<N, A extends WeightedRib> extends Adja
         return a;
     }
 
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        double[] row = getAdjacencyMatrixWeighted()[index];
+        for (int i = 0; i < row.length; i++) if (row[i] != .0d) consumer.accept(i, row[i]);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -3,6 +3,7 @@
  */
 package algos.graph;
 
+import algos.graph.objects.IntDoubleConsumer;
 import algos.graph.objects.WeightedArc;
 import algos.graph.objects.WeightedGraph;
 
@@ -27,7 +28,20 @@ public class WeightedIncidentalityListDirectedGraph<V, E extends WeightedArc> ex
 
     @Override
     public void connectNodes(int from, int to, double weight) {
-        this.incidentality.get(from).add((E) new WeightedArc(from, to, weight));
+        addArc((E) new WeightedArc(from, to, weight));
+        modified();
+    }
+
+    /**
+     * The method adds arcs from[i] -> to[i] of weights[i] in one go.
+     * Out-degrees of the nodes are counted first, so every arc set is resized at most once.
+     */
+    public void connectAll(int[] from, int[] to, double[] weights) {
+        if (from.length != to.length || from.length != weights.length)
+            throw new IllegalArgumentException("Every arc must have both of its nodes and a weight. Bad lengths were " + from.length + ", " + to.length + " and " + weights.length);
+        reserve(from);
+        for (int i = 0; i < from.length; i++) addArc((E) new WeightedArc(from[i], to[i], weights[i]));
+        modified();
     }
 
     @Override
@@ -37,7 +51,8 @@ public class WeightedIncidentalityListDirectedGraph<V, E extends WeightedArc> ex
 
     @Override
     public void disconnectNodes(int from, int to) {
-        this.incidentality.get(from).remove(ribsOf(from).stream().filter(rib -> rib.to == to).findAny().get());
+        removeArc(ribsOf(from).stream().filter(rib -> rib.to == to).findAny().get());
+        modified();
     }
 
     @Override
@@ -49,4 +64,9 @@ public class WeightedIncidentalityListDirectedGraph<V, E extends WeightedArc> ex
     public Set<E> ribsOf(V node) {
         return arcsOf(node);
     }
+
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        for (E rib : this.incidentality.get(index)) consumer.accept(rib.to, rib.weight);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@
  */
 package algos.graph;
 
+import algos.graph.objects.IntDoubleConsumer;
 import algos.graph.objects.WeightedGraph;
 import algos.graph.objects.WeightedRib;
 
@@ -26,7 +27,30 @@ public class WeightedIncidentalityListGraph<V, E extends WeightedRib> extends In
 
     @Override
     public void connectNodes(int from, int to, double weight) {
-        this.getIncidentality().get(from).add((E) new WeightedRib(from, to, weight));
-        this.getIncidentality().get(to).add((E) new WeightedRib(to, from, weight));
+        addRib((E) new WeightedRib(from, to, weight), (E) new WeightedRib(to, from, weight));
+        modified();
+    }
+
+    /**
+     * The method connects nodes pairwise, from[i] with to[i] by a rib of weights[i], in one go.
+     * Degrees of the nodes are counted first, so every rib set is resized at most once.
+     */
+    public void connectAll(int[] from, int[] to, double[] weights) {
+        if (from.length != to.length || from.length != weights.length)
+            throw new IllegalArgumentException("Every rib must have both of its nodes and a weight. Bad lengths were " + from.length + ", " + to.length + " and " + weights.length);
+        reserve(from, to);
+        for (int i = 0; i < from.length; i++)
+            addRib((E) new WeightedRib(from[i], to[i], weights[i]), (E) new WeightedRib(to[i], from[i], weights[i]));
+        modified();
+    }
+
+    @Override
+    public void connectAll(int[] from, int[] to) {
+        throw new IllegalArgumentException("You cannon connect nodes of a weighted graph with weightless ribs. Don't use this method, then.");
+    }
+
+    @Override
+    public void forEachNeighbor(int index, IntDoubleConsumer consumer) {
+        for (E rib : ribsOf(index)) consumer.accept(rib.to, rib.weight);
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph.hierarchy;
+
+import algos.graph.CompressedSparseRowGraph;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedGraph;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Contraction Hierarchies (Geisberger, Sanders, Schultes, Delling, 2008) is a speed-up technique for shortest path queries on static graphs, such as road networks.
+ * Preprocessing contracts the nodes one by one in the order of their importance. When a node is contracted,
+ * a shortcut arc replaces every shortest path which passes through it, so that distances among the remaining nodes are preserved.
+ * The rank of a node is its position in the contraction order.
+ * A query then runs two Dijkstra searches which only go upwards, towards nodes of higher rank:
+ * the forward one from the source over the upward arcs, and the backward one from the target over the reversed downward arcs.
+ * Both searches are tiny compared with a plain Dijkstra search, since they settle only the few important nodes above their roots.
+ * <p>
+ * An instance holds the result of the preprocessing: the ranks and two compressed sparse row arc arrays.
+ * Every arc remembers the contracted node it bypasses (or -1 for an original arc), which is how shortcuts are unpacked into original paths.
+ * The hierarchy refers to nodes by their indices in the source graph, so it can be stored with {@link #save(Path)}
+ * and {@link #load(Path)} instead of being preprocessed again on every start-up.
+ */
+public class ContractionHierarchy {
+    private static final int MAGIC = 0x43484831; // "CHH1"
+    private static final int VERSION = 1;
+
+    final int[] ranks;
+    // upward arcs u -> v (rank of u is lower than rank of v), kept at u
+    final int[] upOffsets, upTargets, upMiddles;
+    final double[] upWeights;
+    // downward arcs u -> v (rank of u is higher than rank of v), reversed and kept at v, so that the backward search goes upwards too
+    final int[] downOffsets, downSources, downMiddles;
+    final double[] downWeights;
+
+    ContractionHierarchy(int[] ranks,
+                         int[] upOffsets, int[] upTargets, double[] upWeights, int[] upMiddles,
+                         int[] downOffsets, int[] downSources, double[] downWeights, int[] downMiddles) {
+        this.ranks = ranks;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddles = downMiddles;
+    }
+
+    /**
+     * The method contracts every node of the graph with the default settings of {@link ContractionHierarchyBuilder}
+     *
+     * @param graph any weighted graph, directed or not. Weights must not be negative
+     * @return the preprocessed hierarchy
+     */
+    public static <N, E extends Rib> ContractionHierarchy preprocess(WeightedGraph<N, E> graph) {
+        return new ContractionHierarchyBuilder(CompressedSparseRowGraph.from(graph)).build();
+    }
+
+    public int getNodeCount() {
+        return ranks.length;
+    }
+
+    public int rankOf(int index) {
+        return ranks[index];
+    }
+
+    /**
+     * @return amount of arcs of the hierarchy, both original ones and shortcuts
+     */
+    public int getArcCount() {
+        return upTargets.length + downSources.length;
+    }
+
+    public int getShortcutCount() {
+        int count = 0;
+        for (int middle : upMiddles) if (middle != -1) count++;
+        for (int middle : downMiddles) if (middle != -1) count++;
+        return count;
+    }
+
+    /**
+     * @return a new query over this hierarchy. A query reuses its working arrays, so each thread needs its own one
+     */
+    public ContractionHierarchyQuery newQuery() {
+        return new ContractionHierarchyQuery(this);
+    }
+
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeInts(out, ranks);
+            writeInts(out, upOffsets);
+            writeInts(out, upTargets);
+            writeDoubles(out, upWeights);
+            writeInts(out, upMiddles);
+            writeInts(out, downOffsets);
+            writeInts(out, downSources);
+            writeDoubles(out, downWeights);
+            writeInts(out, downMiddles);
+        }
+    }
+
+    public static ContractionHierarchy load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException("The file " + file + " doesn't contain a contraction hierarchy");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported contraction hierarchy file version " + version);
+            return new ContractionHierarchy(readInts(in),
+                    readInts(in), readInts(in), readDoubles(in), readInts(in),
+                    readInts(in), readInts(in), readDoubles(in), readInts(in));
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] array) throws IOException {
+        out.writeInt(array.length);
+        for (int value : array) out.writeInt(value);
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] array) throws IOException {
+        out.writeInt(array.length);
+        for (double value : array) out.writeDouble(value);
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] array = new int[in.readInt()];
+        for (int i = 0; i < array.length; i++) array[i] = in.readInt();
+        return array;
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] array = new double[in.readInt()];
+        for (int i = 0; i < array.length; i++) array[i] = in.readDouble();
+        return array;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph.hierarchy;
+
+import algos.datastructure.IndexedDaryHeap;
+import algos.graph.CompressedSparseRowGraph;
+
+import java.util.Arrays;
+
+/**
+ * Contracts the nodes of a graph into a {@link ContractionHierarchy}.
+ * Nodes are contracted in the order of their priority, which is the edge difference
+ * (amount of shortcuts the contraction would add minus amount of arcs it would remove)
+ * plus the amount of already contracted neighbours, so that contraction spreads evenly over the graph.
+ * Priorities are updated lazily: a node popped from the queue gets its priority recalculated and goes back if it's no longer the least one.
+ * A shortcut u -> x is added only if a witness search, a local Dijkstra search from u which avoids the contracted node,
+ * finds no path which is as short. The witness search gives up after settling a limited amount of nodes,
+ * which may add a superfluous shortcut, but never loses a necessary one.
+ */
+public class ContractionHierarchyBuilder {
+    private final int nodeCount;
+    private final int[][] outTargets, outMiddles, inSources, inMiddles;
+    private final double[][] outWeights, inWeights;
+    private final int[] outSizes, inSizes;
+    private final boolean[] contracted;
+    private final int[] contractedNeighbours;
+    private int witnessSettleLimit = 64;
+
+    private final double[] witnessDistances;
+    private final int[] witnessTouched;
+    private int witnessTouchedCount;
+    private final IndexedDaryHeap witnessHeap;
+
+    public ContractionHierarchyBuilder(CompressedSparseRowGraph<?, ?> graph) {
+        this.nodeCount = graph.getNodeCount();
+        this.outTargets = new int[nodeCount][];
+        this.outMiddles = new int[nodeCount][];
+        this.outWeights = new double[nodeCount][];
+        this.inSources = new int[nodeCount][];
+        this.inMiddles = new int[nodeCount][];
+        this.inWeights = new double[nodeCount][];
+        this.outSizes = new int[nodeCount];
+        this.inSizes = new int[nodeCount];
+        this.contracted = new boolean[nodeCount];
+        this.contractedNeighbours = new int[nodeCount];
+        this.witnessDistances = new double[nodeCount];
+        this.witnessTouched = new int[nodeCount];
+        this.witnessHeap = new IndexedDaryHeap(nodeCount);
+        Arrays.fill(witnessDistances, Double.POSITIVE_INFINITY);
+
+        int[] offsets = graph.getOffsets(), targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+        int[] inDegrees = new int[nodeCount];
+        for (int target : targets) inDegrees[target]++;
+        for (int i = 0; i < nodeCount; i++) {
+            int outDegree = Math.max(offsets[i + 1] - offsets[i], 2);
+            outTargets[i] = new int[outDegree];
+            outMiddles[i] = new int[outDegree];
+            outWeights[i] = new double[outDegree];
+            inSources[i] = new int[Math.max(inDegrees[i], 2)];
+            inMiddles[i] = new int[inSources[i].length];
+            inWeights[i] = new double[inSources[i].length];
+        }
+        for (int i = 0; i < nodeCount; i++)
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                if (weights[k] < .0d) throw new IllegalArgumentException("Contraction hierarchies don't support negative weights. Bad weight was " + weights[k]);
+                if (targets[k] != i) addArc(i, targets[k], weights[k], -1);
+            }
+    }
+
+    /**
+     * @param limit amount of nodes a witness search may settle before it gives up. Greater limits mean fewer shortcuts and slower preprocessing
+     * @return this builder
+     */
+    public ContractionHierarchyBuilder witnessSettleLimit(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("A witness search must be allowed to settle at least one node. Bad limit was " + limit);
+        this.witnessSettleLimit = limit;
+        return this;
+    }
+
+    public ContractionHierarchy build() {
+        int[] ranks = new int[nodeCount];
+        IndexedDaryHeap queue = new IndexedDaryHeap(nodeCount);
+        for (int node = 0; node < nodeCount; node++) queue.insert(node, priorityOf(node));
+
+        int rank = 0;
+        while (!queue.isEmpty()) {
+            int node = queue.pollMin();
+            double priority = priorityOf(node);
+            if (!queue.isEmpty() && priority > queue.peekMinKey()) {
+                queue.insert(node, priority);
+                continue;
+            }
+            contract(node, false);
+            contracted[node] = true;
+            ranks[node] = rank++;
+            for (int k = 0; k < outSizes[node]; k++) contractedNeighbours[outTargets[node][k]]++;
+            for (int k = 0; k < inSizes[node]; k++) contractedNeighbours[inSources[node][k]]++;
+        }
+        return assemble(ranks);
+    }
+
+    private double priorityOf(int node) {
+        int removedArcs = 0;
+        for (int k = 0; k < outSizes[node]; k++) if (!contracted[outTargets[node][k]]) removedArcs++;
+        for (int k = 0; k < inSizes[node]; k++) if (!contracted[inSources[node][k]]) removedArcs++;
+        return contract(node, true) - removedArcs + contractedNeighbours[node];
+    }
+
+    /**
+     * @param simulate if true, shortcuts are only counted, not added
+     * @return amount of shortcuts the contraction of the node needs
+     */
+    private int contract(int node, boolean simulate) {
+        int shortcuts = 0;
+        for (int i = 0; i < inSizes[node]; i++) {
+            int source = inSources[node][i];
+            if (contracted[source]) continue;
+            double inWeight = inWeights[node][i];
+            double maxDistance = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < outSizes[node]; k++) {
+                int target = outTargets[node][k];
+                if (!contracted[target] && target != source) maxDistance = Math.max(maxDistance, inWeight + outWeights[node][k]);
+            }
+            if (maxDistance == Double.NEGATIVE_INFINITY) continue;
+
+            witnessSearch(source, node, maxDistance);
+            for (int k = 0; k < outSizes[node]; k++) {
+                int target = outTargets[node][k];
+                if (contracted[target] || target == source) continue;
+                double viaNode = inWeight + outWeights[node][k];
+                if (witnessDistances[target] <= viaNode) continue;
+                shortcuts++;
+                if (!simulate) addArc(source, target, viaNode, node);
+            }
+        }
+        return shortcuts;
+    }
+
+    private void witnessSearch(int source, int avoided, double maxDistance) {
+        for (int i = 0; i < witnessTouchedCount; i++) witnessDistances[witnessTouched[i]] = Double.POSITIVE_INFINITY;
+        witnessTouchedCount = 0;
+        witnessHeap.clear();
+
+        witnessDistances[source] = .0d;
+        witnessTouched[witnessTouchedCount++] = source;
+        witnessHeap.insert(source, .0d);
+        int settled = 0;
+        while (!witnessHeap.isEmpty() && settled++ < witnessSettleLimit) {
+            int node = witnessHeap.pollMin();
+            double distance = witnessDistances[node];
+            if (distance > maxDistance) break;
+            for (int k = 0; k < outSizes[node]; k++) {
+                int target = outTargets[node][k];
+                if (target == avoided || contracted[target]) continue;
+                double pathWeight = distance + outWeights[node][k];
+                if (pathWeight < witnessDistances[target]) {
+                    if (witnessDistances[target] == Double.POSITIVE_INFINITY) witnessTouched[witnessTouchedCount++] = target;
+                    witnessDistances[target] = pathWeight;
+                    witnessHeap.insertOrDecrease(target, pathWeight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an arc, or lowers the weight of an existing parallel one
+     */
+    private void addArc(int from, int to, double weight, int middle) {
+        for (int k = 0; k < outSizes[from]; k++)
+            if (outTargets[from][k] == to) {
+                if (outWeights[from][k] <= weight) return;
+                outWeights[from][k] = weight;
+                outMiddles[from][k] = middle;
+                for (int j = 0; j < inSizes[to]; j++)
+                    if (inSources[to][j] == from) {
+                        inWeights[to][j] = weight;
+                        inMiddles[to][j] = middle;
+                    }
+                return;
+            }
+        if (outSizes[from] == outTargets[from].length) {
+            int capacity = outTargets[from].length << 1;
+            outTargets[from] = Arrays.copyOf(outTargets[from], capacity);
+            outWeights[from] = Arrays.copyOf(outWeights[from], capacity);
+            outMiddles[from] = Arrays.copyOf(outMiddles[from], capacity);
+        }
+        outTargets[from][outSizes[from]] = to;
+        outWeights[from][outSizes[from]] = weight;
+        outMiddles[from][outSizes[from]++] = middle;
+        if (inSizes[to] == inSources[to].length) {
+            int capacity = inSources[to].length << 1;
+            inSources[to] = Arrays.copyOf(inSources[to], capacity);
+            inWeights[to] = Arrays.copyOf(inWeights[to], capacity);
+            inMiddles[to] = Arrays.copyOf(inMiddles[to], capacity);
+        }
+        inSources[to][inSizes[to]] = from;
+        inWeights[to][inSizes[to]] = weight;
+        inMiddles[to][inSizes[to]++] = middle;
+    }
+
+    private ContractionHierarchy assemble(int[] ranks) {
+        int[] upOffsets = new int[nodeCount + 1], downOffsets = new int[nodeCount + 1];
+        for (int from = 0; from < nodeCount; from++)
+            for (int k = 0; k < outSizes[from]; k++) {
+                int to = outTargets[from][k];
+                if (ranks[from] < ranks[to]) upOffsets[from + 1]++;
+                else downOffsets[to + 1]++;
+            }
+        for (int i = 0; i < nodeCount; i++) {
+            upOffsets[i + 1] += upOffsets[i];
+            downOffsets[i + 1] += downOffsets[i];
+        }
+        int[] upTargets = new int[upOffsets[nodeCount]], upMiddles = new int[upTargets.length];
+        double[] upWeights = new double[upTargets.length];
+        int[] downSources = new int[downOffsets[nodeCount]], downMiddles = new int[downSources.length];
+        double[] downWeights = new double[downSources.length];
+        int[] upCursor = Arrays.copyOf(upOffsets, nodeCount), downCursor = Arrays.copyOf(downOffsets, nodeCount);
+        for (int from = 0; from < nodeCount; from++)
+            for (int k = 0; k < outSizes[from]; k++) {
+                int to = outTargets[from][k];
+                if (ranks[from] < ranks[to]) {
+                    int position = upCursor[from]++;
+                    upTargets[position] = to;
+                    upWeights[position] = outWeights[from][k];
+                    upMiddles[position] = outMiddles[from][k];
+                } else {
+                    int position = downCursor[to]++;
+                    downSources[position] = from;
+                    downWeights[position] = outWeights[from][k];
+                    downMiddles[position] = outMiddles[from][k];
+                }
+            }
+        return new ContractionHierarchy(ranks, upOffsets, upTargets, upWeights, upMiddles, downOffsets, downSources, downWeights, downMiddles);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph.hierarchy;
+
+import algos.datastructure.IndexedDaryHeap;
+import algos.graph.GraphUtil;
+import algos.graph.objects.Graph;
+import algos.graph.objects.Rib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bidirectional upward search over a {@link ContractionHierarchy}.
+ * Unlike a plain bidirectional Dijkstra search, neither direction may stop as soon as the two searches meet,
+ * since the top of the path is the node of the highest rank, which the searches reach in no particular order.
+ * A direction stops once the least distance in its heap isn't shorter than the best path found so far.
+ * The working arrays are reused from query to query and reset in time proportional to the amount of nodes the previous query touched,
+ * so an instance isn't thread safe.
+ */
+public class ContractionHierarchyQuery {
+    private final ContractionHierarchy hierarchy;
+    private final double[] forwardDistances, backwardDistances;
+    private final int[] forwardParents, backwardParents, forwardMiddles, backwardMiddles;
+    private final IndexedDaryHeap forwardHeap, backwardHeap;
+    private final int[] touched;
+    private int touchedCount;
+    private int meeting = -1;
+
+    ContractionHierarchyQuery(ContractionHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        int nodeCount = hierarchy.getNodeCount();
+        this.forwardDistances = new double[nodeCount];
+        this.backwardDistances = new double[nodeCount];
+        this.forwardParents = new int[nodeCount];
+        this.backwardParents = new int[nodeCount];
+        this.forwardMiddles = new int[nodeCount];
+        this.backwardMiddles = new int[nodeCount];
+        this.forwardHeap = new IndexedDaryHeap(nodeCount);
+        this.backwardHeap = new IndexedDaryHeap(nodeCount);
+        this.touched = new int[nodeCount];
+        Arrays.fill(forwardDistances, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardDistances, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @return the shortest distance from the source to the target, or infinity if the target can't be reached
+     */
+    public double distance(int source, int target) {
+        int nodeCount = hierarchy.getNodeCount();
+        if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount)
+            throw new IllegalArgumentException("Both source and target must be indices of nodes of the graph. Bad indices were " + source + " and " + target);
+        reset();
+        touch(source);
+        forwardDistances[source] = .0d;
+        forwardParents[source] = -1;
+        touch(target);
+        backwardDistances[target] = .0d;
+        backwardParents[target] = -1;
+        forwardHeap.insert(source, .0d);
+        backwardHeap.insert(target, .0d);
+
+        double best = source == target ? .0d : Double.POSITIVE_INFINITY;
+        meeting = source == target ? source : -1;
+        boolean forwardDone = false, backwardDone = false;
+        while (!forwardDone || !backwardDone) {
+            forwardDone = forwardDone || forwardHeap.isEmpty() || forwardHeap.peekMinKey() >= best;
+            backwardDone = backwardDone || backwardHeap.isEmpty() || backwardHeap.peekMinKey() >= best;
+            boolean forward = !forwardDone && (backwardDone || forwardHeap.peekMinKey() <= backwardHeap.peekMinKey());
+            if (!forward && backwardDone) break;
+
+            IndexedDaryHeap heap = forward ? forwardHeap : backwardHeap;
+            double[] distances = forward ? forwardDistances : backwardDistances, opposite = forward ? backwardDistances : forwardDistances;
+            int[] parents = forward ? forwardParents : backwardParents, middles = forward ? forwardMiddles : backwardMiddles;
+            int[] offsets = forward ? hierarchy.upOffsets : hierarchy.downOffsets;
+            int[] heads = forward ? hierarchy.upTargets : hierarchy.downSources;
+            int[] arcMiddles = forward ? hierarchy.upMiddles : hierarchy.downMiddles;
+            double[] weights = forward ? hierarchy.upWeights : hierarchy.downWeights;
+
+            int node = heap.pollMin();
+            double distance = distances[node];
+            if (distance + opposite[node] < best) {
+                best = distance + opposite[node];
+                meeting = node;
+            }
+            for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+                int head = heads[k];
+                double pathWeight = distance + weights[k];
+                if (pathWeight < distances[head]) {
+                    touch(head);
+                    distances[head] = pathWeight;
+                    parents[head] = node;
+                    middles[head] = arcMiddles[k];
+                    heap.insertOrDecrease(head, pathWeight);
+                    if (pathWeight + opposite[head] < best) {
+                        best = pathWeight + opposite[head];
+                        meeting = head;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return indices of the nodes of the shortest path from the source to the target, with all the shortcuts unpacked,
+     * or an empty array if the target can't be reached
+     */
+    public int[] path(int source, int target) {
+        if (distance(source, target) == Double.POSITIVE_INFINITY) return new int[0];
+        int[] upward = new int[hierarchy.getNodeCount()];
+        int length = 0;
+        for (int node = meeting; node != -1; node = forwardParents[node]) upward[length++] = node;
+
+        IntList path = new IntList();
+        path.add(source);
+        for (int i = length - 1; i > 0; i--) unpack(upward[i], upward[i - 1], forwardMiddles[upward[i - 1]], path);
+        for (int node = meeting; node != target; node = backwardParents[node])
+            unpack(node, backwardParents[node], backwardMiddles[node], path);
+        return path.toArray();
+    }
+
+    /**
+     * Same as {@link #path(int, int)}, but made of the original graph's ribs
+     */
+    public <N, E extends Rib> List<E> pathList(int source, int target, Graph<N, E> graph) {
+        int[] nodes = path(source, target);
+        List<E> ribs = new ArrayList<>(Math.max(nodes.length - 1, 0));
+        for (int i = 1; i < nodes.length; i++) ribs.add(GraphUtil.ribBetween(graph, nodes[i - 1], nodes[i]));
+        return ribs;
+    }
+
+    /**
+     * Appends the nodes of an arc from -> to, except 'from' itself, to the path. Shortcuts are unpacked with an explicit stack rather than recursion
+     */
+    private void unpack(int from, int to, int middle, IntList path) {
+        IntList stack = new IntList();
+        stack.add(to);
+        stack.add(middle);
+        stack.add(from);
+        while (stack.size > 0) {
+            int tail = stack.pop(), bypassed = stack.pop(), head = stack.pop();
+            if (bypassed == -1) {
+                path.add(head);
+                continue;
+            }
+            // the second half goes deeper into the stack, so that the first one gets unpacked first
+            stack.add(head);
+            stack.add(middleOf(bypassed, head));
+            stack.add(bypassed);
+            stack.add(bypassed);
+            stack.add(middleOf(tail, bypassed));
+            stack.add(tail);
+        }
+    }
+
+    private int middleOf(int from, int to) {
+        int[] ranks = hierarchy.ranks;
+        int found = -2;
+        double weight = Double.POSITIVE_INFINITY;
+        if (ranks[from] < ranks[to]) {
+            for (int k = hierarchy.upOffsets[from]; k < hierarchy.upOffsets[from + 1]; k++)
+                if (hierarchy.upTargets[k] == to && hierarchy.upWeights[k] < weight) {
+                    weight = hierarchy.upWeights[k];
+                    found = hierarchy.upMiddles[k];
+                }
+        } else {
+            for (int k = hierarchy.downOffsets[to]; k < hierarchy.downOffsets[to + 1]; k++)
+                if (hierarchy.downSources[k] == from && hierarchy.downWeights[k] < weight) {
+                    weight = hierarchy.downWeights[k];
+                    found = hierarchy.downMiddles[k];
+                }
+        }
+        if (found == -2) throw new IllegalStateException("The hierarchy has no arc " + from + " --> " + to + " to unpack");
+        return found;
+    }
+
+    private void touch(int node) {
+        if (forwardDistances[node] == Double.POSITIVE_INFINITY && backwardDistances[node] == Double.POSITIVE_INFINITY)
+            touched[touchedCount++] = node;
+    }
+
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            forwardDistances[touched[i]] = Double.POSITIVE_INFINITY;
+            backwardDistances[touched[i]] = Double.POSITIVE_INFINITY;
+        }
+        touchedCount = 0;
+        forwardHeap.clear();
+        backwardHeap.clear();
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size << 1);
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
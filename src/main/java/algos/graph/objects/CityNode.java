@@ -3,7 +3,7 @@
  */
 package algos.graph.objects;
 
-public class CityNode {
+public class CityNode implements GeoNode {
     private City city;
     public CityNode(City c) {
         this.city = c;
@@ -12,6 +12,16 @@ public class CityNode {
         return city;
     }
 
+    @Override
+    public double getLatitude() {
+        return city.getLatitude();
+    }
+
+    @Override
+    public double getLongitude() {
+        return city.getLongitude();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -7,7 +7,7 @@ import algos.kmeans.ClusterDataPoint;
 
 import java.util.List;
 
-public class CrossroadsNode extends ClusterDataPoint {
+public class CrossroadsNode extends ClusterDataPoint implements GeoNode {
     private Crossroad crossroad;
 
     public CrossroadsNode(Crossroad c) {
@@ -18,6 +18,16 @@ public class CrossroadsNode extends ClusterDataPoint {
         return crossroad;
     }
 
+    @Override
+    public double getLatitude() {
+        return crossroad.getLat();
+    }
+
+    @Override
+    public double getLongitude() {
+        return crossroad.getLon();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
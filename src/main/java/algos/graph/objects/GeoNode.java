@@ -0,0 +1,12 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph.objects;
+
+/**
+ * A graph node which has a location on the Earth, given in degrees
+ */
+public interface GeoNode {
+    public abstract double getLatitude();
+    public abstract double getLongitude();
+}
@@ -18,4 +18,22 @@ public interface Graph<N, R extends Rib> {
     public abstract void connectNodes(int from, int to);
     public abstract void disconnectNodes(N from, N to);
     public abstract void disconnectNodes(int from, int to);
+
+    /**
+     * Feeds every rib leaving the node to the consumer: the index of the node the rib leads to and the weight of the rib,
+     * 1.0 for a weightless one. Unlike {@link #ribsOf(int)}, it reads the graph's own storage and makes no rib objects or sets,
+     * so it's the way for hot loops of graph algorithms to visit neighbours
+     *
+     * @param index    index of the node
+     * @param consumer receives an index of a neighbour and the weight of the rib leading to it
+     */
+    public abstract void forEachNeighbor(int index, IntDoubleConsumer consumer);
+
+    /**
+     * Every change of nodes, ribs or weights made through the graph's methods increases the counter,
+     * so that anything computed from the graph can tell whether it's stale by comparing the counter with the one it has remembered
+     *
+     * @return amount of modifications the graph has undergone
+     */
+    public abstract long getModificationCount();
 }
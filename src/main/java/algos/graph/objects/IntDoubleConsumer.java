@@ -0,0 +1,12 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph.objects;
+
+/**
+ * A primitive specialization of a BiConsumer, which receives a neighbour's index and the weight of the rib leading to it
+ */
+@FunctionalInterface
+public interface IntDoubleConsumer {
+    void accept(int index, double weight);
+}
@@ -10,8 +10,11 @@ import algos.graph.objects.CityNode;
 import algos.graph.objects.WeightedRib;
 
 public class CityWeightedAdjacencyMatrixGraph<N extends CityNode, A extends WeightedRib> extends WeightedAdjacencyMatrixGraph<N, A> {
+    private final EnumIndex<City> cities = new EnumIndex<>(City.class);
+
     public CityWeightedAdjacencyMatrixGraph(N[] vertices, double[][] adjacency) throws GraphInstantiationException {
         super(vertices, adjacency);
+        for (int i = 0; i < this.getNodes().length; i++) this.cities.put(this.getNodes()[i].getCity(), i);
     }
 
     @Override
@@ -20,9 +23,13 @@ public class CityWeightedAdjacencyMatrixGraph<N extends CityNode, A extends Weig
     }
 
     public int indexOf(City city) {
-        for (int i = 0; i < this.getNodes().length; i++) {
-            if (this.getNodes()[i].getCity() == city) return i;
-        }
-        return -1;
+        return this.cities.get(city);
+    }
+
+    @Override
+    public int addNode(N vertex, boolean[][] adjacency) {
+        int index = super.addNode(vertex, adjacency);
+        this.cities.put(vertex.getCity(), index);
+        return index;
     }
 }
\ No newline at end of file
@@ -11,12 +11,21 @@ import algos.graph.objects.WeightedArc;
 import java.util.ArrayList;
 
 public class CityWeightedIncidentalityListDirectedGraph<N extends CityNode, A extends WeightedArc> extends WeightedIncidentalityListDirectedGraph<N, A> {
+    private final EnumIndex<City> cities = new EnumIndex<>(City.class);
+
     public CityWeightedIncidentalityListDirectedGraph(ArrayList<N> vertices) {
         super(vertices);
+        for (int i = 0; i < this.getNodes().size(); i++) this.cities.put(this.getNodes().get(i).getCity(), i);
     }
 
     public int indexOf(City city) {
-        for (int i = 0; i < this.getNodes().size(); i++) if (this.getNodes().get(i).getCity() == city) return i;
-        return -1;
+        return this.cities.get(city);
+    }
+
+    @Override
+    public int addVertex(N vertex) {
+        int index = super.addVertex(vertex);
+        this.cities.put(vertex.getCity(), index);
+        return index;
     }
 }
\ No newline at end of file
@@ -12,13 +12,21 @@ import algos.graph.objects.WeightedRib;
 import java.util.ArrayList;
 
 public class CityWeightedIncidentalityListGraph<V extends CityNode, E extends WeightedRib> extends WeightedIncidentalityListGraph<V, E> implements WeightedGraph<V, E> {
+    private final EnumIndex<City> cities = new EnumIndex<>(City.class);
 
     public CityWeightedIncidentalityListGraph(ArrayList<V> vertices) {
         super(vertices);
+        for (int i = 0; i < this.getNodes().size(); i++) this.cities.put(this.getNodes().get(i).getCity(), i);
     }
 
     public int indexOf(City city) {
-        for (int i = 0; i < this.getNodes().size(); i++) if (this.getNodes().get(i).getCity() == city) return i;
-        return -1;
+        return this.cities.get(city);
+    }
+
+    @Override
+    public int addVertex(V vertex) {
+        int index = super.addVertex(vertex);
+        this.cities.put(vertex.getCity(), index);
+        return index;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@
  */
 package algos.graph.specialized;
 
+import algos.graph.IntUnionFind;
 import algos.graph.UnionFind;
 import algos.graph.WeightedAdjacencyMatrixGraph;
 import algos.graph.exception.GraphInstantiationException;
@@ -10,10 +11,22 @@ import algos.graph.objects.Crossroad;
 import algos.graph.objects.CrossroadsNode;
 import algos.graph.objects.WeightedRib;
 
+import java.util.ArrayList;
+
+/**
+ * Besides being a graph, it's a union-find of its crossroads: two crossroads are connected if there is a route between them,
+ * or if they have been united explicitly. The disjoint sets are rebuilt from the matrix whenever the graph has changed since the last look-up,
+ * since a union-find can't take a rib back, and the explicit unions are replayed on top of the ribs.
+ */
 public class CrossroadsWeightedAdjacencyMatrixGraph<N extends CrossroadsNode, A extends WeightedRib> extends WeightedAdjacencyMatrixGraph<N, A> implements UnionFind<N> {
+    private final EnumIndex<Crossroad> crossroads = new EnumIndex<>(Crossroad.class);
+    private final ArrayList<int[]> unions = new ArrayList<>();
+    private IntUnionFind components;
+    private long componentsModificationCount = -1;
 
     public CrossroadsWeightedAdjacencyMatrixGraph(N[] vertices, double[][] adjacency) throws GraphInstantiationException {
         super(vertices, adjacency);
+        for (int i = 0; i < this.getNodes().length; i++) this.crossroads.put(this.getNodes()[i].getCrossroad(), i);
     }
 
     @Override
@@ -22,18 +35,38 @@ public class CrossroadsWeightedAdjacencyMatrixGraph<N extends CrossroadsNode, A
     }
 
     public int indexOf(Crossroad crossroad) {
-        for (int i = 0; i < this.getNodes().length; i++)
-            if (this.getNodes()[i].getCrossroad() == crossroad) return i;
-        return -1;
+        return this.crossroads.get(crossroad);
     }
 
     @Override
     public void union(N node1, N node2) {
-
+        int one = indexOf(node1), two = indexOf(node2);
+        unions.add(new int[]{one, two});
+        components().union(one, two);
     }
 
     @Override
     public boolean connected(N node1, N node2) {
-        return false;
+        return components().connected(indexOf(node1), indexOf(node2));
+    }
+
+    private IntUnionFind components() {
+        if (components == null || componentsModificationCount != getModificationCount()) {
+            double[][] matrix = getAdjacencyMatrixWeighted();
+            components = new IntUnionFind(getNodeCount());
+            for (int i = 0; i < matrix.length; i++)
+                for (int j = i + 1; j < matrix.length; j++)
+                    if (matrix[i][j] != .0d || matrix[j][i] != .0d) components.union(i, j);
+            for (int[] union : unions) components.union(union[0], union[1]);
+            componentsModificationCount = getModificationCount();
+        }
+        return components;
+    }
+
+    @Override
+    public int addNode(N vertex, boolean[][] adjacency) {
+        int index = super.addNode(vertex, adjacency);
+        this.crossroads.put(vertex.getCrossroad(), index);
+        return index;
     }
 }
\ No newline at end of file
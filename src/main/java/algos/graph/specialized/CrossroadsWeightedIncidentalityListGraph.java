@@ -12,13 +12,21 @@ import algos.graph.objects.WeightedRib;
 import java.util.ArrayList;
 
 public class CrossroadsWeightedIncidentalityListGraph<V extends CrossroadsNode, E extends WeightedRib> extends WeightedIncidentalityListGraph<V, E> implements WeightedGraph<V, E> {
+    private final EnumIndex<Crossroad> crossroads = new EnumIndex<>(Crossroad.class);
 
     public CrossroadsWeightedIncidentalityListGraph(ArrayList<V> vertices) {
         super(vertices);
+        for (int i = 0; i < this.getNodes().size(); i++) this.crossroads.put(this.getNodes().get(i).getCrossroad(), i);
     }
 
     public int indexOf(Crossroad crossroad) {
-        for (int i = 0; i < this.getNodes().size(); i++) if (this.getNodes().get(i).getCrossroad() == crossroad) return i;
-        return -1;
+        return this.crossroads.get(crossroad);
+    }
+
+    @Override
+    public int addVertex(V vertex) {
+        int index = super.addVertex(vertex);
+        this.crossroads.put(vertex.getCrossroad(), index);
+        return index;
     }
 }
\ No newline at end of file
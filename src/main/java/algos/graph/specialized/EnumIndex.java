@@ -0,0 +1,29 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph.specialized;
+
+import java.util.Arrays;
+
+/**
+ * Index of graph nodes by an enum key, such as a city or a crossroad, held in an array by the key's ordinal.
+ * A key which occurs twice keeps its first index, the same way a linear search would find it.
+ *
+ * @param <K> generic enum key type
+ */
+final class EnumIndex<K extends Enum<K>> {
+    private final int[] indices;
+
+    EnumIndex(Class<K> keyType) {
+        this.indices = new int[keyType.getEnumConstants().length];
+        Arrays.fill(this.indices, -1);
+    }
+
+    void put(K key, int index) {
+        if (key != null && this.indices[key.ordinal()] == -1) this.indices[key.ordinal()] = index;
+    }
+
+    int get(K key) {
+        return key == null ? -1 : this.indices[key.ordinal()];
+    }
+}
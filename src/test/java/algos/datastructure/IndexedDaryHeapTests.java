@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.datastructure;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class IndexedDaryHeapTests {
+
+    @Test
+    public void indexedDaryHeapTest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int capacity = 1000;
+        IndexedDaryHeap heap = new IndexedDaryHeap(capacity, 4);
+        double[] keys = new double[capacity];
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = random.nextDouble(1000.0d);
+            heap.insert(i, keys[i]);
+        }
+        for (int i = 0; i < capacity; i += 3) {
+            keys[i] /= 2;
+            Assertions.assertTrue(heap.insertOrDecrease(i, keys[i]));
+            Assertions.assertFalse(heap.insertOrDecrease(i, keys[i] + 1.0d));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> heap.insert(0, 1.0d));
+
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (double expected : sorted) {
+            int index = heap.pollMin();
+            Assertions.assertEquals(expected, keys[index]);
+            Assertions.assertFalse(heap.contains(index));
+        }
+        Assertions.assertTrue(heap.isEmpty());
+
+        heap.insert(5, 1.0d);
+        heap.insert(7, 2.0d);
+        heap.clear();
+        Assertions.assertTrue(heap.isEmpty());
+        Assertions.assertFalse(heap.contains(5));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.geo;
+
+import algos.graph.objects.City;
+import algos.graph.objects.CityNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class GeoDistancesTests {
+
+    @Test
+    public void errorBoundTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double lat1 = Math.toDegrees(Math.asin(random.nextDouble(-1, 1))), lon1 = random.nextDouble(-180, 180);
+            boolean close = i % 2 == 0 && Math.abs(lat1) < 70;
+            double lat2 = close ? lat1 + random.nextDouble(-.5d, .5d) : Math.toDegrees(Math.asin(random.nextDouble(-1, 1)));
+            double lon2 = close ? lon1 + random.nextDouble(-.5d, .5d) : random.nextDouble(-180, 180);
+            double vincenty = Vincenty.getDistance(lat1, lon1, lat2, lon2), haversine = GeoDistances.haversine(lat1, lon1, lat2, lon2);
+            // Vincenty gives up on nearly antipodal points
+            if (vincenty == .0d) continue;
+            Assertions.assertEquals(vincenty, haversine, vincenty * GeoDistances.HAVERSINE_ERROR);
+            Assertions.assertTrue((1 - GeoDistances.HAVERSINE_ERROR) * haversine <= vincenty);
+            if (close)
+                Assertions.assertEquals(haversine, GeoDistances.equirectangular(lat1, lon1, lat2, lon2), haversine * 1e-4);
+        }
+        Assertions.assertEquals(GeoDistances.haversine(0, 179.9d, 0, -179.9d), GeoDistances.equirectangular(0, 179.9d, 0, -179.9d), 1e-3);
+    }
+
+    @Test
+    public void batchTest() {
+        int n = 200_000;
+        Random random = new Random(42);
+        double[] lat1 = random.doubles(n, -80, 80).toArray(), lon1 = random.doubles(n, -180, 180).toArray();
+        double[] lat2 = random.doubles(n, -80, 80).toArray(), lon2 = random.doubles(n, -180, 180).toArray();
+
+        LocalDateTime start = LocalDateTime.now();
+        double[] expected = new double[n];
+        for (int i = 0; i < n; i++) expected[i] = Vincenty.getDistance(lat1[i], lon1[i], lat2[i], lon2[i]);
+        System.out.println(n + " Vincenty distances one by one took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        start = LocalDateTime.now();
+        double[] distances = new double[n];
+        GeoDistances.distances(lat1, lon1, lat2, lon2, GeoDistances.Formula.VINCENTY, distances, new ForkJoinPool(4));
+        System.out.println(n + " Vincenty distances in a batch took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertArrayEquals(expected, distances);
+
+        start = LocalDateTime.now();
+        double[] haversines = GeoDistances.distances(lat1, lon1, lat2, lon2, GeoDistances.Formula.HAVERSINE);
+        System.out.println(n + " haversine distances in a batch took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        for (int i = 0; i < n; i += 101) Assertions.assertEquals(GeoDistances.haversine(lat1[i], lon1[i], lat2[i], lon2[i]), haversines[i]);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GeoDistances.distances(lat1, lon1, lat2, new double[1], GeoDistances.Formula.HAVERSINE));
+    }
+
+    @Test
+    public void distanceCacheTest() {
+        List<CityNode> cities = Arrays.stream(City.values()).map(CityNode::new).toList();
+        DistanceCache cache = DistanceCache.of(cities, GeoDistances.Formula.VINCENTY);
+        Assertions.assertEquals(cities.size(), cache.size());
+        for (int i = 0; i < cities.size(); i++)
+            for (int j = 0; j < cities.size(); j++) {
+                CityNode a = cities.get(Math.max(i, j)), b = cities.get(Math.min(i, j));
+                double expected = i == j ? .0d : Vincenty.getDistance(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+                Assertions.assertEquals(expected, cache.get(i, j));
+                Assertions.assertEquals(cache.get(i, j), cache.get(j, i));
+            }
+
+        Random random = new Random(42);
+        int n = 3000;
+        double[] latitudes = random.doubles(n, -60, 60).toArray(), longitudes = random.doubles(n, -180, 180).toArray();
+        DistanceCache filled = new DistanceCache(latitudes, longitudes, GeoDistances.Formula.HAVERSINE);
+        double lazy = filled.get(17, 5);
+        LocalDateTime start = LocalDateTime.now();
+        filled.fill(new ForkJoinPool(4));
+        System.out.println("Filling the cache of " + n + " points took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertEquals(lazy, filled.get(5, 17));
+        for (int i = 0; i < 1000; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            Assertions.assertEquals(a == b ? .0d : GeoDistances.haversine(latitudes[Math.max(a, b)], longitudes[Math.max(a, b)],
+                    latitudes[Math.min(a, b)], longitudes[Math.min(a, b)]), filled.get(a, b));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> filled.get(0, n));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DistanceCache(new double[2], new double[3], GeoDistances.Formula.HAVERSINE));
+    }
+}
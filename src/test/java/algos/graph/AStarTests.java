@@ -7,6 +7,7 @@ import algos.geo.Vincenty;
 import algos.graph.exception.GraphInstantiationException;
 import algos.graph.objects.Crossroad;
 import algos.graph.objects.CrossroadsNode;
+import algos.graph.objects.WeightedArc;
 import algos.graph.objects.WeightedRib;
 import algos.graph.specialized.CrossroadsWeightedAdjacencyMatrixGraph;
 import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
@@ -20,9 +21,12 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class AStarTests {
     static CrossroadsNode[] allNodes = new CrossroadsNode[Crossroad.values().length];
@@ -222,5 +226,78 @@ public class AStarTests {
 
     }
 
+    @Test
+    public void landmarkAStarCrossroadsWeightedIncidentalityListGraphTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        // the geodesic bound must not exceed any rib weight
+        double unitsPerMeter = Double.MAX_VALUE;
+        for (int i = 0; i < graph.getNodeCount(); i++)
+            for (WeightedRib rib : graph.ribsOf(i)) {
+                CrossroadsNode from = graph.nodeAt(rib.from), to = graph.nodeAt(rib.to);
+                double meters = Vincenty.getDistance(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+                if (meters > 0) unitsPerMeter = Math.min(unitsPerMeter, rib.weight / meters);
+            }
+
+        for (LandmarkAStar.LandmarkSelection selection : LandmarkAStar.LandmarkSelection.values()) {
+            LandmarkAStar<CrossroadsNode, WeightedRib> alt = new LandmarkAStar<>(graph, 4, selection).geodesicBound(unitsPerMeter);
+            Assertions.assertEquals(4, Arrays.stream(alt.getLandmarks()).distinct().count());
+            for (int source = 0; source < graph.getNodeCount(); source++) {
+                GraphUtil.IndexedDijkstraResult expected = GraphUtil.indexedDijkstra(graph, source, -1);
+                for (int target = 0; target < graph.getNodeCount(); target++) {
+                    Assertions.assertTrue(alt.lowerBound(source, target) <= expected.distances[target] + 1e-9);
+                    GraphUtil.DijkstraResult<WeightedRib> result = alt.query(source, target);
+                    Assertions.assertEquals(expected.distances[target], result.distances[target], 1e-9);
+                    if (source == target || !expected.reached(target)) {
+                        Assertions.assertTrue(result.pathMap.isEmpty());
+                        continue;
+                    }
+                    List<WeightedRib> path = GraphUtil.pathMapToPathList(source, target, result.pathMap);
+                    Assertions.assertEquals(expected.distances[target], path.stream().mapToDouble(rib -> rib.weight).sum(), 1e-9);
+                }
+            }
+        }
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void landmarkAStarWeightedIncidentalityListDirectedGraphTest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int nodeCount = 500;
+        ArrayList<Integer> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) nodes.add(i);
+        WeightedIncidentalityListDirectedGraph<Integer, WeightedArc> graph = new WeightedIncidentalityListDirectedGraph<>(nodes);
+        for (int i = 0; i < nodeCount * 3; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from != to) graph.connectNodes(from, to, random.nextInt(1, 100));
+        }
+
+        LandmarkAStar<Integer, WeightedArc> alt = new LandmarkAStar<>(graph, 8);
+        long altSettled = 0, dijkstraSettled = 0;
+        for (int source = 0; source < nodeCount; source += 11) {
+            GraphUtil.IndexedDijkstraResult expected = GraphUtil.indexedDijkstra(graph, source, -1);
+            for (int target = 0; target < nodeCount; target += 3) {
+                Assertions.assertEquals(expected.distances[target], alt.distance(source, target), 1e-9);
+                altSettled += alt.getSettledCount();
+                for (int i = 0; i < nodeCount; i++) if (expected.distances[i] <= expected.distances[target]) dijkstraSettled++;
+            }
+        }
+        Assertions.assertTrue(altSettled <= dijkstraSettled);
+        System.out.println("ALT settled " + altSettled + " nodes, Dijkstra algorithm would settle about " + dijkstraSettled);
+    }
+
+    @Test
+    public void landmarkAStarDirectedCsrTest() {
+        Random random = new Random(42);
+        for (int round = 0; round < 30; round++) {
+            int nodeCount = 40;
+            CompressedSparseRowGraph.Builder<Integer> builder = new CompressedSparseRowGraph.Builder<>(IntStream.range(0, nodeCount).boxed().toList(), true);
+            for (int i = 0; i < nodeCount * 3; i++) builder.addRib(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(1, 100));
+            CompressedSparseRowGraph<Integer, WeightedRib> graph = builder.build();
+            LandmarkAStar<Integer, WeightedRib> alt = new LandmarkAStar<>(graph, 4);
+            for (int source = 0; source < nodeCount; source += 3) {
+                double[] expected = GraphUtil.indexedDijkstra(graph, source, -1).distances;
+                for (int target = 0; target < nodeCount; target++)
+                    Assertions.assertEquals(expected[target], alt.distance(source, target), 1e-9);
+            }
+        }
+    }
+}
@@ -13,11 +13,13 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static algos.graph.objects.City.*;
 
@@ -548,4 +550,111 @@ public class BFSTests {
         System.out.println("BACK: " + PathNodeUtil.nodeToPath(back));
         System.out.println("The BFS algorithm took " + stepsCounter.get() + " steps to complete on " + graph.getNodeCount() + " nodes.");
     }
+
+    @Test
+    public void directionOptimizingBfsCrossroadsWeightedIncidentalityListGraphTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        int source = graph.indexOf(Crossroad.BOLSHOY_PROSPECT_18_19_LINES), target = graph.indexOf(Crossroad.SMOLENKA_EMB_8_9_LINES);
+        GraphUtil.BfsResult result = GraphUtil.directionOptimizingBfs(graph, source);
+
+        PathNode<CrossroadsNode> forth = PathNodeUtil.bfs(graph.nodeAt(source), c -> graph.indexOf(c) == target, graph::successorsOf, stepsCounter);
+        Assertions.assertEquals(PathNodeUtil.nodeToPath(forth).size() - 1, result.depths[target]);
+        int[] path = result.pathTo(target);
+        Assertions.assertEquals(result.depths[target] + 1, path.length);
+        for (int i = 1; i < path.length; i++) Assertions.assertTrue(graph.successorsOf(path[i - 1]).contains(graph.nodeAt(path[i])));
+        Assertions.assertEquals(-1, result.parents[source]);
+    }
+
+    @Test
+    public void directionOptimizingBfsLargeGraphTest() {
+        Random random = new Random(5);
+        int nodeCount = 200_000, ribCount = 1_600_000;
+        List<Integer> nodes = IntStream.range(0, nodeCount).boxed().toList();
+        IncidentalityListGraphBuilder<Integer> builder = new IncidentalityListGraphBuilder<>(nodes, ribCount);
+        for (int i = 0; i < ribCount; i++) builder.addRib(random.nextInt(nodeCount), random.nextInt(nodeCount));
+
+        for (Graph<Integer, ?> graph : List.<Graph<Integer, ?>>of(builder.build(), builder.buildDirected())) {
+            CompressedSparseRowGraph<Integer, WeightedRib> csr = CompressedSparseRowGraph.from(graph);
+            DirectionOptimizingBfs<Integer> bfs = new DirectionOptimizingBfs<>(graph);
+            LocalDateTime start = LocalDateTime.now();
+            GraphUtil.BfsResult result = bfs.search(0);
+            System.out.println("Direction optimizing BFS took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis, "
+                    + bfs.getTopDownLevels() + " levels top-down and " + bfs.getBottomUpLevels() + " levels bottom-up.");
+            Assertions.assertTrue(bfs.getBottomUpLevels() > 0);
+
+            // depths are the same as a plain queue based search finds, and every parent is one level closer to the source
+            int[] depths = new int[nodeCount];
+            Arrays.fill(depths, -1);
+            depths[0] = 0;
+            ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(0));
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int k = csr.getOffsets()[node]; k < csr.getOffsets()[node + 1]; k++) {
+                    int next = csr.getTargets()[k];
+                    if (depths[next] != -1) continue;
+                    depths[next] = depths[node] + 1;
+                    queue.add(next);
+                }
+            }
+            Assertions.assertArrayEquals(depths, result.depths);
+            for (int i = 1; i < nodeCount; i++) {
+                if (!result.reached(i)) continue;
+                int node = i, parent = result.parents[i];
+                Assertions.assertEquals(result.depths[node] - 1, result.depths[parent]);
+                Assertions.assertTrue(IntStream.range(csr.getOffsets()[parent], csr.getOffsets()[parent + 1]).anyMatch(k -> csr.getTargets()[k] == node));
+            }
+        }
+    }
+
+    @Test
+    public void directionOptimizingBfsDirectedCsrTest() {
+        CompressedSparseRowGraph<Integer, WeightedRib> chain = new CompressedSparseRowGraph.Builder<>(List.of(0, 1, 2), true)
+                .addRib(0, 1, 1.0d)
+                .addRib(1, 2, 1.0d)
+                .build();
+        // every level goes bottom-up, over the arcs coming into a node
+        DirectionOptimizingBfs<Integer> bfs = new DirectionOptimizingBfs<>(chain, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        GraphUtil.BfsResult result = bfs.search(0);
+        Assertions.assertArrayEquals(new int[]{0, 1, 2}, result.depths);
+        Assertions.assertArrayEquals(new int[]{-1, 0, 1}, result.parents);
+        Assertions.assertTrue(bfs.getBottomUpLevels() > 0);
+        Assertions.assertArrayEquals(new int[]{-1, -1, 0}, bfs.search(2).depths);
+    }
+
+    @Test
+    public void parallelBfsIncidentalityListDirectedGraphTest() {
+        Random random = new Random(9);
+        int nodeCount = 300_000, arcCount = 3_000_000;
+        IncidentalityListGraphBuilder<Integer> builder = new IncidentalityListGraphBuilder<>(IntStream.range(0, nodeCount).boxed().toList(), arcCount);
+        for (int i = 0; i < arcCount; i++) builder.addRib(random.nextInt(nodeCount), random.nextInt(nodeCount));
+        IncidentalityListDirectedGraph<Integer, Arc> graph = builder.buildDirected();
+
+        GraphUtil.BfsResult expected = GraphUtil.directionOptimizingBfs(graph, 0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelBfs<Integer> bfs = new ParallelBfs<>(graph, pool);
+            LocalDateTime start = LocalDateTime.now();
+            ParallelBfs.Result result = bfs.search(Integer.valueOf(0));
+            System.out.println("Parallel BFS took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis, levels took "
+                    + Arrays.toString(Arrays.stream(result.levelNanos).map(nanos -> nanos / 1000).toArray()) + " micros for frontiers of "
+                    + Arrays.toString(result.levelSizes) + " nodes.");
+
+            Assertions.assertArrayEquals(expected.depths, result.depths);
+            Assertions.assertEquals(Arrays.stream(result.depths).max().getAsInt() + 1, result.getLevelCount());
+            Assertions.assertEquals(Arrays.stream(result.depths).filter(depth -> depth != -1).count(), Arrays.stream(result.levelSizes).sum());
+            for (int i = 1; i < nodeCount; i++) {
+                if (!result.reached(i)) continue;
+                int node = i, parent = result.parents[i];
+                Assertions.assertEquals(result.depths[node] - 1, result.depths[parent]);
+                Assertions.assertTrue(graph.arcsOf(parent).stream().anyMatch(arc -> arc.to == node));
+            }
+            Assertions.assertArrayEquals(new int[]{0}, new ParallelBfs<>(graph).search(0).pathTo(0));
+
+            // a compressed sparse row graph is searched as it is
+            CompressedSparseRowGraph<Integer, WeightedRib> csr = CompressedSparseRowGraph.from(graph);
+            Assertions.assertArrayEquals(expected.depths, new ParallelBfs<>(csr, pool).search(0).depths);
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.Arc;
+import algos.graph.objects.Rib;
+import algos.graph.objects.WeightedRib;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class BitMatrixGraphTests {
+
+    @Test
+    public void bitMatrixGraphMatchesAdjacencyMatrixGraphTest() throws GraphInstantiationException {
+        Random random = new Random(7);
+        int nodeCount = 150;
+        Integer[] nodes = IntStream.range(0, nodeCount).boxed().toArray(Integer[]::new);
+        AdjacencyMatrixGraph<Integer, Rib> matrix = new AdjacencyMatrixGraph<>(nodes, new boolean[nodeCount][nodeCount]);
+        for (int i = 0; i < nodeCount * 3; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from != to) matrix.connectNodes(from, to);
+        }
+
+        BitMatrixGraph<Integer, Rib> bits = BitMatrixGraph.from(matrix);
+        Assertions.assertFalse(bits.isDirected());
+        Assertions.assertEquals(3, bits.getWordsPerRow());
+        Assertions.assertEquals(matrix.getRibCount() / 2, bits.getRibCount());
+        for (int i = 0; i < nodeCount; i++) {
+            Assertions.assertEquals(matrix.successorsOf(i), bits.successorsOf(i));
+            Assertions.assertEquals(matrix.successorsOf(i).size(), bits.degreeOf(i));
+            Assertions.assertArrayEquals(queueDepths(bits, i), bits.breadthFirstDepths(i));
+        }
+
+        int ribs = bits.getRibCount();
+        long count = bits.getModificationCount();
+        bits.disconnectNodes(0, 1);
+        bits.connectNodes(0, 1);
+        Assertions.assertTrue(bits.isConnected(1, 0));
+        Assertions.assertEquals(ribs + (matrix.getAdjacencyMatrix()[0][1] ? 0 : 1), bits.getRibCount());
+        Assertions.assertTrue(bits.getModificationCount() > count);
+    }
+
+    @Test
+    public void bitMatrixDirectedGraphTest() {
+        BitMatrixGraph<String, Arc> graph = new BitMatrixGraph<>(new String[]{"A", "B", "C"}, true);
+        graph.connectNodes("A", "B");
+        graph.connectNodes("B", "C");
+        graph.connectNodes("B", "C");
+        Assertions.assertEquals(2, graph.getRibCount());
+        Assertions.assertTrue(graph.ribsOf("A").contains(new Arc(0, 1)));
+        Assertions.assertTrue(graph.ribsOf("B").stream().allMatch(arc -> arc.from == 1));
+        Assertions.assertArrayEquals(new int[]{0, 1, 2}, graph.breadthFirstDepths(0));
+        Assertions.assertArrayEquals(new int[]{-1, -1, 0}, graph.breadthFirstDepths(2));
+
+        // nodes added past a word boundary keep the ribs of the old ones
+        for (int i = 0; i < 100; i++) graph.addNode("N" + i);
+        Assertions.assertEquals(2, graph.getWordsPerRow());
+        graph.connectNodes("C", "N99");
+        Assertions.assertTrue(graph.isConnected(0, 1));
+        Assertions.assertTrue(graph.isConnected(1, 2));
+        Assertions.assertEquals(102, graph.indexOf("N99"));
+        Assertions.assertEquals(3, graph.breadthFirstDepths(0)[102]);
+        Assertions.assertEquals(3, graph.getRibCount());
+    }
+
+    @Test
+    public void bitMatrixGraphGrowthTest() {
+        Random random = new Random(11);
+        int nodeCount = 20_000;
+        BitMatrixGraph<Integer, Rib> grown = new BitMatrixGraph<>(new Integer[0], false);
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < nodeCount; i++) Assertions.assertEquals(i, grown.addNode(i));
+        System.out.println("Adding " + nodeCount + " nodes one by one took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        BitMatrixGraph<Integer, Rib> built = new BitMatrixGraph<>(IntStream.range(0, nodeCount).boxed().toArray(Integer[]::new), false);
+        for (int i = 0; i < nodeCount * 2; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            grown.connectNodes(from, to);
+            built.connectNodes(from, to);
+        }
+        Assertions.assertEquals(nodeCount, grown.getNodeCount());
+        Assertions.assertEquals(nodeCount, grown.getNodes().length);
+        Assertions.assertEquals(built.getRibCount(), grown.getRibCount());
+        Assertions.assertArrayEquals(built.breadthFirstDepths(0), grown.breadthFirstDepths(0));
+        for (int i = 0; i < nodeCount; i += 97) Assertions.assertEquals(built.ribsOf(i), grown.ribsOf(i));
+    }
+
+    @Test
+    public void bitMatrixFromDirectedCsrTest() {
+        CompressedSparseRowGraph<String, WeightedRib> csr = new CompressedSparseRowGraph.Builder<>(List.of("A", "B", "C"), true)
+                .addRib(0, 1, 1.0d)
+                .addRib(1, 2, 1.0d)
+                .build();
+        BitMatrixGraph<String, Rib> bits = BitMatrixGraph.from(csr);
+        Assertions.assertTrue(bits.isDirected());
+        Assertions.assertEquals(2, bits.getRibCount());
+        Assertions.assertTrue(bits.isConnected(0, 1));
+        Assertions.assertFalse(bits.isConnected(1, 0));
+        Assertions.assertArrayEquals(new int[]{-1, -1, 0}, bits.breadthFirstDepths(2));
+        Assertions.assertTrue(BitMatrixGraph.from(bits).isDirected());
+    }
+
+    @Test
+    public void bitMatrixDenseGraphBreadthFirstSearchTest() {
+        Random random = new Random(11);
+        int nodeCount = 10_000;
+        Integer[] nodes = IntStream.range(0, nodeCount).boxed().toArray(Integer[]::new);
+        BitMatrixGraph<Integer, Rib> graph = new BitMatrixGraph<>(nodes, false);
+        for (int i = 0; i < nodeCount * 200; i++) graph.connectNodes(random.nextInt(nodeCount), random.nextInt(nodeCount));
+
+        LocalDateTime start = LocalDateTime.now();
+        int[] depths = graph.breadthFirstDepths(0);
+        System.out.println("Row-OR breadth first search took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis for " + graph.getRibCount() + " ribs.");
+        start = LocalDateTime.now();
+        int[] expected = queueDepths(graph, 0);
+        System.out.println("Queue breadth first search took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertArrayEquals(expected, depths);
+    }
+
+    private static int[] queueDepths(BitMatrixGraph<?, ?> graph, int source) {
+        int[] depths = new int[graph.getNodeCount()];
+        Arrays.fill(depths, -1);
+        depths[source] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            graph.forEachSuccessor(node, next -> {
+                if (depths[next] != -1) return;
+                depths[next] = depths[node] + 1;
+                queue.add(next);
+            });
+        }
+        return depths;
+    }
+}
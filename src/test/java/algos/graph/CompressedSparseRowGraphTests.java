@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.*;
+import algos.graph.specialized.CrossroadsWeightedAdjacencyMatrixGraph;
+import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CompressedSparseRowGraphTests {
+
+    public static CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> crossroadsGraph() {
+        Crossroad[] arr = Crossroad.values();
+
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph =
+                new CrossroadsWeightedIncidentalityListGraph<>(Arrays.stream(arr).map(CrossroadsNode::new).collect(Collectors.toCollection(ArrayList::new)));
+
+
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_18_19_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_18_19_LINES), 510.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_18_19_LINES), graph.indexOf(Crossroad.MALIY_PROSPECT_16_17_LINES), 170.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_16_17_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_16_17_LINES), 530.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_16_17_LINES), graph.indexOf(Crossroad.MALIY_PROSPECT_DONSKAYA), 129.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_14_15_LINES), graph.indexOf(Crossroad.MALIY_PROSPECT_DONSKAYA), 92.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_14_15_LINES), graph.indexOf(Crossroad.MALIY_PROSPECT_12_13_LINES), 203.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_10_11_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_10_11_LINES), 500.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_10_11_LINES), graph.indexOf(Crossroad.MALIY_PROSPECT_8_9_LINES), 168.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_8_9_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_8_9_LINES), 500.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_12_13_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_12_13_LINES), 510.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_10_11_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_8_9_LINES), 173.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_10_11_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_12_13_LINES), 178.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_14_15_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_12_13_LINES), 181.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_14_15_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_16_17_LINES), 178.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_18_19_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_16_17_LINES), 174.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_18_19_LINES), graph.indexOf(Crossroad.BOLSHOY_PROSPECT_18_19_LINES), 520.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_8_9_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_8_9_LINES), 520.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_16_17_LINES), graph.indexOf(Crossroad.BOLSHOY_PROSPECT_18_19_LINES), 194.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_16_17_LINES), graph.indexOf(Crossroad.BOLSHOY_PROSPECT_14_15_LINES), 196.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_12_13_LINES), graph.indexOf(Crossroad.BOLSHOY_PROSPECT_14_15_LINES), 179.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_12_13_LINES), graph.indexOf(Crossroad.SREDNIY_PROSPECT_12_13_LINES), 520.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.DONSKAYA_NEMANSKY), graph.indexOf(Crossroad.MALIY_PROSPECT_DONSKAYA), 420.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.DONSKAYA_NEMANSKY), graph.indexOf(Crossroad.NEMANSKY_PER_16_17_LINES), 227.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.DONSKAYA_NEMANSKY), graph.indexOf(Crossroad.NEMANSKY_PER_14_15_LINES), 202.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_16_17_LINES), graph.indexOf(Crossroad.KAMSKAYA_16_17_LINES), 500.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.KAMSKAYA_14_15_LINES), graph.indexOf(Crossroad.KAMSKAYA_16_17_LINES), 214.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_16_17_LINES), graph.indexOf(Crossroad.KAMSKAYA_16_17_LINES), 500.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.KAMSKAYA_SMOLENKA_EMB_12_13_LINES), graph.indexOf(Crossroad.KAMSKAYA_14_15_LINES), 225.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.KAMSKAYA_14_15_LINES), graph.indexOf(Crossroad.KAMSKAYA_16_17_LINES), 209.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.KAMSKAYA_SMOLENKA_EMB_12_13_LINES), graph.indexOf(Crossroad.SMOLENKA_EMB_10_11_LINES), 180.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SMOLENKA_EMB_8_9_LINES), graph.indexOf(Crossroad.SMOLENKA_EMB_10_11_LINES), 185.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_10_11_LINES), graph.indexOf(Crossroad.SMOLENKA_EMB_10_11_LINES), 297.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.MALIY_PROSPECT_10_11_LINES), graph.indexOf(Crossroad.MALIY_PROSPECT_12_13_LINES), 182.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_16_17_LINES), graph.indexOf(Crossroad.NEMANSKY_PER_16_17_LINES), 81.0d);
+        graph.connectNodes(graph.indexOf(Crossroad.SREDNIY_PROSPECT_14_15_LINES), graph.indexOf(Crossroad.NEMANSKY_PER_14_15_LINES), 78.0d);
+
+        return graph;
+    }
+
+    @Test
+    public void csrFromIncidentalityListGraphTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = crossroadsGraph();
+        CompressedSparseRowGraph<CrossroadsNode, WeightedRib> csr = CompressedSparseRowGraph.from(graph);
+
+        Assertions.assertEquals(graph.getNodeCount(), csr.getNodeCount());
+        Assertions.assertFalse(csr.isDirected());
+        Assertions.assertEquals(csr.getOffsets()[csr.getNodeCount()], csr.getTargets().length);
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            CrossroadsNode node = graph.nodeAt(i);
+            Assertions.assertEquals(i, csr.indexOf(node));
+            Assertions.assertEquals(graph.successorsOf(i).stream().filter(n -> n != node).collect(Collectors.toSet()), csr.successorsOf(i));
+        }
+
+        for (int root = 0; root < graph.getNodeCount(); root++) {
+            GraphUtil.DijkstraResult<WeightedRib> expected = GraphUtil.dijkstra(graph.nodeAt(root), graph);
+            GraphUtil.DijkstraResult<WeightedRib> actual = GraphUtil.dijkstra(csr.nodeAt(root), csr);
+            Assertions.assertArrayEquals(expected.distances, actual.distances, 1e-9);
+        }
+
+        for (int i = 0; i < csr.getNodeCount(); i++) // isolated nodes span nothing, so each start is compared with the source graph
+            Assertions.assertEquals(GraphUtil.jarnik(graph, i).stream().mapToDouble(WeightedRib::getWeight).sum(), GraphUtil.jarnik(csr, i).stream().mapToDouble(WeightedRib::getWeight).sum());
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> csr.connectNodes(0, 1, 1.0d));
+    }
+
+    @Test
+    public void csrFromAdjacencyMatrixGraphsTest() throws GraphInstantiationException {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> listGraph = crossroadsGraph();
+        CrossroadsWeightedAdjacencyMatrixGraph<CrossroadsNode, WeightedRib> matrixGraph =
+                new CrossroadsWeightedAdjacencyMatrixGraph<>(listGraph.getNodes().toArray(CrossroadsNode[]::new), new double[listGraph.getNodeCount()][listGraph.getNodeCount()]);
+        for (int i = 0; i < listGraph.getNodeCount(); i++)
+            for (WeightedRib rib : listGraph.ribsOf(i)) matrixGraph.connectNodes(rib.from, rib.to, rib.weight);
+
+        CompressedSparseRowGraph<CrossroadsNode, WeightedRib> csr = CompressedSparseRowGraph.from(matrixGraph);
+        Assertions.assertEquals(CompressedSparseRowGraph.from(listGraph).getTargets().length, csr.getTargets().length);
+        for (int i = 0; i < csr.getNodeCount(); i++) // isolated nodes span nothing, so each start is compared with the source graph
+            Assertions.assertEquals(GraphUtil.jarnik(matrixGraph, i).stream().mapToDouble(WeightedRib::getWeight).sum(), GraphUtil.jarnik(csr, i).stream().mapToDouble(WeightedRib::getWeight).sum());
+
+        WeightedAdjacencyMatrixDirectedGraph<String, WeightedArc> directed =
+                new WeightedAdjacencyMatrixDirectedGraph<>(new String[]{"A", "B", "C"}, new double[3][3]);
+        directed.connectNodes(0, 1, 2.0d);
+        directed.connectNodes(1, 2, 3.0d);
+        directed.connectNodes(0, 2, 10.0d);
+        CompressedSparseRowGraph<String, WeightedRib> directedCsr = CompressedSparseRowGraph.from(directed);
+        Assertions.assertTrue(directedCsr.isDirected());
+        Assertions.assertEquals(3, directedCsr.getRibCount());
+        Assertions.assertEquals(0, directedCsr.degreeOf(2));
+        Assertions.assertEquals(5.0d, GraphUtil.dijkstra("A", directedCsr).distances[2]);
+
+        // a directed copy of a directed copy is still directed
+        CompressedSparseRowGraph<String, WeightedRib> twice = CompressedSparseRowGraph.from(directedCsr);
+        Assertions.assertTrue(twice.isDirected());
+        Assertions.assertArrayEquals(directedCsr.getOffsets(), twice.getOffsets());
+        Assertions.assertArrayEquals(directedCsr.getTargets(), twice.getTargets());
+        Assertions.assertEquals(0, twice.degreeOf(2));
+    }
+
+    @Test
+    public void csrBuilderTest() {
+        CompressedSparseRowGraph<String, WeightedRib> graph = new CompressedSparseRowGraph.Builder<>(List.of("A", "B", "C", "D"), false)
+                .addRib("A", "B", 1.0d)
+                .addRib("B", "C", 2.0d)
+                .addRib("C", "D", 3.0d)
+                .addRib("A", "D", 10.0d)
+                .build();
+
+        Assertions.assertEquals(4, graph.getRibCount());
+        Assertions.assertEquals(2, graph.degreeOf(graph.indexOf("A")));
+        Assertions.assertEquals(6.0d, GraphUtil.dijkstra("A", graph).distances[graph.indexOf("D")]);
+        Assertions.assertEquals(6.0d, GraphUtil.jarnik(graph, 0).stream().mapToDouble(WeightedRib::getWeight).sum());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CompressedSparseRowGraph.Builder<>(List.of("A"), true).addRib(0, 1, 1.0d));
+    }
+}
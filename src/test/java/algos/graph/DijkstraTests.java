@@ -4,9 +4,7 @@
 package algos.graph;
 
 import algos.graph.exception.GraphInstantiationException;
-import algos.graph.objects.Crossroad;
-import algos.graph.objects.CrossroadsNode;
-import algos.graph.objects.WeightedRib;
+import algos.graph.objects.*;
 import algos.graph.specialized.CrossroadsWeightedAdjacencyMatrixGraph;
 import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
 import org.junit.jupiter.api.Assertions;
@@ -15,10 +13,11 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class DijkstraTests {
     static CrossroadsNode[] allNodes = new CrossroadsNode[Crossroad.values().length];
@@ -178,4 +177,213 @@ public class DijkstraTests {
 
         System.out.println("Adjacency matrix graph. Average dijkstra path build time " + avgTime + " millis.");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void indexedDijkstraCrossroadsWeightedIncidentalityListGraphTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+
+        for (int root = 0; root < graph.getNodeCount(); root++) {
+            GraphUtil.DijkstraResult<WeightedRib> expected = GraphUtil.dijkstra(graph.nodeAt(root), graph);
+            GraphUtil.IndexedDijkstraResult actual = GraphUtil.indexedDijkstra(graph, root, -1);
+            for (int i = 0; i < graph.getNodeCount(); i++) {
+                if (i != root && !expected.pathMap.containsKey(i)) {
+                    Assertions.assertFalse(actual.reached(i));
+                    Assertions.assertEquals(Double.POSITIVE_INFINITY, actual.distances[i]);
+                    Assertions.assertEquals(0, actual.pathTo(i).length);
+                    continue;
+                }
+                Assertions.assertEquals(expected.distances[i], actual.distances[i], 1e-9);
+                Assertions.assertEquals(actual.distances[i],
+                        GraphUtil.predecessorsToPathList(root, i, actual.predecessors, graph).stream().mapToDouble(WeightedRib::getWeight).sum(), 1e-9);
+
+                GraphUtil.IndexedDijkstraResult early = GraphUtil.indexedDijkstra(graph, root, i);
+                Assertions.assertEquals(actual.distances[i], early.distances[i], 1e-9);
+                Assertions.assertArrayEquals(actual.pathTo(i), early.pathTo(i));
+            }
+        }
+
+        GraphUtil.IndexedDijkstraResult result = GraphUtil.indexedDijkstra(graph.nodeAt(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_18_19_LINES)), graph.nodeAt(graph.indexOf(Crossroad.SMOLENKA_EMB_8_9_LINES)), graph);
+        int[] path = result.pathTo(graph.indexOf(Crossroad.SMOLENKA_EMB_8_9_LINES));
+        Assertions.assertEquals(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_18_19_LINES), path[0]);
+        Assertions.assertEquals(graph.indexOf(Crossroad.SMOLENKA_EMB_8_9_LINES), path[path.length - 1]);
+    }
+
+    @Test
+    public void bidirectionalDijkstraCrossroadsWeightedIncidentalityListGraphTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        BidirectionalDijkstra<CrossroadsNode, WeightedRib> bidirectional = new BidirectionalDijkstra<>(graph);
+
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            GraphUtil.IndexedDijkstraResult expected = GraphUtil.indexedDijkstra(graph, source, -1);
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                GraphUtil.DijkstraResult<WeightedRib> result = bidirectional.query(source, target);
+                if (source == target || !expected.reached(target)) {
+                    Assertions.assertTrue(result.pathMap.isEmpty());
+                    continue;
+                }
+                Assertions.assertEquals(expected.distances[target], result.distances[target], 1e-9);
+                List<WeightedRib> path = GraphUtil.pathMapToPathList(source, target, result.pathMap);
+                Assertions.assertEquals(expected.distances[target], path.stream().mapToDouble(WeightedRib::getWeight).sum(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void bidirectionalDijkstraWeightedIncidentalityListDirectedGraphTest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int nodeCount = 300;
+        ArrayList<Integer> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) nodes.add(i);
+        WeightedIncidentalityListDirectedGraph<Integer, WeightedArc> graph = new WeightedIncidentalityListDirectedGraph<>(nodes);
+        for (int i = 0; i < nodeCount * 4; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from != to) graph.connectNodes(from, to, random.nextInt(1, 100));
+        }
+
+        BidirectionalDijkstra<Integer, WeightedArc> bidirectional = new BidirectionalDijkstra<>(graph);
+        for (int source = 0; source < nodeCount; source += 7) {
+            GraphUtil.IndexedDijkstraResult expected = GraphUtil.indexedDijkstra(graph, source, -1);
+            for (int target = 0; target < nodeCount; target++) {
+                GraphUtil.DijkstraResult<WeightedArc> result = bidirectional.query(source, target);
+                if (source == target || !expected.reached(target)) {
+                    Assertions.assertTrue(result.pathMap.isEmpty());
+                    continue;
+                }
+                List<WeightedArc> path = GraphUtil.pathMapToPathList(source, target, result.pathMap);
+                Assertions.assertEquals(expected.distances[target], result.distances[target], 1e-9);
+                Assertions.assertEquals(expected.distances[target], WeightedIncidentalityListDirectedGraph.totalWeight(new ArrayList<>(path)), 1e-9);
+                Assertions.assertEquals(target, path.get(path.size() - 1).to);
+            }
+        }
+
+        GraphUtil.DijkstraResult<WeightedArc> result = GraphUtil.bidirectionalDijkstra(0, nodeCount - 1, graph);
+        Assertions.assertNotNull(result);
+    }
+
+    @Test
+    public void bidirectionalDijkstraParallelArcsTest() {
+        CompressedSparseRowGraph<Integer, WeightedRib> graph = new CompressedSparseRowGraph.Builder<>(List.of(0, 1, 2), true)
+                .addRib(0, 1, 1.0d)
+                .addRib(1, 2, 5.0d)
+                .addRib(1, 2, 1.0d)
+                .build();
+        Assertions.assertEquals(Set.of(new WeightedRib(1, 2, 1.0d)), graph.ribsOf(1));
+        Assertions.assertEquals(1.0d, GraphUtil.ribBetween(graph, 1, 2).weight);
+
+        GraphUtil.DijkstraResult<WeightedRib> result = new BidirectionalDijkstra<>(graph).query(0, 2);
+        Assertions.assertEquals(GraphUtil.dijkstra(0, graph).distances[2], result.distances[2]);
+        Assertions.assertEquals(2.0d, result.distances[2]);
+        Assertions.assertEquals(1.0d, result.distances[1]);
+        Assertions.assertEquals(1.0d, result.pathMap.get(2).weight);
+    }
+
+    @Test
+    public void deltaSteppingWeightedIncidentalityListGraphTest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int nodeCount = 20000;
+        ArrayList<Integer> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) nodes.add(i);
+        WeightedIncidentalityListGraph<Integer, WeightedRib> graph = new WeightedIncidentalityListGraph<>(nodes);
+        for (int i = 0; i < nodeCount * 4; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from != to) graph.connectNodes(from, to, random.nextInt(0, 100));
+        }
+
+        GraphUtil.DijkstraResult<WeightedRib> expected = GraphUtil.dijkstra(0, graph);
+        for (double delta : new double[]{1, 25, 1000}) {
+            LocalDateTime start = LocalDateTime.now();
+            GraphUtil.DijkstraResult<WeightedRib> result = GraphUtil.deltaStepping(0, graph, delta);
+            System.out.println("Delta-stepping with delta " + delta + " took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+            Assertions.assertArrayEquals(expected.distances, result.distances, 1e-9);
+            Assertions.assertEquals(expected.pathMap.keySet(), result.pathMap.keySet());
+            for (var entry : result.pathMap.entrySet()) {
+                WeightedRib rib = entry.getValue();
+                Assertions.assertEquals(entry.getKey(), rib.to);
+                Assertions.assertEquals(result.distances[rib.to], result.distances[rib.from] + rib.weight, 1e-9);
+            }
+        }
+        // the path map is a tree, so every path leads back to the root
+        GraphUtil.DijkstraResult<WeightedRib> result = new DeltaStepping<>(graph, 10).run(0);
+        for (int target : result.pathMap.keySet())
+            Assertions.assertEquals(0, GraphUtil.pathMapToPathList(0, target, result.pathMap).get(0).from);
+    }
+
+    @Test
+    public void deltaSteppingParallelTest() {
+        Random random = new Random(42);
+        int nodeCount = 1_000_000, arcCount = 5_000_000;
+        int[] from = random.ints(arcCount, 0, nodeCount).toArray(), to = random.ints(arcCount, 0, nodeCount).toArray();
+        double[] weights = random.ints(arcCount, 1, 100).asDoubleStream().toArray();
+        CompressedSparseRowGraph<Integer, WeightedRib> graph = new CompressedSparseRowGraph.Builder<>(
+                IntStream.range(0, nodeCount).boxed().toList(), true).addRibs(from, to, weights).build();
+
+        LocalDateTime start = LocalDateTime.now();
+        GraphUtil.DijkstraResult<WeightedRib> expected = GraphUtil.dijkstra(0, graph);
+        System.out.println("Dijkstra over " + arcCount + " arcs took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        // the average weight over the average degree
+        double delta = 10;
+        ForkJoinPool single = new ForkJoinPool(1), parallel = new ForkJoinPool(4);
+        try {
+            DeltaStepping<Integer, WeightedRib> sequential = new DeltaStepping<>(graph, delta, single), concurrent = new DeltaStepping<>(graph, delta, parallel);
+            start = LocalDateTime.now();
+            GraphUtil.DijkstraResult<WeightedRib> one = sequential.run(0);
+            System.out.println("Delta-stepping over " + arcCount + " arcs on a single thread took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+            start = LocalDateTime.now();
+            GraphUtil.DijkstraResult<WeightedRib> four = concurrent.run(0);
+            System.out.println("Delta-stepping over " + arcCount + " arcs on 4 threads took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+            Assertions.assertArrayEquals(expected.distances, one.distances, 1e-9);
+            Assertions.assertArrayEquals(expected.distances, four.distances, 1e-9);
+            Assertions.assertEquals(expected.pathMap.size(), four.pathMap.size());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void forEachNeighborMatchesRibsOfTest() throws GraphInstantiationException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int nodeCount = 100;
+        Integer[] nodes = new Integer[nodeCount];
+        for (int i = 0; i < nodeCount; i++) nodes[i] = i;
+        WeightedAdjacencyMatrixGraph<Integer, WeightedRib> matrix = new WeightedAdjacencyMatrixGraph<>(nodes, new double[nodeCount][nodeCount]);
+        WeightedAdjacencyMatrixDirectedGraph<Integer, WeightedArc> directedMatrix = new WeightedAdjacencyMatrixDirectedGraph<>(nodes, new double[nodeCount][nodeCount]);
+        WeightedIncidentalityListGraph<Integer, WeightedRib> list = new WeightedIncidentalityListGraph<>(new ArrayList<>(List.of(nodes)));
+        WeightedIncidentalityListDirectedGraph<Integer, WeightedArc> directedList = new WeightedIncidentalityListDirectedGraph<>(new ArrayList<>(List.of(nodes)));
+        AdjacencyMatrixGraph<Integer, Rib> weightless = new AdjacencyMatrixGraph<>(nodes, new boolean[nodeCount][nodeCount]);
+        // a pair is connected once, since a list graph keeps the first of repeated ribs and a matrix graph the last one
+        boolean[][] connected = new boolean[nodeCount][nodeCount];
+        for (int i = 0; i < nodeCount * 4; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from == to || connected[from][to] || connected[to][from]) continue;
+            connected[from][to] = true;
+            double weight = random.nextInt(1, 100);
+            matrix.connectNodes(from, to, weight);
+            directedMatrix.connectNodes(from, to, weight);
+            list.connectNodes(from, to, weight);
+            directedList.connectNodes(from, to, weight);
+            weightless.connectNodes(from, to);
+        }
+
+        List<Graph<Integer, ?>> graphs = List.of(matrix, directedMatrix, list, directedList, weightless,
+                CompressedSparseRowGraph.from(directedList), BitMatrixGraph.from(list));
+        for (Graph<Integer, ?> graph : graphs)
+            for (int i = 0; i < nodeCount; i++) {
+                int node = i;
+                Map<Integer, Double> expected = new HashMap<>(), visited = new HashMap<>();
+                graph.ribsOf(i).stream().filter(rib -> rib.from == node).forEach(rib -> expected.put(rib.to, GraphUtil.weightOf(rib)));
+                graph.forEachNeighbor(i, (to, weight) -> Assertions.assertNull(visited.put(to, weight)));
+                Assertions.assertEquals(expected, visited, graph.getClass().getSimpleName());
+            }
+
+        // the ported Dijkstra algorithm finds the same distances on every backend, and its path map is made of the graph's own ribs
+        GraphUtil.DijkstraResult<WeightedRib> fromMatrix = GraphUtil.dijkstra(0, matrix);
+        GraphUtil.DijkstraResult<WeightedRib> fromList = GraphUtil.dijkstra(0, list);
+        Assertions.assertArrayEquals(fromMatrix.distances, fromList.distances);
+        for (Map.Entry<Integer, WeightedRib> entry : fromList.pathMap.entrySet()) {
+            Assertions.assertTrue(list.ribsOf(entry.getValue().from).contains(entry.getValue()));
+            Assertions.assertEquals(fromList.distances[entry.getKey()], fromList.distances[entry.getValue().from] + entry.getValue().weight, 1e-9);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.*;
+import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class DistanceMatrixTests {
+
+    @Test
+    public void crossroadsDistanceMatrixTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        List<CrossroadsNode> sources = List.of(graph.nodeAt(0), graph.nodeAt(3), graph.nodeAt(7));
+        List<CrossroadsNode> targets = List.of(graph.nodeAt(1), graph.nodeAt(5), graph.nodeAt(1), graph.nodeAt(0));
+        double[] matrix = new DistanceMatrix<>(graph).compute(sources, targets);
+
+        Assertions.assertEquals(sources.size() * targets.size(), matrix.length);
+        for (int i = 0; i < sources.size(); i++) {
+            double[] distances = GraphUtil.dijkstra(sources.get(i), graph).distances;
+            for (int j = 0; j < targets.size(); j++)
+                Assertions.assertEquals(distances[graph.indexOf(targets.get(j))], matrix[i * targets.size() + j]);
+        }
+        Assertions.assertEquals(0, new DistanceMatrix<>(graph).compute(new int[0], new int[]{1}).length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DistanceMatrix<>(graph).compute(new int[]{0}, new int[]{-1}));
+    }
+
+    @Test
+    public void distanceMatrixTest() {
+        int nodeCount = 50_000, ribCount = 150_000, size = 64;
+        Random random = new Random(42);
+        IncidentalityListGraphBuilder<Integer> builder = new IncidentalityListGraphBuilder<>(IntStream.range(0, nodeCount).boxed().toList(), ribCount);
+        for (int i = 0; i < ribCount; i++) builder.addRib(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(1, 100));
+        WeightedIncidentalityListDirectedGraph<Integer, WeightedArc> graph = builder.buildWeightedDirected();
+        int[] sources = random.ints(size, 0, nodeCount).toArray(), targets = random.ints(size, 0, nodeCount).toArray();
+
+        LocalDateTime start = LocalDateTime.now();
+        double[][] expected = new double[size][];
+        for (int i = 0; i < size; i++) expected[i] = GraphUtil.indexedDijkstra(graph, sources[i], -1).distances;
+        System.out.println(size + " full searches took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        DistanceMatrix<Integer> distanceMatrix = new DistanceMatrix<>(graph, new ForkJoinPool(4));
+        start = LocalDateTime.now();
+        double[] matrix = distanceMatrix.compute(sources, targets);
+        System.out.println("A " + size + "x" + size + " distance matrix took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        for (int i = 0; i < size; i++)
+            for (int j = 0; j < size; j++)
+                Assertions.assertEquals(expected[i][targets[j]], matrix[i * size + j]);
+
+        // a changed graph gets a new copy
+        graph.connectNodes(sources[0], targets[0], 0.5d);
+        Assertions.assertEquals(0.5d, distanceMatrix.compute(new int[]{sources[0]}, new int[]{targets[0]})[0]);
+    }
+}
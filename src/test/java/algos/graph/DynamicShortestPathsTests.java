@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class DynamicShortestPathsTests {
+
+    @Test
+    public void dynamicShortestPathsTest() throws GraphInstantiationException {
+        int nodeCount = 300;
+        Integer[] nodes = IntStream.range(0, nodeCount).boxed().toArray(Integer[]::new);
+        List<WeightedGraph<Integer, ?>> graphs = List.of(
+                new WeightedIncidentalityListDirectedGraph<Integer, WeightedArc>(new ArrayList<>(List.of(nodes))),
+                new WeightedIncidentalityListGraph<Integer, WeightedRib>(new ArrayList<>(List.of(nodes))),
+                new WeightedAdjacencyMatrixDirectedGraph<Integer, WeightedArc>(nodes.clone(), new double[nodeCount][nodeCount]),
+                new WeightedAdjacencyMatrixGraph<Integer, WeightedRib>(nodes.clone(), new double[nodeCount][nodeCount]));
+        for (WeightedGraph<Integer, ?> graph : graphs) {
+            Random random = new Random(42);
+            for (int i = 0; i < nodeCount * 3; i++) graph.connectNodes(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(1, 100));
+            DynamicShortestPaths<Integer> paths = new DynamicShortestPaths<>(graph, 0);
+            Assertions.assertArrayEquals(GraphUtil.indexedDijkstra(graph, 0, -1).distances, paths.getDistances());
+
+            for (int step = 0; step < 1000; step++) {
+                int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+                switch (random.nextInt(3)) {
+                    case 0 -> paths.connectNodes(from, to, random.nextInt(1, 100));
+                    case 1 -> paths.disconnectNodes(from, to);
+                    default -> paths.setWeight(from, to, random.nextInt(1, 100));
+                }
+                Assertions.assertArrayEquals(GraphUtil.indexedDijkstra(graph, 0, -1).distances, paths.getDistances(), graph.getClass() + ", step " + step);
+            }
+
+            int[] path = paths.pathTo(nodeCount - 1);
+            double length = 0;
+            for (int i = 1; i < path.length; i++) {
+                int next = path[i];
+                double[] lightest = {Double.POSITIVE_INFINITY};
+                graph.forEachNeighbor(path[i - 1], (to, weight) -> {
+                    if (to == next) lightest[0] = Math.min(lightest[0], weight);
+                });
+                length += lightest[0];
+            }
+            if (path.length > 0) Assertions.assertEquals(paths.distanceTo(nodeCount - 1), length, 1e-9);
+
+            // a change made behind its back is noticed as well
+            graph.connectNodes(0, nodeCount - 1, 1.0d);
+            Assertions.assertEquals(1.0d, paths.distanceTo(nodeCount - 1));
+            Assertions.assertEquals(nodeCount, paths.getLastRepairSize());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DynamicShortestPaths<>(graphs.get(0), 0).connectNodes(0, 1, -1.0d));
+    }
+
+    @Test
+    public void dynamicShortestPathsPerformanceTest() {
+        int side = 300, nodeCount = side * side, updates = 2000;
+        Random random = new Random(42);
+        IncidentalityListGraphBuilder<Integer> builder = new IncidentalityListGraphBuilder<>(IntStream.range(0, nodeCount).boxed().toList(), nodeCount * 2);
+        for (int i = 0; i < nodeCount; i++) {
+            if (i % side + 1 < side) builder.addRib(i, i + 1, random.nextInt(1, 100));
+            if (i + side < nodeCount) builder.addRib(i, i + side, random.nextInt(1, 100));
+        }
+        WeightedIncidentalityListGraph<Integer, WeightedRib> graph = builder.buildWeighted();
+        DynamicShortestPaths<Integer> paths = new DynamicShortestPaths<>(graph, nodeCount / 2);
+
+        long repaired = 0;
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < updates; i++) {
+            int from = random.nextInt(nodeCount - side);
+            paths.setWeight(from, from + side, random.nextInt(1, 100));
+            repaired += paths.getLastRepairSize();
+        }
+        System.out.println(updates + " weight updates on a grid of " + nodeCount + " nodes took " + Duration.between(start, LocalDateTime.now()).toMillis()
+                + " millis, " + repaired / updates + " nodes repaired per update on average.");
+
+        start = LocalDateTime.now();
+        double[] expected = GraphUtil.indexedDijkstra(graph, nodeCount / 2, -1).distances;
+        System.out.println("A single search from scratch took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertArrayEquals(expected, paths.getDistances());
+    }
+}
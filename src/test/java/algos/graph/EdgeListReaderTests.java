@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.WeightedRib;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class EdgeListReaderTests {
+
+    @Test
+    public void dimacsTest(@TempDir Path directory) throws IOException {
+        Path gr = Files.writeString(directory.resolve("small.gr"), """
+                c 9th DIMACS Implementation Challenge: Shortest Paths
+                c a graph of 4 nodes and 5 arcs
+                p sp 4 5\r
+                a 1 2 7\r
+                a 2 3 2
+                a 1 3 10
+
+                a 3 4 1
+                a 4 1 3""");
+        EdgeListReader.EdgeList arcs = EdgeListReader.readDimacs(gr);
+        Assertions.assertEquals(4, arcs.nodeCount);
+        Assertions.assertEquals(5, arcs.size());
+        Assertions.assertArrayEquals(new int[]{0, 1, 0, 2, 3}, arcs.from);
+        Assertions.assertArrayEquals(new int[]{1, 2, 2, 3, 0}, arcs.to);
+        Assertions.assertArrayEquals(new double[]{7, 2, 10, 1, 3}, arcs.weight);
+
+        Integer[] nodes = IntStream.range(0, arcs.nodeCount).boxed().toArray(Integer[]::new);
+        CompressedSparseRowGraph<Integer, WeightedRib> graph = arcs.feed(new CompressedSparseRowGraph.Builder<>(nodes, true)).build();
+        Assertions.assertArrayEquals(new double[]{0, 7, 9, 10}, GraphUtil.indexedDijkstra(graph, 0, -1).distances);
+        Assertions.assertEquals(5, arcs.feed(new IncidentalityListGraphBuilder<>(List.of(nodes))).buildWeightedDirected().getArcCount());
+
+        Path co = Files.writeString(directory.resolve("small.co"), """
+                c coordinates in millionths of a degree
+                p aux sp co 4
+                v 1 30315868 59939095
+                v 2 -73985656 40748817
+                v 3 0 0
+                v 4 24945831 60192059
+                """);
+        EdgeListReader.Coordinates coordinates = EdgeListReader.readDimacsCoordinates(co);
+        Assertions.assertEquals(4, coordinates.size());
+        EdgeListReader.Location spb = coordinates.toNodes()[0];
+        Assertions.assertEquals(59.939095, spb.getLatitude(), 1e-9);
+        Assertions.assertEquals(30.315868, spb.getLongitude(), 1e-9);
+        Assertions.assertEquals(-73.985656, coordinates.longitudes[1], 1e-9);
+
+        Path bad = Files.writeString(directory.resolve("bad.gr"), "p sp 2 1\na 1 x 5\n");
+        Assertions.assertThrows(IOException.class, () -> EdgeListReader.readDimacs(bad));
+        Path outOfRange = Files.writeString(directory.resolve("range.gr"), "p sp 2 1\na 1 3 5\n");
+        Assertions.assertThrows(IOException.class, () -> EdgeListReader.readDimacs(outOfRange));
+        Path noProblem = Files.writeString(directory.resolve("none.gr"), "a 1 2 5\n");
+        Assertions.assertThrows(IOException.class, () -> EdgeListReader.readDimacs(noProblem));
+    }
+
+    @Test
+    public void edgeListTest(@TempDir Path directory) throws IOException {
+        Path tsv = Files.writeString(directory.resolve("edges.tsv"), """
+                # from	to	weight
+                0	1	2.5
+                1	2
+                  2 3 -1.25e2\r
+                % a comment
+
+                3	0	0.125""");
+        EdgeListReader.EdgeList ribs = EdgeListReader.readEdgeList(tsv);
+        Assertions.assertEquals(4, ribs.nodeCount);
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 3}, ribs.from);
+        Assertions.assertArrayEquals(new int[]{1, 2, 3, 0}, ribs.to);
+        Assertions.assertArrayEquals(new double[]{2.5, 1.0, -125.0, 0.125}, ribs.weight);
+
+        Integer[] nodes = IntStream.range(0, ribs.nodeCount).boxed().toArray(Integer[]::new);
+        CompressedSparseRowGraph<Integer, WeightedRib> graph = ribs.feed(new CompressedSparseRowGraph.Builder<>(nodes, false)).build();
+        Assertions.assertEquals(4, graph.getRibCount());
+        Assertions.assertEquals(2, graph.degreeOf(0));
+
+        IncidentalityListGraphBuilder<Integer> streamed = new IncidentalityListGraphBuilder<>(List.of(nodes));
+        Assertions.assertEquals(4, EdgeListReader.feedEdgeList(tsv, ForkJoinPool.commonPool(), streamed::addRibs));
+        Assertions.assertEquals(4, streamed.getRibCount());
+
+        Path bad = Files.writeString(directory.resolve("bad.tsv"), "0\t1\n2\n");
+        Assertions.assertThrows(IOException.class, () -> EdgeListReader.readEdgeList(bad));
+        Assertions.assertThrows(IOException.class, () -> EdgeListReader.feedEdgeList(bad, ForkJoinPool.commonPool(), streamed::addRibs));
+    }
+
+    @Test
+    public void parallelDimacsTest(@TempDir Path directory) throws IOException {
+        int nodeCount = 1_000_000, arcCount = 3_000_000;
+        Random random = new Random(42);
+        Path gr = directory.resolve("random.gr");
+        try (BufferedWriter writer = Files.newBufferedWriter(gr)) {
+            writer.write("c random graph\np sp " + nodeCount + " " + arcCount + "\n");
+            for (int i = 0; i < arcCount; i++)
+                writer.write("a " + (random.nextInt(nodeCount) + 1) + " " + (random.nextInt(nodeCount) + 1) + " " + random.nextInt(1, 10_000) + "\n");
+        }
+
+        LocalDateTime start = LocalDateTime.now();
+        EdgeListReader.EdgeList sequential = EdgeListReader.readDimacs(gr, new ForkJoinPool(1));
+        System.out.println("Sequential reading of " + Files.size(gr) + " bytes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        start = LocalDateTime.now();
+        EdgeListReader.EdgeList parallel = EdgeListReader.readDimacs(gr, new ForkJoinPool(4));
+        System.out.println("Parallel reading of " + Files.size(gr) + " bytes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        Assertions.assertEquals(arcCount, sequential.size());
+        Assertions.assertEquals(nodeCount, parallel.nodeCount);
+        Assertions.assertArrayEquals(sequential.from, parallel.from);
+        Assertions.assertArrayEquals(sequential.to, parallel.to);
+        Assertions.assertArrayEquals(sequential.weight, parallel.weight);
+
+        // streaming the ranges into a builder makes the same graph without the whole list of arcs in memory
+        Integer[] nodes = IntStream.range(0, EdgeListReader.readDimacsNodeCount(gr)).boxed().toArray(Integer[]::new);
+        CompressedSparseRowGraph.Builder<Integer> streamed = new CompressedSparseRowGraph.Builder<>(nodes, true);
+        start = LocalDateTime.now();
+        Assertions.assertEquals(arcCount, EdgeListReader.feedDimacs(gr, new ForkJoinPool(4), streamed::addRibs));
+        CompressedSparseRowGraph<Integer, WeightedRib> graph = streamed.build();
+        System.out.println("Streaming " + Files.size(gr) + " bytes into a builder took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        CompressedSparseRowGraph<Integer, WeightedRib> expected = parallel.feed(new CompressedSparseRowGraph.Builder<>(nodes, true)).build();
+        Assertions.assertEquals(expected.getRibCount(), graph.getRibCount());
+        for (int i = 0; i < nodeCount; i += 997) Assertions.assertEquals(expected.ribsOf(i), graph.ribsOf(i));
+    }
+}
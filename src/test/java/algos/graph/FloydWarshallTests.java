@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.WeightedArc;
+import algos.graph.objects.WeightedRib;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class FloydWarshallTests {
+
+    @Test
+    public void floydWarshallWeightedAdjacencyMatrixGraphTest() throws GraphInstantiationException {
+        WeightedAdjacencyMatrixGraph<String, WeightedRib> graph =
+                new WeightedAdjacencyMatrixGraph<>(new String[]{"A", "B", "C", "D", "E", "F", "J", "K", "Y"}, new double[9][9]);
+        graph.connectNodes(graph.indexOf("A"), graph.indexOf("B"), 1.0d);
+        graph.connectNodes(graph.indexOf("A"), graph.indexOf("D"), 10.0d);
+        graph.connectNodes(graph.indexOf("B"), graph.indexOf("C"), 1.0d);
+        graph.connectNodes(graph.indexOf("C"), graph.indexOf("F"), 1.0d);
+        graph.connectNodes(graph.indexOf("B"), graph.indexOf("E"), 1.0d);
+        graph.connectNodes(graph.indexOf("F"), graph.indexOf("E"), 1.0d);
+        graph.connectNodes(graph.indexOf("E"), graph.indexOf("D"), 1.0d);
+        graph.connectNodes(graph.indexOf("D"), graph.indexOf("J"), 1.0d);
+
+        FloydWarshall paths = FloydWarshall.of(graph);
+        Assertions.assertFalse(paths.hasNegativeCycle());
+        Assertions.assertEquals(3.0d, paths.distance(graph.indexOf("A"), graph.indexOf("D")));
+        Assertions.assertEquals(graph.indexOf("B"), paths.nextHop(graph.indexOf("A"), graph.indexOf("D")));
+        Assertions.assertArrayEquals(new int[]{graph.indexOf("A"), graph.indexOf("B"), graph.indexOf("E"), graph.indexOf("D"), graph.indexOf("J")},
+                paths.path(graph.indexOf("A"), graph.indexOf("J")));
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, paths.distance(graph.indexOf("A"), graph.indexOf("K")));
+        Assertions.assertEquals(-1, paths.nextHop(graph.indexOf("A"), graph.indexOf("K")));
+        Assertions.assertEquals(0, paths.path(graph.indexOf("A"), graph.indexOf("K")).length);
+        Assertions.assertEquals(.0d, paths.distance(graph.indexOf("K"), graph.indexOf("K")));
+    }
+
+    @Test
+    public void floydWarshallWeightedAdjacencyMatrixDirectedGraphTest() throws GraphInstantiationException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int nodeCount = 300;
+        Integer[] nodes = new Integer[nodeCount];
+        for (int i = 0; i < nodeCount; i++) nodes[i] = i;
+        WeightedAdjacencyMatrixDirectedGraph<Integer, WeightedArc> graph = new WeightedAdjacencyMatrixDirectedGraph<>(nodes, new double[nodeCount][nodeCount]);
+        for (int i = 0; i < nodeCount * 5; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from != to) graph.connectNodes(from, to, random.nextInt(1, 100));
+        }
+
+        LocalDateTime start = LocalDateTime.now();
+        FloydWarshall paths = FloydWarshall.of(graph);
+        System.out.println("Blocked Floyd-Warshall algorithm took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis for " + nodeCount + " nodes.");
+        // a block size which doesn't divide the node count leaves ragged tiles at the edges
+        FloydWarshall ragged = new FloydWarshall(graph.getAdjacencyMatrixWeighted(), 17, ForkJoinPool.commonPool());
+        Assertions.assertArrayEquals(paths.getDistances(), ragged.getDistances());
+
+        double[][] matrix = graph.getAdjacencyMatrixWeighted();
+        for (int source = 0; source < nodeCount; source++) {
+            GraphUtil.IndexedDijkstraResult expected = GraphUtil.indexedDijkstra(graph, source, -1);
+            for (int target = 0; target < nodeCount; target++) {
+                Assertions.assertEquals(expected.distances[target], paths.distance(source, target), 1e-9);
+                int[] path = paths.path(source, target);
+                if (!expected.reached(target)) {
+                    Assertions.assertEquals(0, path.length);
+                    continue;
+                }
+                double weight = 0;
+                for (int i = 1; i < path.length; i++) weight += matrix[path[i - 1]][path[i]];
+                Assertions.assertEquals(expected.distances[target], weight, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void floydWarshallTooLargeTest() {
+        // 46341 squared overflows an int, and the rows aren't looked at before the size is checked
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FloydWarshall(new double[46_341][], 64, ForkJoinPool.commonPool()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FloydWarshall(new double[65_536][], 64, ForkJoinPool.commonPool()));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.*;
+import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class GraphFileTests {
+    private static final GraphFile.NodeCodec<CrossroadsNode> CROSSROADS =
+            GraphFile.NodeCodec.of(node -> node.getCrossroad().name(), label -> new CrossroadsNode(Crossroad.valueOf(label)));
+
+    @Test
+    public void graphFileRoundTripTest(@TempDir Path directory) throws IOException {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        Path file = directory.resolve("crossroads.grf");
+        GraphFile.write(graph, CROSSROADS, file);
+        MappedGraph<CrossroadsNode> mapped = MappedGraph.open(file, CROSSROADS);
+
+        Assertions.assertFalse(mapped.isDirected());
+        Assertions.assertEquals(graph.getNodeCount(), mapped.getNodeCount());
+        Assertions.assertEquals(graph.getRibCount(), mapped.getRibCount());
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            Assertions.assertEquals(graph.nodeAt(i).getCrossroad(), mapped.nodeAt(i).getCrossroad());
+            Assertions.assertSame(mapped.nodeAt(i), mapped.nodeAt(i));
+            Assertions.assertEquals(i, mapped.indexOf(new CrossroadsNode(graph.nodeAt(i).getCrossroad())));
+            Assertions.assertEquals(graph.ribsOf(i), mapped.ribsOf(i));
+            Assertions.assertEquals(mapped.ribsOf(i).size(), mapped.successorsOf(i).size());
+        }
+
+        CrossroadsNode root = graph.nodeAt(0);
+        Assertions.assertArrayEquals(GraphUtil.dijkstra(root, graph).distances, GraphUtil.dijkstra(root, mapped).distances);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.connectNodes(0, 1, 1.0d));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.disconnectNodes(0, 1));
+
+        // a graph without nodes makes a valid file as well
+        Path empty = directory.resolve("empty.grf");
+        GraphFile.write(new IncidentalityListGraph<String, Rib>(new ArrayList<>()), GraphFile.NodeCodec.strings(), empty);
+        Assertions.assertEquals(0, MappedGraph.open(empty, GraphFile.NodeCodec.strings()).getNodeCount());
+    }
+
+    @Test
+    public void directedGraphFileRoundTripTest(@TempDir Path directory) throws IOException {
+        int nodeCount = 200;
+        Random random = new Random(42);
+        CompressedSparseRowGraph.Builder<Integer> builder = new CompressedSparseRowGraph.Builder<>(IntStream.range(0, nodeCount).boxed().toList(), true);
+        for (int i = 0; i < nodeCount * 4; i++) builder.addRib(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(1, 100));
+        CompressedSparseRowGraph<Integer, WeightedRib> csr = builder.build();
+        Path file = directory.resolve("directed.grf");
+        GraphFile.write(csr, GraphFile.NodeCodec.integers(), file);
+        MappedGraph<Integer> mapped = MappedGraph.open(file, GraphFile.NodeCodec.integers());
+        Assertions.assertTrue(mapped.isDirected());
+        Assertions.assertTrue(GraphUtil.isDirected(mapped));
+
+        // a mapped graph written anew stays directed
+        Path copy = directory.resolve("copy.grf");
+        GraphFile.write(mapped, GraphFile.NodeCodec.integers(), copy);
+        MappedGraph<Integer> remapped = MappedGraph.open(copy, GraphFile.NodeCodec.integers());
+        Assertions.assertTrue(remapped.isDirected());
+        Assertions.assertEquals(csr.getRibCount(), remapped.getRibCount());
+
+        BidirectionalDijkstra<Integer, WeightedRib> search = new BidirectionalDijkstra<>(remapped);
+        for (int source = 0; source < nodeCount; source += 7) {
+            double[] expected = GraphUtil.indexedDijkstra(csr, source, -1).distances;
+            for (int target = 0; target < nodeCount; target += 5)
+                Assertions.assertEquals(expected[target], search.query(source, target).distances[target], 1e-9);
+        }
+    }
+
+    @Test
+    public void graphFileRejectsForeignFilesTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("graph.grf");
+        GraphFile.write(CompressedSparseRowGraphTests.crossroadsGraph(), CROSSROADS, file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, GraphFile.VERSION + 1), 4);
+        }
+        Assertions.assertThrows(IOException.class, () -> MappedGraph.open(file, CROSSROADS));
+
+        Path text = Files.writeString(directory.resolve("graph.txt"), "not a graph");
+        Assertions.assertThrows(IOException.class, () -> MappedGraph.open(text, CROSSROADS));
+
+        GraphFile.write(CompressedSparseRowGraphTests.crossroadsGraph(), CROSSROADS, file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 8);
+        }
+        Assertions.assertThrows(IOException.class, () -> MappedGraph.open(file, CROSSROADS));
+
+        // section positions sit at bytes 32 to 63 of the header: a negative, a misaligned and a swapped one
+        for (long[] patch : new long[][]{{40, -8}, {48, 1}, {56, 0}, {32, 1L << 40}}) {
+            GraphFile.write(CompressedSparseRowGraphTests.crossroadsGraph(), CROSSROADS, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer position = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(position, patch[0]);
+                channel.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, patch[1] == 1 ? position.getLong(0) + 4 : patch[1]), patch[0]);
+            }
+            Assertions.assertThrows(IOException.class, () -> MappedGraph.open(file, CROSSROADS));
+        }
+
+        // offsets which decrease
+        GraphFile.write(CompressedSparseRowGraphTests.crossroadsGraph(), CROSSROADS, file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer position = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(position, 40);
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, Integer.MAX_VALUE), position.getLong(0) + 4);
+        }
+        Assertions.assertThrows(IOException.class, () -> MappedGraph.open(file, CROSSROADS));
+    }
+
+    @Test
+    public void mappedGraphPerformanceTest(@TempDir Path directory) throws IOException {
+        int nodeCount = 200_000, ribCount = 1_000_000;
+        Random random = new Random(42);
+        Integer[] nodes = IntStream.range(0, nodeCount).boxed().toArray(Integer[]::new);
+        CompressedSparseRowGraph.Builder<Integer> builder = new CompressedSparseRowGraph.Builder<>(nodes, true);
+        for (int i = 0; i < ribCount; i++) builder.addRib(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(1, 100));
+        CompressedSparseRowGraph<Integer, WeightedRib> graph = builder.build();
+        Path file = directory.resolve("random.grf");
+
+        LocalDateTime start = LocalDateTime.now();
+        GraphFile.write(graph, GraphFile.NodeCodec.integers(), file);
+        System.out.println("Writing " + ribCount + " arcs took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis, " + Files.size(file) + " bytes.");
+        start = LocalDateTime.now();
+        MappedGraph<Integer> mapped = MappedGraph.open(file, GraphFile.NodeCodec.integers());
+        System.out.println("Opening the mapped graph took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        Assertions.assertTrue(mapped.isDirected());
+        Assertions.assertEquals(ribCount, mapped.getRibCount());
+        Assertions.assertEquals(12345, mapped.indexOf(12345));
+        Assertions.assertEquals(-1, mapped.indexOf(nodeCount));
+        start = LocalDateTime.now();
+        double[] distances = GraphUtil.indexedDijkstra(mapped, 0, -1).distances;
+        System.out.println("Dijkstra over the mapped graph took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertArrayEquals(GraphUtil.indexedDijkstra(graph, 0, -1).distances, distances);
+    }
+}
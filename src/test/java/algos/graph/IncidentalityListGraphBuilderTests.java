@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class IncidentalityListGraphBuilderTests {
+
+    @Test
+    public void bulkWeightedIncidentalityListGraphTest() {
+        int nodeCount = 100_000, ribCount = 1_000_000;
+        Random random = new Random(42);
+        List<Integer> nodes = IntStream.range(0, nodeCount).boxed().toList();
+        int[] from = new int[ribCount], to = new int[ribCount];
+        double[] weights = new double[ribCount];
+        for (int i = 0; i < ribCount; i++) {
+            from[i] = random.nextInt(nodeCount);
+            to[i] = random.nextInt(nodeCount);
+            weights[i] = random.nextInt(1, 100);
+        }
+
+        LocalDateTime start = LocalDateTime.now();
+        WeightedIncidentalityListGraph<Integer, WeightedRib> graph = new IncidentalityListGraphBuilder<>(nodes, ribCount)
+                .addRibs(from, to, weights)
+                .buildWeighted();
+        System.out.println("Bulk load of " + ribCount + " ribs took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        // the rib count is kept along the way and matches the rib sets
+        long ends = IntStream.range(0, nodeCount).mapToLong(i -> graph.ribsOf(i).size()).sum();
+        long loops = IntStream.range(0, nodeCount).filter(i -> graph.ribsOf(i).stream().anyMatch(rib -> rib.to == i)).count();
+        Assertions.assertEquals((ends + loops) / 2, graph.getRibCount());
+        Assertions.assertTrue(graph.getRibCount() <= ribCount);
+
+        long count = graph.getModificationCount();
+        graph.connectNodes(from[0], to[0], 1.0d);
+        Assertions.assertEquals(ends, IntStream.range(0, nodeCount).mapToLong(i -> graph.ribsOf(i).size()).sum());
+        int ribs = graph.getRibCount();
+        graph.disconnectNodes(from[1], to[1]);
+        Assertions.assertEquals(ribs - 1, graph.getRibCount());
+        Assertions.assertTrue(graph.getModificationCount() > count);
+    }
+
+    @Test
+    public void bulkLoadMatchesRibByRibTest() {
+        ArrayList<String> nodes = new ArrayList<>(List.of("A", "B", "C", "D", "E"));
+        WeightedIncidentalityListDirectedGraph<String, WeightedArc> expected = new WeightedIncidentalityListDirectedGraph<>(new ArrayList<>(nodes));
+        expected.connectNodes(0, 1, 2.0d);
+        expected.connectNodes(1, 2, 3.0d);
+        expected.connectNodes(2, 0, 4.0d);
+        expected.connectNodes(3, 4, 5.0d);
+        expected.connectNodes(3, 4, 6.0d);
+
+        IncidentalityListGraphBuilder<String> builder = new IncidentalityListGraphBuilder<>(nodes.subList(0, 4));
+        int e = builder.addNode("E");
+        builder.addRibs(Stream.of(new WeightedArc(0, 1, 2.0d), new WeightedArc(1, 2, 3.0d), new WeightedArc(2, 0, 4.0d)))
+                .addRib(3, e, 5.0d)
+                .addRib(3, e, 6.0d);
+        WeightedIncidentalityListDirectedGraph<String, WeightedArc> directed = builder.buildWeightedDirected();
+        Assertions.assertEquals(4, directed.getArcCount());
+        Assertions.assertEquals(expected.getArcCount(), directed.getArcCount());
+        for (int i = 0; i < nodes.size(); i++) Assertions.assertEquals(expected.arcsOf(i), directed.arcsOf(i));
+        Assertions.assertEquals(GraphUtil.indexedDijkstra(expected, 0, -1).distances[2], GraphUtil.indexedDijkstra(directed, 0, -1).distances[2]);
+
+        IncidentalityListGraph<String, Rib> undirected = builder.build();
+        Assertions.assertEquals(4, undirected.getRibCount());
+        Assertions.assertEquals(2, undirected.ribsOf(0).size());
+        undirected.disconnectNodes(0, 1);
+        Assertions.assertEquals(3, undirected.getRibCount());
+        Assertions.assertTrue(undirected.ribsOf(1).stream().allMatch(rib -> rib.to == 2));
+        Assertions.assertEquals(4, builder.buildDirected().getArcCount());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.addRib(0, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.addRibs(new int[1], new int[2], new double[1]));
+    }
+}
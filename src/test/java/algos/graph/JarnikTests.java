@@ -12,9 +12,12 @@ import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import static algos.graph.objects.City.*;
@@ -235,6 +238,28 @@ public class JarnikTests {
             Assertions.assertEquals(5484.0d, result);
         }
         GraphUtil.printWeighted(minimalSpanningTree, graph);
+
+        List<WeightedRib> kruskal = GraphUtil.kruskal(graph);
+        Assertions.assertEquals(Crossroad.values().length - 1, kruskal.size());
+        Assertions.assertEquals(5484.0d, kruskal.stream().mapToDouble(WeightedRib::getWeight).sum());
+        GraphUtil.SpanningTree tree = GraphUtil.eagerJarnik(graph, 0);
+        Assertions.assertEquals(5484.0d, tree.totalWeight());
+        List<WeightedRib> eager = GraphUtil.eagerJarnikList(graph, 0);
+        for (int k = 0; k < tree.size(); k++) {
+            Assertions.assertEquals(tree.from[k], eager.get(k).from);
+            Assertions.assertEquals(tree.to[k], eager.get(k).to);
+            Assertions.assertEquals(tree.weight[k], eager.get(k).getWeight());
+        }
+
+        // the graph is a union-find of its crossroads too
+        CrossroadsNode first = graph.nodeAt(0), last = graph.nodeAt(graph.getNodeCount() - 1);
+        Assertions.assertTrue(graph.connected(first, last));
+        for (int i = 0; i < graph.getNodeCount(); i++)
+            for (WeightedRib rib : graph.ribsOf(i)) graph.disconnectNodes(rib.from, rib.to);
+        Assertions.assertFalse(graph.connected(first, last));
+        graph.union(first, last);
+        Assertions.assertTrue(graph.connected(first, last));
+        Assertions.assertFalse(graph.connected(first, graph.nodeAt(1)));
     }
 
     @Test
@@ -291,6 +316,93 @@ public class JarnikTests {
             Assertions.assertEquals(5484.0d, result);
         }
         GraphUtil.printWeighted(minimalSpanningTree, graph);
+
+        List<WeightedRib> kruskal = GraphUtil.kruskal(graph);
+        Assertions.assertEquals(Crossroad.values().length - 1, kruskal.size());
+        Assertions.assertEquals(5484.0d, kruskal.stream().mapToDouble(WeightedRib::getWeight).sum());
+        List<WeightedRib> boruvka = GraphUtil.boruvka(graph);
+        Assertions.assertEquals(Crossroad.values().length - 1, boruvka.size());
+        Assertions.assertEquals(5484.0d, boruvka.stream().mapToDouble(WeightedRib::getWeight).sum());
+        for (int i = 0; i < Crossroad.values().length; i++) {
+            GraphUtil.SpanningTree tree = GraphUtil.eagerJarnik(graph, i);
+            Assertions.assertEquals(Crossroad.values().length - 1, tree.size());
+            Assertions.assertEquals(5484.0d, tree.totalWeight());
+            Assertions.assertEquals(5484.0d, GraphUtil.eagerJarnikList(graph, i).stream().mapToDouble(WeightedRib::getWeight).sum());
+        }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void minimumSpanningTreesSparseWeightedIncidentalityListGraphTest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int nodeCount = 50000;
+        ArrayList<Integer> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) nodes.add(i);
+        WeightedIncidentalityListGraph<Integer, WeightedRib> graph = new WeightedIncidentalityListGraph<>(nodes);
+        for (int i = 1; i < nodeCount; i++) graph.connectNodes(random.nextInt(i), i, random.nextInt(1, 1000));
+        for (int i = 0; i < nodeCount * 2; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from != to) graph.connectNodes(from, to, random.nextInt(1, 1000));
+        }
+
+        LocalDateTime start = LocalDateTime.now();
+        List<WeightedRib> jarnik = GraphUtil.jarnik(graph, 0);
+        System.out.println("Jarnik's algorithm took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        start = LocalDateTime.now();
+        List<WeightedRib> kruskal = GraphUtil.kruskal(graph);
+        System.out.println("Kruskal's algorithm took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        start = LocalDateTime.now();
+        List<WeightedRib> boruvka = GraphUtil.boruvka(graph);
+        System.out.println("Parallel Boruvka's algorithm took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        start = LocalDateTime.now();
+        List<WeightedRib> eager = GraphUtil.eagerJarnikList(graph, 0);
+        System.out.println("Eager Jarnik's algorithm took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        double expected = jarnik.stream().mapToDouble(WeightedRib::getWeight).sum();
+        for (List<WeightedRib> tree : List.of(kruskal, boruvka, eager)) {
+            Assertions.assertEquals(nodeCount - 1, tree.size());
+            Assertions.assertEquals(expected, tree.stream().mapToDouble(WeightedRib::getWeight).sum(), 1e-6);
+            IntUnionFind trees = new IntUnionFind(nodeCount);
+            for (WeightedRib rib : tree) Assertions.assertTrue(trees.union(rib.from, rib.to));
+            Assertions.assertEquals(1, trees.count());
+        }
+    }
+
+    @Test
+    public void kruskalAndBoruvkaForestTest() {
+        ArrayList<String> nodes = new ArrayList<>(List.of("A", "B", "C", "D", "E"));
+        WeightedIncidentalityListDirectedGraph<String, WeightedArc> graph = new WeightedIncidentalityListDirectedGraph<>(nodes);
+        graph.connectNodes("A", "B", 3.0d);
+        graph.connectNodes("B", "C", 1.0d);
+        graph.connectNodes("C", "A", 2.0d);
+        graph.connectNodes("D", "E", 5.0d);
+        for (List<WeightedArc> forest : List.of(GraphUtil.kruskal(graph), GraphUtil.boruvka(graph))) {
+            Assertions.assertEquals(3, forest.size());
+            Assertions.assertEquals(8.0d, forest.stream().mapToDouble(arc -> arc.weight).sum());
+        }
+
+        // the arc C -> A leads backwards, and a directed compressed sparse row copy keeps it
+        CompressedSparseRowGraph<String, WeightedRib> csr = CompressedSparseRowGraph.from(graph);
+        for (List<WeightedRib> forest : List.of(GraphUtil.kruskal(csr), GraphUtil.boruvka(csr))) {
+            Assertions.assertEquals(3, forest.size());
+            Assertions.assertEquals(8.0d, forest.stream().mapToDouble(rib -> rib.weight).sum());
+        }
+    }
+
+    @Test
+    public void concurrentUnionFindTest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = 100000;
+        int[][] pairs = new int[size / 2][];
+        for (int i = 0; i < pairs.length; i++) pairs[i] = new int[]{random.nextInt(size), random.nextInt(size)};
+
+        IntUnionFind expected = new IntUnionFind(size);
+        for (int[] pair : pairs) expected.union(pair[0], pair[1]);
+        ConcurrentIntUnionFind actual = new ConcurrentIntUnionFind(size);
+        long merges = Arrays.stream(pairs).parallel().filter(pair -> actual.union(pair[0], pair[1])).count();
+
+        Assertions.assertEquals(size - expected.count(), merges);
+        for (int[] pair : pairs) Assertions.assertTrue(actual.connected(pair[0], pair[1]));
+        for (int i = 0; i < size; i++) Assertions.assertEquals(expected.connected(i, 0), actual.connected(i, 0));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.objects.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class KShortestPathsTests {
+
+    @Test
+    public void yenTest() {
+        // the example of the Wikipedia article on Yen's algorithm
+        ArrayList<String> nodes = new ArrayList<>(List.of("C", "D", "E", "F", "G", "H"));
+        WeightedIncidentalityListDirectedGraph<String, WeightedArc> graph = new WeightedIncidentalityListDirectedGraph<>(nodes);
+        graph.connectNodes("C", "D", 3.0d);
+        graph.connectNodes("C", "E", 2.0d);
+        graph.connectNodes("D", "F", 4.0d);
+        graph.connectNodes("E", "D", 1.0d);
+        graph.connectNodes("E", "F", 2.0d);
+        graph.connectNodes("E", "G", 3.0d);
+        graph.connectNodes("F", "G", 2.0d);
+        graph.connectNodes("F", "H", 1.0d);
+        graph.connectNodes("G", "H", 2.0d);
+
+        List<KShortestPaths.Route> routes = new KShortestPaths<>(graph).find("C", "H", 3);
+        Assertions.assertEquals(3, routes.size());
+        Assertions.assertArrayEquals(new int[]{0, 2, 3, 5}, routes.get(0).nodes);
+        Assertions.assertArrayEquals(new double[]{0, 2, 4, 5}, routes.get(0).distances);
+        Assertions.assertArrayEquals(new int[]{0, 2, 4, 5}, routes.get(1).nodes);
+        Assertions.assertEquals(7.0d, routes.get(1).weight);
+        Assertions.assertEquals(8.0d, routes.get(2).weight);
+
+        // there are 7 loopless paths from C to H, and no more
+        Assertions.assertEquals(7, new KShortestPaths<>(graph).find("C", "H", 100).size());
+        Assertions.assertEquals(List.of(), new KShortestPaths<>(graph).find("H", "C", 3));
+        Assertions.assertEquals(1, new KShortestPaths<>(graph).find("C", "C", 3).size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new KShortestPaths<>(graph).find("C", "Z", 3));
+    }
+
+    @Test
+    public void yenDirectedCsrTest() {
+        CompressedSparseRowGraph<Integer, WeightedRib> graph = new CompressedSparseRowGraph.Builder<>(List.of(0, 1, 2), true)
+                .addRib(0, 1, 1.0d)
+                .addRib(1, 2, 1.0d)
+                .addRib(0, 2, 5.0d)
+                .build();
+        List<KShortestPaths.Route> routes = new KShortestPaths<>(graph).find(0, 2, 3);
+        Assertions.assertEquals(2, routes.size());
+        Assertions.assertArrayEquals(new int[]{0, 1, 2}, routes.get(0).nodes);
+        Assertions.assertEquals(5.0d, routes.get(1).weight);
+        Assertions.assertEquals(List.of(), new KShortestPaths<>(graph).find(2, 0, 3));
+    }
+
+    @Test
+    public void yenMatchesBruteForceTest() {
+        Random random = new Random(42);
+        for (int round = 0; round < 40; round++) {
+            int nodeCount = 8;
+            boolean directed = round % 2 == 0;
+            ArrayList<Integer> nodes = new ArrayList<>(IntStream.range(0, nodeCount).boxed().toList());
+            WeightedGraph<Integer, ?> graph = directed
+                    ? new WeightedIncidentalityListDirectedGraph<Integer, WeightedArc>(nodes)
+                    : new WeightedIncidentalityListGraph<Integer, WeightedRib>(nodes);
+            for (int i = 0; i < nodeCount * 2; i++) {
+                int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+                if (from != to) graph.connectNodes(from, to, random.nextInt(1, 10));
+            }
+            List<Double> expected = new ArrayList<>();
+            allPaths(graph, 0, nodeCount - 1, new boolean[nodeCount], 0, expected);
+            Collections.sort(expected);
+
+            List<KShortestPaths.Route> routes = new KShortestPaths<>(graph).find(0, nodeCount - 1, 10);
+            Assertions.assertEquals(Math.min(10, expected.size()), routes.size());
+            Set<List<Integer>> distinct = new HashSet<>();
+            for (int i = 0; i < routes.size(); i++) {
+                KShortestPaths.Route route = routes.get(i);
+                Assertions.assertEquals(expected.get(i), route.weight, 1e-9);
+                Assertions.assertEquals(nodeCount - 1, route.nodes[route.size() - 1]);
+                Assertions.assertEquals(route.size(), Arrays.stream(route.nodes).distinct().count());
+                Assertions.assertTrue(distinct.add(Arrays.stream(route.nodes).boxed().toList()));
+            }
+        }
+    }
+
+    private static void allPaths(Graph<Integer, ?> graph, int node, int target, boolean[] onPath, double weight, List<Double> weights) {
+        if (node == target) {
+            weights.add(weight);
+            return;
+        }
+        onPath[node] = true;
+        Map<Integer, Double> lightest = new HashMap<>();
+        graph.forEachNeighbor(node, (to, w) -> lightest.merge(to, w, Math::min));
+        lightest.forEach((to, w) -> {
+            if (!onPath[to]) allPaths(graph, to, target, onPath, weight + w, weights);
+        });
+        onPath[node] = false;
+    }
+
+    @Test
+    public void lazyPathsTest() {
+        int side = 100, nodeCount = side * side;
+        Random random = new Random(42);
+        IncidentalityListGraphBuilder<Integer> builder = new IncidentalityListGraphBuilder<>(IntStream.range(0, nodeCount).boxed().toList(), nodeCount * 2);
+        for (int i = 0; i < nodeCount; i++) {
+            if (i % side + 1 < side) builder.addRib(i, i + 1, random.nextInt(1, 100));
+            if (i + side < nodeCount) builder.addRib(i, i + side, random.nextInt(1, 100));
+        }
+        WeightedIncidentalityListGraph<Integer, WeightedRib> graph = builder.buildWeighted();
+        KShortestPaths<Integer> yen = new KShortestPaths<>(graph);
+
+        LocalDateTime start = LocalDateTime.now();
+        List<KShortestPaths.Route> three = yen.find(0, nodeCount - 1, 3);
+        System.out.println("3 shortest paths across a grid of " + nodeCount + " nodes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        start = LocalDateTime.now();
+        List<KShortestPaths.Route> twenty = yen.find(0, nodeCount - 1, 20);
+        System.out.println("20 shortest paths across a grid of " + nodeCount + " nodes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        Assertions.assertEquals(20, twenty.size());
+        for (int i = 0; i < 3; i++) Assertions.assertEquals(three.get(i).weight, twenty.get(i).weight);
+        for (int i = 1; i < twenty.size(); i++) Assertions.assertTrue(twenty.get(i - 1).weight <= twenty.get(i).weight);
+        Assertions.assertEquals(GraphUtil.indexedDijkstra(graph, 0, -1).distances[nodeCount - 1], three.get(0).weight);
+
+        Stream<KShortestPaths.Route> paths = yen.paths(0, nodeCount - 1);
+        Iterator<KShortestPaths.Route> iterator = paths.iterator();
+        iterator.next();
+        graph.connectNodes(0, nodeCount - 1, 1.0d);
+        Assertions.assertThrows(ConcurrentModificationException.class, iterator::next);
+        Assertions.assertEquals(1.0d, yen.find(0, nodeCount - 1, 1).get(0).weight);
+    }
+}
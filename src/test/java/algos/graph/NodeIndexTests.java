@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.*;
+import algos.graph.specialized.CityWeightedAdjacencyMatrixGraph;
+import algos.graph.specialized.CityWeightedIncidentalityListDirectedGraph;
+import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class NodeIndexTests {
+
+    @Test
+    public void nodeIndexTest() throws GraphInstantiationException {
+        Integer[] nodes = IntStream.range(0, 5).boxed().toArray(Integer[]::new);
+        List<Graph<Integer, ?>> graphs = List.of(
+                new IncidentalityListGraph<Integer, Rib>(new ArrayList<>(List.of(nodes))),
+                new WeightedIncidentalityListDirectedGraph<Integer, WeightedArc>(new ArrayList<>(List.of(nodes))),
+                new AdjacencyMatrixGraph<Integer, Rib>(nodes.clone(), new boolean[5][5]),
+                new WeightedAdjacencyMatrixDirectedGraph<Integer, WeightedArc>(nodes.clone(), new double[5][5]),
+                CompressedSparseRowGraph.from(new IncidentalityListGraph<Integer, Rib>(new ArrayList<>(List.of(nodes)))));
+        for (Graph<Integer, ?> graph : graphs) {
+            for (int i = 0; i < nodes.length; i++) Assertions.assertEquals(i, graph.indexOf(nodes[i]));
+            Assertions.assertEquals(-1, graph.indexOf(42));
+        }
+
+        // a node added later is found as well
+        IncidentalityListGraph<Integer, Rib> list = new IncidentalityListGraph<>(new ArrayList<>(List.of(nodes)));
+        Assertions.assertEquals(5, list.addVertex(5));
+        Assertions.assertEquals(5, list.indexOf(5));
+        list.connectNodes(Integer.valueOf(5), Integer.valueOf(0));
+        Assertions.assertEquals(1, list.getRibCount());
+        AdjacencyMatrixGraph<Integer, Rib> matrix = new AdjacencyMatrixGraph<>(nodes.clone(), new boolean[5][5]);
+        Assertions.assertEquals(5, matrix.addNode(nodes[0] + 5, new boolean[6][6]));
+        Assertions.assertEquals(5, matrix.indexOf(matrix.nodeAt(5)));
+        Assertions.assertEquals(0, matrix.indexOf(nodes[0]));
+    }
+
+    @Test
+    public void specializedNodeIndexTest() throws GraphInstantiationException {
+        CityNode[] cities = {new CityNode(City.SAINT_PETERSBURG), new CityNode(City.HELSINKI), new CityNode(City.VYBORG)};
+        CityWeightedAdjacencyMatrixGraph<CityNode, WeightedRib> matrix = new CityWeightedAdjacencyMatrixGraph<>(cities, new double[3][3]);
+        CityWeightedIncidentalityListDirectedGraph<CityNode, WeightedArc> list = new CityWeightedIncidentalityListDirectedGraph<>(new ArrayList<>(List.of(cities)));
+        for (int i = 0; i < cities.length; i++) {
+            Assertions.assertEquals(i, matrix.indexOf(cities[i].getCity()));
+            Assertions.assertEquals(i, matrix.indexOf(new CityNode(cities[i].getCity())));
+            Assertions.assertEquals(i, list.indexOf(cities[i].getCity()));
+            Assertions.assertEquals(i, list.indexOf(cities[i]));
+        }
+        Assertions.assertEquals(-1, matrix.indexOf(City.MOSCOW));
+        Assertions.assertEquals(-1, list.indexOf(City.MOSCOW));
+
+        CityNode moscow = new CityNode(City.MOSCOW);
+        Assertions.assertEquals(3, matrix.addNode(moscow, new boolean[4][4]));
+        Assertions.assertEquals(3, list.addVertex(moscow));
+        Assertions.assertEquals(3, matrix.indexOf(City.MOSCOW));
+        Assertions.assertEquals(3, list.indexOf(City.MOSCOW));
+        Assertions.assertEquals(3, list.indexOf(moscow));
+
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> crossroads = CompressedSparseRowGraphTests.crossroadsGraph();
+        for (int i = 0; i < crossroads.getNodeCount(); i++) {
+            Assertions.assertEquals(i, crossroads.indexOf(crossroads.nodeAt(i).getCrossroad()));
+            Assertions.assertEquals(i, crossroads.indexOf(crossroads.nodeAt(i)));
+        }
+    }
+
+    @Test
+    public void nodeIndexPerformanceTest() {
+        int nodeCount = 200_000;
+        ArrayList<Integer> nodes = new ArrayList<>(IntStream.range(0, nodeCount).boxed().toList());
+        WeightedIncidentalityListGraph<Integer, WeightedRib> graph = new WeightedIncidentalityListGraph<>(nodes);
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 1; i < nodeCount; i++) graph.connectNodes(Integer.valueOf(i - 1), Integer.valueOf(i), 1.0d);
+        System.out.println("Connecting " + nodeCount + " nodes by value took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertEquals(nodeCount - 1, graph.getRibCount());
+        Assertions.assertEquals(nodeCount - 1, graph.indexOf(nodeCount - 1));
+    }
+}
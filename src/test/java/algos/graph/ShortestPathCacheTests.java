@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.*;
+import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class ShortestPathCacheTests {
+
+    @Test
+    public void shortestPathCacheCrossroadsWeightedIncidentalityListGraphTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        ShortestPathCache<CrossroadsNode, WeightedRib, CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib>> cache =
+                new ShortestPathCache<>(graph, 100);
+        CrossroadsNode source = graph.nodeAt(graph.indexOf(Crossroad.BOLSHOY_PROSPECT_18_19_LINES));
+        CrossroadsNode target = graph.nodeAt(graph.indexOf(Crossroad.SMOLENKA_EMB_8_9_LINES));
+
+        List<WeightedRib> path = cache.path(source, target);
+        Assertions.assertSame(path, cache.path(source, target));
+        Assertions.assertEquals(GraphUtil.dijkstra(source, graph).distances[graph.indexOf(target)], path.stream().mapToDouble(rib -> rib.weight).sum(), 1e-9);
+        GraphUtil.DijkstraResult<WeightedRib> result = cache.dijkstra(source);
+        Assertions.assertSame(result, cache.dijkstra(source));
+        ShortestPathCache.Stats stats = cache.getStats();
+        Assertions.assertEquals(2, cache.size());
+        // a path which misses looks for its tree without counting it, so every call is a single look-up
+        Assertions.assertEquals(3, stats.hits());
+        Assertions.assertEquals(1, stats.misses());
+        cache.path(source, graph.nodeAt(0));
+        Assertions.assertEquals(3, cache.getStats().hits());
+        Assertions.assertEquals(2, cache.getStats().misses());
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertEquals(.6d, cache.getStats().hitRate(), 1e-9);
+
+        // a new shortcut makes the cached path stale
+        graph.connectNodes(graph.indexOf(source), graph.indexOf(target), 1.0d);
+        List<WeightedRib> shortcut = cache.path(source, target);
+        Assertions.assertEquals(1, shortcut.size());
+        Assertions.assertEquals(1, cache.getStats().invalidations());
+        Assertions.assertEquals(1.0d, cache.distance(source, target));
+    }
+
+    @Test
+    public void shortestPathCacheEvictionTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        ShortestPathCache<CrossroadsNode, WeightedRib, CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib>> cache =
+                new ShortestPathCache<>(graph, 3);
+        for (int i = 0; i < 5; i++) cache.dijkstra(graph.nodeAt(i));
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertEquals(2, cache.getStats().evictions());
+        // the least recently used entries are gone, the most recent ones are still there
+        cache.dijkstra(graph.nodeAt(4));
+        cache.dijkstra(graph.nodeAt(0));
+        Assertions.assertEquals(1, cache.getStats().hits());
+        Assertions.assertEquals(6, cache.getStats().misses());
+
+        // concurrent look-ups get the same distances as plain Dijkstra algorithm does
+        IntStream.range(0, 2000).parallel().forEach(i -> {
+            CrossroadsNode node = graph.nodeAt(i % graph.getNodeCount());
+            Assertions.assertArrayEquals(GraphUtil.dijkstra(node, graph).distances, cache.dijkstra(node).distances);
+        });
+        Assertions.assertTrue(cache.size() <= 3);
+    }
+
+    @Test
+    public void staleLookUpTest() {
+        long[] version = {0};
+        WeightedIncidentalityListGraph<Integer, WeightedRib> graph = new WeightedIncidentalityListGraph<>(new ArrayList<>(List.of(0, 1, 2))) {
+            @Override
+            public long getModificationCount() {
+                return version[0];
+            }
+        };
+        graph.connectNodes(0, 1, 1.0d);
+        graph.connectNodes(1, 2, 1.0d);
+        ShortestPathCache<Integer, WeightedRib, WeightedIncidentalityListGraph<Integer, WeightedRib>> cache = new ShortestPathCache<>(graph, 10);
+        version[0] = 2;
+        GraphUtil.DijkstraResult<WeightedRib> result = cache.dijkstra(0);
+        // a caller which read the count before the change gets a miss, and the newer entry stays
+        version[0] = 1;
+        Assertions.assertNotSame(result, cache.dijkstra(0));
+        Assertions.assertEquals(1, cache.size());
+        version[0] = 2;
+        Assertions.assertSame(result, cache.dijkstra(0));
+        Assertions.assertEquals(0, cache.getStats().invalidations());
+        Assertions.assertEquals(1, cache.getStats().hits());
+    }
+
+    @Test
+    public void modificationCountTest() throws GraphInstantiationException {
+        ArrayList<Integer> nodes = new ArrayList<>(List.of(0, 1, 2));
+        List<Graph<Integer, ?>> graphs = List.of(
+                new IncidentalityListGraph<Integer, Rib>(new ArrayList<>(nodes)),
+                new IncidentalityListDirectedGraph<Integer, Arc>(new ArrayList<>(nodes)),
+                new AdjacencyMatrixGraph<Integer, Rib>(new Integer[]{0, 1, 2}, new boolean[3][3]),
+                new AdjacencyMatrixDirectedGraph<Integer, Arc>(new Integer[]{0, 1, 2}, new boolean[3][3]));
+        for (Graph<Integer, ?> graph : graphs) {
+            long count = graph.getModificationCount();
+            graph.connectNodes(0, 1);
+            Assertions.assertTrue(graph.getModificationCount() > count);
+            count = graph.getModificationCount();
+            graph.disconnectNodes(0, 1);
+            Assertions.assertTrue(graph.getModificationCount() > count);
+        }
+
+        List<WeightedGraph<Integer, ?>> weightedGraphs = List.of(
+                new WeightedIncidentalityListGraph<Integer, WeightedRib>(new ArrayList<>(nodes)),
+                new WeightedIncidentalityListDirectedGraph<Integer, WeightedArc>(new ArrayList<>(nodes)),
+                new WeightedAdjacencyMatrixGraph<Integer, WeightedRib>(new Integer[]{0, 1, 2}, new double[3][3]),
+                new WeightedAdjacencyMatrixDirectedGraph<Integer, WeightedArc>(new Integer[]{0, 1, 2}, new double[3][3]));
+        for (WeightedGraph<Integer, ?> graph : weightedGraphs) {
+            long count = graph.getModificationCount();
+            graph.connectNodes(0, 1, 2.0d);
+            Assertions.assertTrue(graph.getModificationCount() > count);
+            count = graph.getModificationCount();
+            graph.disconnectNodes(0, 1);
+            Assertions.assertTrue(graph.getModificationCount() > count);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.geo.Vincenty;
+import algos.graph.objects.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class SpatialIndexTests {
+
+    private static double greatCircle(GeoNode a, double latitude, double longitude) {
+        double phi1 = Math.toRadians(a.getLatitude()), phi2 = Math.toRadians(latitude);
+        double h = Math.pow(Math.sin((phi2 - phi1) / 2), 2)
+                + Math.cos(phi1) * Math.cos(phi2) * Math.pow(Math.sin(Math.toRadians(longitude - a.getLongitude()) / 2), 2);
+        return 2 * SpatialIndex.EARTH_RADIUS * Math.asin(Math.min(1.0d, Math.sqrt(h)));
+    }
+
+    private static List<EdgeListReader.Location> randomLocations(int count, Random random) {
+        List<EdgeListReader.Location> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // a uniform distribution over the sphere, and a dense cluster across the antimeridian
+            double latitude = i % 4 == 0 ? random.nextDouble(-1, 1) : Math.toDegrees(Math.asin(random.nextDouble(-1, 1)));
+            double longitude = i % 4 == 0 ? 180 - random.nextDouble(0, 2) : random.nextDouble(-180, 180);
+            locations.add(new EdgeListReader.Location(i, latitude, longitude > 180 ? longitude - 360 : longitude));
+        }
+        return locations;
+    }
+
+    @Test
+    public void spatialIndexMatchesScanTest() {
+        Random random = new Random(42);
+        List<EdgeListReader.Location> locations = randomLocations(20_000, random);
+        LocalDateTime start = LocalDateTime.now();
+        SpatialIndex<EdgeListReader.Location> index = new SpatialIndex<>(locations);
+        System.out.println("Indexing " + locations.size() + " nodes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        for (int query = 0; query < 300; query++) {
+            double latitude = query % 3 == 0 ? random.nextDouble(-2, 2) : random.nextDouble(-90, 90);
+            double longitude = query % 3 == 0 ? -179.5 : random.nextDouble(-180, 180);
+            Integer[] byDistance = IntStream.range(0, locations.size()).boxed().toArray(Integer[]::new);
+            double[] distances = locations.stream().mapToDouble(location -> greatCircle(location, latitude, longitude)).toArray();
+            Arrays.sort(byDistance, Comparator.comparingDouble(i -> distances[i]));
+
+            SpatialIndex.Neighbors nearest = index.nearest(latitude, longitude, 5);
+            Assertions.assertEquals(5, nearest.size());
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertEquals(byDistance[i], nearest.indices[i]);
+                Assertions.assertEquals(distances[byDistance[i]], nearest.distances[i], 1e-3);
+            }
+            Assertions.assertSame(locations.get(byDistance[0]), index.nearestNode(latitude, longitude));
+
+            double radius = 200_000;
+            SpatialIndex.Neighbors around = index.withinRadius(latitude, longitude, radius);
+            long expected = Arrays.stream(distances).filter(distance -> distance <= radius).count();
+            Assertions.assertEquals(expected, around.size());
+            for (int i = 0; i < around.size(); i++) {
+                Assertions.assertEquals(byDistance[i], around.indices[i]);
+                Assertions.assertTrue(i == 0 || around.distances[i - 1] <= around.distances[i]);
+            }
+        }
+        Assertions.assertEquals(-1, new SpatialIndex<>(List.<CityNode>of()).nearest(0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index.nearest(0, 0, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index.withinRadius(0, 0, Double.NaN));
+    }
+
+    @Test
+    public void citySnappingTest() {
+        List<CityNode> cities = Arrays.stream(City.values()).map(CityNode::new).toList();
+        SpatialIndex<CityNode> index = new SpatialIndex<>(cities);
+        for (CityNode city : cities) {
+            CityNode nearest = index.nearestNode(city.getLatitude() + 1e-4, city.getLongitude() - 1e-4);
+            Assertions.assertEquals(city.getLatitude(), nearest.getLatitude());
+            Assertions.assertEquals(city.getLongitude(), nearest.getLongitude());
+        }
+        CityNode petersburg = cities.get(City.SAINT_PETERSBURG.ordinal()), helsinki = cities.get(City.HELSINKI.ordinal());
+        SpatialIndex.Neighbors around = index.withinRadius(petersburg.getLatitude(), petersburg.getLongitude(), 1_000_000);
+        int position = Arrays.stream(around.indices).boxed().toList().indexOf(City.HELSINKI.ordinal());
+        Assertions.assertTrue(position >= 0);
+        double vincenty = Vincenty.getDistance(petersburg.getLatitude(), petersburg.getLongitude(), helsinki.getLatitude(), helsinki.getLongitude());
+        Assertions.assertEquals(vincenty, around.distances[position], vincenty * 0.005);
+    }
+
+    @Test
+    public void nearestNeighborGraphTest() {
+        Random random = new Random(7);
+        List<EdgeListReader.Location> locations = randomLocations(100_000, random);
+        SpatialIndex<EdgeListReader.Location> index = new SpatialIndex<>(locations);
+        LocalDateTime start = LocalDateTime.now();
+        CompressedSparseRowGraph<EdgeListReader.Location, WeightedRib> graph = index.nearestNeighborGraph(8, new ForkJoinPool(4));
+        System.out.println("The graph of 8 nearest neighbours of " + locations.size() + " nodes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+
+        Assertions.assertTrue(graph.isDirected());
+        Assertions.assertEquals(8 * locations.size(), graph.getRibCount());
+        for (int node = 0; node < locations.size(); node += 997) {
+            EdgeListReader.Location location = locations.get(node);
+            SpatialIndex.Neighbors nearest = index.nearest(location.latitude(), location.longitude(), 9);
+            Set<Integer> expected = new HashSet<>();
+            for (int i : nearest.indices) if (i != node) expected.add(i);
+            Set<Integer> actual = new HashSet<>();
+            graph.forEachNeighbor(node, (to, weight) -> actual.add(to));
+            Assertions.assertEquals(8, actual.size());
+            Assertions.assertTrue(expected.containsAll(actual));
+            Assertions.assertEquals(graph.nodeAt(node), location);
+        }
+    }
+}
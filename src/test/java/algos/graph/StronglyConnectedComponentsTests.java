@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph;
+
+import algos.graph.exception.GraphInstantiationException;
+import algos.graph.objects.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class StronglyConnectedComponentsTests {
+
+    @Test
+    public void componentsTest() throws GraphInstantiationException {
+        // the example of Introduction to Algorithms by Cormen et al.
+        String[] nodes = {"a", "b", "c", "d", "e", "f", "g", "h"};
+        int[][] arcs = {{0, 1}, {1, 2}, {1, 4}, {1, 5}, {2, 3}, {2, 6}, {3, 2}, {3, 7}, {4, 0}, {4, 5}, {5, 6}, {6, 5}, {6, 7}, {7, 7}};
+        IncidentalityListDirectedGraph<String, Arc> list = new IncidentalityListDirectedGraph<>(new ArrayList<>(List.of(nodes)));
+        AdjacencyMatrixDirectedGraph<String, Arc> matrix = new AdjacencyMatrixDirectedGraph<>(nodes, new boolean[nodes.length][nodes.length]);
+        for (int[] arc : arcs) {
+            list.connectNodes(arc[0], arc[1]);
+            matrix.connectNodes(arc[0], arc[1]);
+        }
+        for (Graph<String, Arc> graph : List.<Graph<String, Arc>>of(list, matrix)) {
+            StronglyConnectedComponents<String> scc = new StronglyConnectedComponents<>(graph);
+            Assertions.assertEquals(4, scc.getComponentCount());
+            // {a, b, e} reaches {c, d} and {f, g}, both of which reach {h}
+            Assertions.assertArrayEquals(new int[]{0, 1, 4}, scc.membersOf(scc.componentOf("a")));
+            Assertions.assertEquals(0, scc.componentOf("e"));
+            Assertions.assertTrue(scc.stronglyConnected(2, 3));
+            Assertions.assertTrue(scc.stronglyConnected(5, 6));
+            Assertions.assertFalse(scc.stronglyConnected(3, 6));
+            Assertions.assertEquals(3, scc.componentOf("h"));
+            Assertions.assertEquals(1, scc.sizeOf(3));
+
+            CompressedSparseRowGraph<Integer, WeightedRib> condensation = scc.getCondensation();
+            Assertions.assertEquals(4, condensation.getNodeCount());
+            Assertions.assertEquals(5, condensation.getRibCount());
+            Assertions.assertEquals(2, condensation.degreeOf(0));
+            Assertions.assertEquals(0, condensation.degreeOf(3));
+        }
+    }
+
+    @Test
+    public void componentsMatchReachabilityTest() {
+        Random random = new Random(42);
+        for (int round = 0; round < 30; round++) {
+            int n = 40;
+            IncidentalityListGraphBuilder<Integer> builder = new IncidentalityListGraphBuilder<>(IntStream.range(0, n).boxed().toList(), n * 2);
+            for (int i = 0; i < n + round * 2; i++) builder.addRib(random.nextInt(n), random.nextInt(n), random.nextInt(1, 10));
+            WeightedIncidentalityListDirectedGraph<Integer, WeightedArc> graph = builder.buildWeightedDirected();
+            StronglyConnectedComponents<Integer> scc = new StronglyConnectedComponents<>(graph);
+
+            boolean[][] reachable = new boolean[n][];
+            for (int i = 0; i < n; i++) {
+                int[] depths = GraphUtil.directionOptimizingBfs(graph, i).depths;
+                reachable[i] = new boolean[n];
+                for (int j = 0; j < n; j++) reachable[i][j] = depths[j] != -1;
+            }
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++) {
+                    Assertions.assertEquals(reachable[i][j] && reachable[j][i], scc.stronglyConnected(i, j));
+                    // component ids are a topological order
+                    if (reachable[i][j]) Assertions.assertTrue(scc.componentOf(i) <= scc.componentOf(j));
+                }
+
+            CompressedSparseRowGraph<Integer, WeightedRib> condensation = scc.getCondensation();
+            int[] order = GraphUtil.topologicalOrder(condensation);
+            int[] position = new int[order.length];
+            for (int i = 0; i < order.length; i++) position[order[i]] = i;
+            for (int c = 0; c < scc.getComponentCount(); c++) {
+                int from = c;
+                condensation.forEachNeighbor(c, (to, weight) -> Assertions.assertTrue(position[from] < position[to] && from < to));
+            }
+        }
+    }
+
+    @Test
+    public void deepGraphTest() {
+        int n = 1_000_000;
+        int[] from = IntStream.range(0, n - 1).toArray(), to = IntStream.range(1, n).toArray();
+        double[] weights = new double[n - 1];
+        List<Integer> nodes = IntStream.range(0, n).boxed().toList();
+        CompressedSparseRowGraph<Integer, WeightedRib> chain = new CompressedSparseRowGraph.Builder<>(nodes, true).addRibs(from, to, weights).build();
+
+        LocalDateTime start = LocalDateTime.now();
+        int[] order = GraphUtil.topologicalOrder(chain);
+        System.out.println("Topological order of a chain of " + n + " nodes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertArrayEquals(from, IntStream.range(0, n - 1).map(i -> order[i]).toArray());
+        int[] components = StronglyConnectedComponents.tarjan(chain.getOffsets(), chain.getTargets());
+        Assertions.assertArrayEquals(IntStream.range(0, n).toArray(), components);
+
+        CompressedSparseRowGraph<Integer, WeightedRib> cycle = new CompressedSparseRowGraph.Builder<>(nodes, true)
+                .addRibs(from, to, weights).addRib(n - 1, 0, 1.0d).build();
+        start = LocalDateTime.now();
+        StronglyConnectedComponents<Integer> scc = new StronglyConnectedComponents<>(cycle);
+        System.out.println("Strongly connected components of a cycle of " + n + " nodes took " + Duration.between(start, LocalDateTime.now()).toMillis() + " millis.");
+        Assertions.assertEquals(1, scc.getComponentCount());
+        Assertions.assertEquals(n, scc.sizeOf(0));
+        Assertions.assertEquals(0, scc.getCondensation().getRibCount());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphUtil.topologicalOrder(cycle));
+    }
+
+    @Test
+    public void mappedGraphTest(@TempDir Path directory) throws IOException {
+        // a diamond 0 -> {1, 2} -> 3
+        CompressedSparseRowGraph<Integer, WeightedRib> dag = new CompressedSparseRowGraph.Builder<>(IntStream.range(0, 4).boxed().toList(), true)
+                .addRib(0, 1, 1.0d).addRib(0, 2, 1.0d).addRib(1, 3, 1.0d).addRib(2, 3, 1.0d)
+                .build();
+        Path file = directory.resolve("dag.grf");
+        GraphFile.write(dag, GraphFile.NodeCodec.integers(), file);
+        MappedGraph<Integer> mapped = MappedGraph.open(file, GraphFile.NodeCodec.integers());
+        int[] order = GraphUtil.topologicalOrder(mapped);
+        Assertions.assertEquals(0, order[0]);
+        Assertions.assertEquals(3, order[3]);
+        Assertions.assertEquals(4, new StronglyConnectedComponents<>(mapped).getComponentCount());
+
+        CompressedSparseRowGraph<Integer, WeightedRib> cyclic = new CompressedSparseRowGraph.Builder<>(IntStream.range(0, 3).boxed().toList(), true)
+                .addRib(0, 1, 1.0d).addRib(1, 2, 1.0d).addRib(2, 1, 1.0d)
+                .build();
+        Path cyclicFile = directory.resolve("cyclic.grf");
+        GraphFile.write(cyclic, GraphFile.NodeCodec.integers(), cyclicFile);
+        MappedGraph<Integer> mappedCyclic = MappedGraph.open(cyclicFile, GraphFile.NodeCodec.integers());
+        StronglyConnectedComponents<Integer> scc = new StronglyConnectedComponents<>(mappedCyclic);
+        Assertions.assertEquals(2, scc.getComponentCount());
+        Assertions.assertTrue(scc.stronglyConnected(1, 2));
+        Assertions.assertArrayEquals(new int[]{0, 1}, GraphUtil.topologicalOrder(scc.getCondensation()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphUtil.topologicalOrder(mappedCyclic));
+    }
+
+    @Test
+    public void undirectedTest() {
+        IncidentalityListGraphBuilder<Integer> builder = new IncidentalityListGraphBuilder<>(IntStream.range(0, 5).boxed().toList(), 2);
+        builder.addRib(0, 1, 1).addRib(3, 4, 1);
+        IncidentalityListGraph<Integer, Rib> graph = builder.build();
+        StronglyConnectedComponents<Integer> scc = new StronglyConnectedComponents<>(graph);
+        Assertions.assertEquals(3, scc.getComponentCount());
+        Assertions.assertTrue(scc.stronglyConnected(0, 1));
+        Assertions.assertTrue(scc.stronglyConnected(4, 3));
+        Assertions.assertFalse(scc.stronglyConnected(1, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphUtil.topologicalOrder(graph));
+    }
+}
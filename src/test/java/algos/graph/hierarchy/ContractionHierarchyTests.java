@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2023. This code's author is Viacheslav Mikhailov (mikhailowvw@gmail.com)
+ */
+package algos.graph.hierarchy;
+
+import algos.graph.CompressedSparseRowGraph;
+import algos.graph.CompressedSparseRowGraphTests;
+import algos.graph.GraphUtil;
+import algos.graph.WeightedIncidentalityListDirectedGraph;
+import algos.graph.objects.CrossroadsNode;
+import algos.graph.objects.WeightedArc;
+import algos.graph.objects.WeightedRib;
+import algos.graph.specialized.CrossroadsWeightedIncidentalityListGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ContractionHierarchyTests {
+    @Test
+    public void contractionHierarchyCrossroadsWeightedIncidentalityListGraphTest() {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        ContractionHierarchy hierarchy = ContractionHierarchy.preprocess(graph);
+        Assertions.assertEquals(graph.getNodeCount(), hierarchy.getNodeCount());
+        ContractionHierarchyQuery query = hierarchy.newQuery();
+
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            GraphUtil.IndexedDijkstraResult expected = GraphUtil.indexedDijkstra(graph, source, -1);
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                Assertions.assertEquals(expected.distances[target], query.distance(source, target), 1e-9);
+                if (source == target || !expected.reached(target)) continue;
+                List<WeightedRib> path = query.pathList(source, target, graph);
+                double weight = 0;
+                for (WeightedRib rib : path) weight += rib.weight;
+                Assertions.assertEquals(expected.distances[target], weight, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void contractionHierarchyWeightedIncidentalityListDirectedGraphTest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int nodeCount = 400;
+        ArrayList<Integer> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) nodes.add(i);
+        WeightedIncidentalityListDirectedGraph<Integer, WeightedArc> graph = new WeightedIncidentalityListDirectedGraph<>(nodes);
+        for (int i = 0; i < nodeCount * 4; i++) {
+            int from = random.nextInt(nodeCount), to = random.nextInt(nodeCount);
+            if (from != to) graph.connectNodes(from, to, random.nextInt(1, 100));
+        }
+
+        ContractionHierarchy hierarchy = ContractionHierarchy.preprocess(graph);
+        ContractionHierarchyQuery query = hierarchy.newQuery();
+        for (int source = 0; source < nodeCount; source += 7) {
+            GraphUtil.IndexedDijkstraResult expected = GraphUtil.indexedDijkstra(graph, source, -1);
+            for (int target = 0; target < nodeCount; target++) {
+                Assertions.assertEquals(expected.distances[target], query.distance(source, target), 1e-9);
+                int[] path = query.path(source, target);
+                if (!expected.reached(target)) {
+                    Assertions.assertEquals(0, path.length);
+                    continue;
+                }
+                Assertions.assertEquals(source, path[0]);
+                Assertions.assertEquals(target, path[path.length - 1]);
+                double weight = 0;
+                for (int i = 1; i < path.length; i++) weight += GraphUtil.ribBetween(graph, path[i - 1], path[i]).weight;
+                Assertions.assertEquals(expected.distances[target], weight, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void contractionHierarchySaveLoadTest(@TempDir Path directory) throws IOException {
+        CrossroadsWeightedIncidentalityListGraph<CrossroadsNode, WeightedRib> graph = CompressedSparseRowGraphTests.crossroadsGraph();
+        ContractionHierarchy hierarchy = new ContractionHierarchyBuilder(CompressedSparseRowGraph.from(graph))
+                .witnessSettleLimit(8)
+                .build();
+        Path file = directory.resolve("crossroads.ch");
+        hierarchy.save(file);
+        ContractionHierarchy loaded = ContractionHierarchy.load(file);
+
+        Assertions.assertEquals(hierarchy.getNodeCount(), loaded.getNodeCount());
+        Assertions.assertEquals(hierarchy.getArcCount(), loaded.getArcCount());
+        Assertions.assertEquals(hierarchy.getShortcutCount(), loaded.getShortcutCount());
+        ContractionHierarchyQuery expected = hierarchy.newQuery(), actual = loaded.newQuery();
+        for (int source = 0; source < graph.getNodeCount(); source++) {
+            Assertions.assertEquals(hierarchy.rankOf(source), loaded.rankOf(source));
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                Assertions.assertEquals(expected.distance(source, target), actual.distance(source, target));
+                Assertions.assertArrayEquals(expected.path(source, target), actual.path(source, target));
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 public class SortTests {
 
@@ -355,4 +356,23 @@ public class SortTests {
         Assertions.assertEquals("Vladimir", names[1]);
         Assertions.assertEquals("Timofey", names[2]);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void keyIndexQuickSortTest() {
+        Random random = new Random(7);
+        for (int length : new int[]{0, 1, 2, 15, 16, 17, 1000, 100000}) {
+            double[] keys = new double[length];
+            int[] payloads = new int[length];
+            for (int i = 0; i < length; i++) {
+                keys[i] = random.nextInt(length / 2 + 1); // plenty of equal keys
+                payloads[i] = i;
+            }
+            double[] original = keys.clone(), expected = keys.clone();
+            Arrays.sort(expected);
+            KeyIndexQuickSort.sort(keys, payloads);
+            Assertions.assertArrayEquals(expected, keys);
+            for (int i = 0; i < length; i++) Assertions.assertEquals(original[payloads[i]], keys[i]);
+            Assertions.assertEquals(length, Arrays.stream(payloads).distinct().count());
+        }
+    }
+}